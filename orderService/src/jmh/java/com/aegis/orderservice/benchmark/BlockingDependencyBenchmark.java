@@ -0,0 +1,139 @@
+package com.aegis.orderservice.benchmark;
+
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.OrderServiceApplication;
+import com.aegis.orderservice.dto.CreateOrderRequest;
+import com.aegis.orderservice.dto.OrderItemRequest;
+import com.aegis.orderservice.saga.OrderSagaEngine;
+import com.aegis.orderservice.services.resources.IOrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saga throughput with blocking dependency calls, platform vs virtual threads, through the app's own code:
+ * OrderSagaEngine on the worker executor ExecutorFactory builds for spring.threads.virtual.enabled, calling
+ * the LocalInventoryClient/LocalPaymentClient stubs (which block for {@code dependencyLatencyMs} per call)
+ * and committing each transition to Postgres. In platform mode throughput caps at about
+ * {@code workerThreads / (2 * dependencyLatencyMs)}; in virtual mode it follows the number of sagas in flight
+ * until the database becomes the limit. Needs the docker-compose Postgres on localhost:5432; seeds its own
+ * orders under a fresh userId and resets them to PENDING before every invocation.
+ * <p>
+ * Run: ./gradlew :orderService:jmh -Pjmh.includes=BlockingDependencyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BlockingDependencyBenchmark {
+
+    private static final int SAGAS = 1_000;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"50"})
+    public long dependencyLatencyMs;
+
+    @Param({"32"})
+    public int workerThreads;
+
+    private ConfigurableApplicationContext context;
+    private OrderSagaEngine sagaEngine;
+    private JdbcTemplate jdbcTemplate;
+    private String userId;
+    private List<UUID> orderIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                        "app.saga.enabled=true",
+                        "app.saga.worker-threads=" + workerThreads,
+                        "app.saga.max-in-flight=" + SAGAS,
+                        "app.saga.stub.latency-ms=" + dependencyLatencyMs,
+                        "app.saga.sweep-initial-delay-ms=3600000",
+                        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration",
+                        "spring.jpa.show-sql=false",
+                        "app.outbox.relay.enabled=false",
+                        "app.idempotency.retention.enabled=false")
+                .run();
+        sagaEngine = context.getBean(OrderSagaEngine.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        IOrderService orderService = context.getBean(IOrderService.class);
+        userId = "bench-" + UUID.randomUUID();
+        orderIds = new ArrayList<>(SAGAS);
+        for (int i = 0; i < SAGAS; i++) {
+            orderIds.add(orderService.createOrder(new CreateOrderRequest(userId, "USD",
+                    List.of(new OrderItemRequest("SKU-" + i, 1, new BigDecimal("9.99"))))).getOrderId());
+        }
+        // Creating the orders started their sagas; let them finish before measuring
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (unfinished() > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Seeded sagas did not finish");
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetOrders() {
+        jdbcTemplate.update("""
+                UPDATE orders SET status = 'PENDING', reservation_id = NULL, payment_authorization_id = NULL
+                WHERE user_id = ?
+                """, userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAGAS)
+    public int sagas() {
+        List<CompletableFuture<OrderStatus>> sagas = new ArrayList<>(SAGAS);
+        for (UUID id : orderIds) {
+            sagas.add(sagaEngine.start(id));
+        }
+        int confirmed = 0;
+        for (CompletableFuture<OrderStatus> saga : sagas) {
+            if (saga.join() == OrderStatus.CONFIRMED) {
+                confirmed++;
+            }
+        }
+        if (confirmed != SAGAS) {
+            throw new IllegalStateException("Only " + confirmed + " of " + SAGAS + " sagas confirmed");
+        }
+        return confirmed;
+    }
+
+    private int unfinished() {
+        Integer n = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM orders
+                WHERE user_id = ? AND status IN ('PENDING', 'RESERVED', 'PAYMENT_AUTHORIZED')
+                """, Integer.class, userId);
+        return n != null ? n : 0;
+    }
+}
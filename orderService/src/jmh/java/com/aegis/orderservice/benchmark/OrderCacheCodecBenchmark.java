@@ -0,0 +1,101 @@
+package com.aegis.orderservice.benchmark;
+
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.cache.BinaryOrderCacheCodec;
+import com.aegis.orderservice.cache.CachedOrder;
+import com.aegis.orderservice.cache.JsonOrderCacheCodec;
+import com.aegis.orderservice.cache.OrderCacheCodec;
+import com.aegis.orderservice.dto.OrderItemResponse;
+import com.aegis.orderservice.dto.OrderResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of the order cache codecs (JSON via the app's ObjectMapper settings vs the compact
+ * binary codec) for small and large orders. The payloadBytes counter reports the stored size per op.
+ * <p>
+ * Run: ./gradlew :orderService:jmh -Pjmh.includes=OrderCacheCodecBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderCacheCodecBenchmark {
+
+    @Param({"json", "binary"})
+    public String codecName;
+
+    @Param({"3", "50", "500"})
+    public int items;
+
+    private OrderCacheCodec codec;
+    private CachedOrder entry;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        codec = "binary".equals(codecName) ? new BinaryOrderCacheCodec(512) : new JsonOrderCacheCodec(objectMapper);
+        entry = new CachedOrder(order(items), 7, System.currentTimeMillis() + 600_000);
+        encoded = codec.encode(entry);
+    }
+
+    @Benchmark
+    public byte[] encode(Size size) {
+        byte[] out = codec.encode(entry);
+        size.payloadBytes += out.length;
+        return out;
+    }
+
+    @Benchmark
+    public CachedOrder decode() {
+        return codec.decode(encoded);
+    }
+
+    /** Bytes written per encode, averaged by JMH over the iteration. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long payloadBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+        }
+    }
+
+    private static OrderResponse order(int items) {
+        List<OrderItemResponse> lines = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            BigDecimal unitPrice = BigDecimal.valueOf(100 + i, 2);
+            lines.add(new OrderItemResponse((long) i + 1, "SKU-" + UUID.randomUUID().toString().substring(0, 8),
+                    1 + i % 5, unitPrice, unitPrice.multiply(BigDecimal.valueOf(1 + i % 5))));
+        }
+        return OrderResponse.builder()
+                .orderId(UUID.randomUUID())
+                .userId("user-" + UUID.randomUUID())
+                .currency("USD")
+                .status(OrderStatus.CONFIRMED)
+                .totalAmount(lines.stream().map(OrderItemResponse::getLineAmount).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .createdAt(Instant.now())
+                .items(lines)
+                .build();
+    }
+}
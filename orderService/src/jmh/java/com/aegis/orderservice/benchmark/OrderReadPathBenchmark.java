@@ -0,0 +1,104 @@
+package com.aegis.orderservice.benchmark;
+
+import com.aegis.orderservice.OrderServiceApplication;
+import com.aegis.orderservice.dto.CreateOrderRequest;
+import com.aegis.orderservice.dto.CursorPageResponse;
+import com.aegis.orderservice.dto.OrderItemRequest;
+import com.aegis.orderservice.dto.OrderResponse;
+import com.aegis.orderservice.dto.PageResponse;
+import com.aegis.orderservice.services.resources.IOrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order read paths end to end through OrdersService: entity (JPA fetch + mapping of managed entities) vs
+ * projection (JdbcTemplate rows straight into DTOs), for a single order, an offset page and a cursor page.
+ * Redis is excluded so every op reaches the database. Needs the docker-compose Postgres on localhost:5432;
+ * seeds its own orders under a fresh userId.
+ * <p>
+ * Run: ./gradlew :orderService:jmh -Pjmh.includes=OrderReadPathBenchmark
+ * Allocation per op: java -jar orderService/build/libs/orderService-0.0.1-SNAPSHOT-jmh.jar OrderReadPathBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderReadPathBenchmark {
+
+    private static final int ORDERS = 200;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"entity", "projection"})
+    public String readPath;
+
+    @Param({"3", "20"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private IOrderService orderService;
+    private String userId;
+    private List<UUID> orderIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "app.orders.read-path=" + readPath,
+                        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration",
+                        "spring.jpa.show-sql=false",
+                        "app.outbox.relay.enabled=false",
+                        "app.idempotency.retention.enabled=false")
+                .run();
+        orderService = context.getBean(IOrderService.class);
+        userId = "bench-" + UUID.randomUUID();
+        orderIds = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderItemRequest> lines = new ArrayList<>(items);
+            for (int j = 0; j < items; j++) {
+                lines.add(new OrderItemRequest("SKU-" + j, j + 1, new BigDecimal("9.99")));
+            }
+            orderIds.add(orderService.createOrder(new CreateOrderRequest(userId, "USD", lines)).getOrderId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<OrderResponse> getOrderById() {
+        UUID id = orderIds.get(next);
+        next = (next + 1) % orderIds.size();
+        return orderService.getOrderById(id);
+    }
+
+    @Benchmark
+    public PageResponse<OrderResponse> offsetPage() {
+        return orderService.getOrders(userId, null, 2, PAGE_SIZE, "createdAt", true);
+    }
+
+    @Benchmark
+    public CursorPageResponse<OrderResponse> cursorPage() {
+        return orderService.getOrdersAfter(userId, null, null, PAGE_SIZE, true, false);
+    }
+}
@@ -5,12 +5,14 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
 @Table(name = "idempotency_keys")
 public class IdempotencyKeys {
 
+    // Table PK is (key, created_day) since V5 partitioning; key alone is still unique (claim_idempotency_keys, V8)
     @Id
     @Column(name = "key", length = 255)
     private String key;
@@ -37,6 +39,10 @@ public class IdempotencyKeys {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    /** Day partition of the row; set by the database on claim. */
+    @Column(name = "created_day", insertable = false, updatable = false)
+    private LocalDate createdDay;
+
     public static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
     public static final String STATUS_COMPLETED = "COMPLETED";
 
@@ -103,4 +109,8 @@ public class IdempotencyKeys {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public LocalDate getCreatedDay() {
+        return createdDay;
+    }
 }
@@ -14,8 +14,12 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class OrderItems {
 
+    /**
+     * Pooled sequence (increment 50, see V4) instead of IDENTITY so Hibernate can batch item inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_id_seq")
+    @SequenceGenerator(name = "order_items_id_seq", sequenceName = "order_items_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
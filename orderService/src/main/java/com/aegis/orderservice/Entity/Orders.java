@@ -41,6 +41,15 @@ public class Orders {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    @Column(name = "reservation_id", length = 128)
+    private String reservationId;
+
+    @Column(name = "payment_authorization_id", length = 128)
+    private String paymentAuthorizationId;
+
+    @Column(name = "failure_reason", length = 255)
+    private String failureReason;
+
     @Version
     @Column(nullable = false)
     private Long version;
@@ -0,0 +1,425 @@
+package com.aegis.orderservice.cache;
+
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.dto.OrderItemResponse;
+import com.aegis.orderservice.dto.OrderResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact binary form of {@link CachedOrder}.
+ * <pre>
+ * [version:1][flags:1][body]   flags bit 0: body is deflated (only when above the threshold and smaller)
+ * body:  computeMs, expiresAtMs (varlong) | order presence bits (varint) | orderId (16 bytes) | userId,
+ *        currency, status name (varint length + UTF-8) | totalAmount | createdAt | version (varlong)
+ *        | item count (varint)
+ * item:  presence bits | id (zigzag varlong) | sku | qty (zigzag varint) | unitPrice | lineAmount
+ * decimal: varint (zigzag(scale) &lt;&lt; 1 | big) then zigzag varlong unscaled, or length + bytes if big
+ * instant: zigzag varlong epoch seconds, varint nanos
+ * </pre>
+ * Absent fields are skipped. Bump {@link #VERSION} on any layout change; never use 0x7B ('{', JSON).
+ */
+@Component
+public class BinaryOrderCacheCodec implements OrderCacheCodec {
+
+    public static final String NAME = "binary";
+    static final byte VERSION = 2;
+    private static final int FLAG_DEFLATED = 1;
+
+    private static final int O_ID = 1;
+    private static final int O_USER = 1 << 1;
+    private static final int O_CURRENCY = 1 << 2;
+    private static final int O_STATUS = 1 << 3;
+    private static final int O_TOTAL = 1 << 4;
+    private static final int O_CREATED = 1 << 5;
+    private static final int O_ITEMS = 1 << 6;
+    private static final int O_VERSION = 1 << 7;
+
+    private static final int I_ID = 1;
+    private static final int I_SKU = 1 << 1;
+    private static final int I_QTY = 1 << 2;
+    private static final int I_UNIT_PRICE = 1 << 3;
+    private static final int I_LINE_AMOUNT = 1 << 4;
+
+    private final int compressThresholdBytes;
+
+    public BinaryOrderCacheCodec(@Value("${app.cache.orders.binary.compress-threshold-bytes:512}") int compressThresholdBytes) {
+        this.compressThresholdBytes = compressThresholdBytes;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(CachedOrder entry) {
+        Writer w = new Writer(256);
+        w.varlong(entry.computeMs());
+        w.varlong(entry.expiresAtMs());
+        writeOrder(w, entry.order());
+
+        byte[] body = w.toByteArray();
+        int flags = 0;
+        if (compressThresholdBytes > 0 && body.length > compressThresholdBytes) {
+            byte[] deflated = deflate(body);
+            if (deflated.length < body.length) {
+                body = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+        byte[] out = new byte[body.length + 2];
+        out[0] = VERSION;
+        out[1] = (byte) flags;
+        System.arraycopy(body, 0, out, 2, body.length);
+        return out;
+    }
+
+    @Override
+    public boolean canDecode(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == VERSION;
+    }
+
+    @Override
+    public CachedOrder decode(byte[] bytes) {
+        if (bytes.length < 2 || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported cached order format");
+        }
+        byte[] body = Arrays.copyOfRange(bytes, 2, bytes.length);
+        if ((bytes[1] & FLAG_DEFLATED) != 0) {
+            body = inflate(body);
+        }
+        try {
+            Reader r = new Reader(body);
+            long computeMs = r.varlong();
+            long expiresAtMs = r.varlong();
+            return new CachedOrder(readOrder(r), computeMs, expiresAtMs);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated cached order", e);
+        }
+    }
+
+    private static void writeOrder(Writer w, OrderResponse o) {
+        int present = (o.getOrderId() != null ? O_ID : 0)
+                | (o.getUserId() != null ? O_USER : 0)
+                | (o.getCurrency() != null ? O_CURRENCY : 0)
+                | (o.getStatus() != null ? O_STATUS : 0)
+                | (o.getTotalAmount() != null ? O_TOTAL : 0)
+                | (o.getCreatedAt() != null ? O_CREATED : 0)
+                | (o.getItems() != null ? O_ITEMS : 0)
+                | (o.getVersion() != null ? O_VERSION : 0);
+        w.varint(present);
+        if (o.getOrderId() != null) {
+            w.uuid(o.getOrderId());
+        }
+        if (o.getUserId() != null) {
+            w.string(o.getUserId());
+        }
+        if (o.getCurrency() != null) {
+            w.string(o.getCurrency());
+        }
+        if (o.getStatus() != null) {
+            // Name, not ordinal, so reordering OrderStatus does not silently corrupt cached entries
+            w.string(o.getStatus().name());
+        }
+        if (o.getTotalAmount() != null) {
+            w.decimal(o.getTotalAmount());
+        }
+        if (o.getCreatedAt() != null) {
+            w.instant(o.getCreatedAt());
+        }
+        if (o.getVersion() != null) {
+            w.varlong(o.getVersion());
+        }
+        if (o.getItems() != null) {
+            w.varint(o.getItems().size());
+            for (OrderItemResponse item : o.getItems()) {
+                writeItem(w, item);
+            }
+        }
+    }
+
+    private static void writeItem(Writer w, OrderItemResponse i) {
+        int present = (i.getId() != null ? I_ID : 0)
+                | (i.getSku() != null ? I_SKU : 0)
+                | (i.getQty() != null ? I_QTY : 0)
+                | (i.getUnitPrice() != null ? I_UNIT_PRICE : 0)
+                | (i.getLineAmount() != null ? I_LINE_AMOUNT : 0);
+        w.varint(present);
+        if (i.getId() != null) {
+            w.zigzagLong(i.getId());
+        }
+        if (i.getSku() != null) {
+            w.string(i.getSku());
+        }
+        if (i.getQty() != null) {
+            w.zigzagLong(i.getQty());
+        }
+        if (i.getUnitPrice() != null) {
+            w.decimal(i.getUnitPrice());
+        }
+        if (i.getLineAmount() != null) {
+            w.decimal(i.getLineAmount());
+        }
+    }
+
+    private static OrderResponse readOrder(Reader r) {
+        int present = (int) r.varlong();
+        OrderResponse o = new OrderResponse();
+        if ((present & O_ID) != 0) {
+            o.setOrderId(r.uuid());
+        }
+        if ((present & O_USER) != 0) {
+            o.setUserId(r.string());
+        }
+        if ((present & O_CURRENCY) != 0) {
+            o.setCurrency(r.string());
+        }
+        if ((present & O_STATUS) != 0) {
+            o.setStatus(OrderStatus.valueOf(r.string()));
+        }
+        if ((present & O_TOTAL) != 0) {
+            o.setTotalAmount(r.decimal());
+        }
+        if ((present & O_CREATED) != 0) {
+            o.setCreatedAt(r.instant());
+        }
+        if ((present & O_VERSION) != 0) {
+            o.setVersion(r.varlong());
+        }
+        if ((present & O_ITEMS) != 0) {
+            int n = r.length();
+            List<OrderItemResponse> items = new ArrayList<>(n);
+            for (int k = 0; k < n; k++) {
+                items.add(readItem(r));
+            }
+            o.setItems(items);
+        }
+        return o;
+    }
+
+    private static OrderItemResponse readItem(Reader r) {
+        int present = (int) r.varlong();
+        OrderItemResponse i = new OrderItemResponse();
+        if ((present & I_ID) != 0) {
+            i.setId(r.zigzagLong());
+        }
+        if ((present & I_SKU) != 0) {
+            i.setSku(r.string());
+        }
+        if ((present & I_QTY) != 0) {
+            i.setQty((int) r.zigzagLong());
+        }
+        if ((present & I_UNIT_PRICE) != 0) {
+            i.setUnitPrice(r.decimal());
+        }
+        if ((present & I_LINE_AMOUNT) != 0) {
+            i.setLineAmount(r.decimal());
+        }
+        return i;
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] chunk = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] chunk = new byte[1024];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(chunk);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated deflated cached order");
+                }
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt deflated cached order", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buf;
+        private int pos;
+
+        Writer(int capacity) {
+            this.buf = new byte[capacity];
+        }
+
+        void varint(int v) {
+            varlong(v & 0xFFFFFFFFL);
+        }
+
+        void varlong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void zigzagLong(long v) {
+            varlong((v << 1) ^ (v >> 63));
+        }
+
+        void uuid(UUID id) {
+            ensure(16);
+            putLong(id.getMostSignificantBits());
+            putLong(id.getLeastSignificantBits());
+        }
+
+        void string(String s) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            varint(b.length);
+            bytes(b);
+        }
+
+        void decimal(BigDecimal d) {
+            BigInteger unscaled = d.unscaledValue();
+            int scale = (d.scale() << 1) ^ (d.scale() >> 31);
+            if (unscaled.bitLength() < 64) {
+                varlong(((long) scale & 0xFFFFFFFFL) << 1);
+                zigzagLong(unscaled.longValue());
+            } else {
+                varlong((((long) scale & 0xFFFFFFFFL) << 1) | 1);
+                byte[] b = unscaled.toByteArray();
+                varint(b.length);
+                bytes(b);
+            }
+        }
+
+        void instant(Instant t) {
+            zigzagLong(t.getEpochSecond());
+            varint(t.getNano());
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void putLong(long v) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (v >>> shift);
+            }
+        }
+
+        private void bytes(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, buf, pos, b.length);
+            pos += b.length;
+        }
+
+        private void ensure(int n) {
+            if (pos + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        long varlong() {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buf[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return v;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in cached order");
+        }
+
+        long zigzagLong() {
+            long v = varlong();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        /** Non-negative length that must fit in the remaining bytes (guards allocation on corrupt input). */
+        int length() {
+            long n = varlong();
+            if (n < 0 || n > buf.length - pos) {
+                throw new IllegalArgumentException("Invalid length in cached order");
+            }
+            return (int) n;
+        }
+
+        UUID uuid() {
+            return new UUID(getLong(), getLong());
+        }
+
+        String string() {
+            int n = length();
+            String s = new String(buf, pos, n, StandardCharsets.UTF_8);
+            pos += n;
+            return s;
+        }
+
+        BigDecimal decimal() {
+            long header = varlong();
+            int zz = (int) (header >>> 1);
+            int scale = (zz >>> 1) ^ -(zz & 1);
+            if ((header & 1) == 0) {
+                return BigDecimal.valueOf(zigzagLong(), scale);
+            }
+            int n = length();
+            BigInteger unscaled = new BigInteger(Arrays.copyOfRange(buf, pos, pos + n));
+            pos += n;
+            return new BigDecimal(unscaled, scale);
+        }
+
+        Instant instant() {
+            long seconds = zigzagLong();
+            return Instant.ofEpochSecond(seconds, varlong());
+        }
+
+        private long getLong() {
+            if (pos + 8 > buf.length) {
+                throw new IllegalArgumentException("Truncated cached order");
+            }
+            long v = 0;
+            for (int k = 0; k < 8; k++) {
+                v = (v << 8) | (buf[pos++] & 0xFF);
+            }
+            return v;
+        }
+    }
+}
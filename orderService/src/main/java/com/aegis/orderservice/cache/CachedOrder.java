@@ -0,0 +1,8 @@
+package com.aegis.orderservice.cache;
+
+import com.aegis.orderservice.dto.OrderResponse;
+
+/**
+ * Order cache entry: the order, how long it took to load (XFetch delta, ms) and its logical expiry (epoch ms).
+ */
+public record CachedOrder(OrderResponse order, long computeMs, long expiresAtMs) {}
@@ -0,0 +1,57 @@
+package com.aegis.orderservice.cache;
+
+import com.aegis.orderservice.dto.OrderResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * JSON text (UTF-8) via the application ObjectMapper. Also reads plain OrderResponse JSON written before
+ * the envelope existed; those are treated as fresh until Redis expires them.
+ */
+@Component
+public class JsonOrderCacheCodec implements OrderCacheCodec {
+
+    public static final String NAME = "json";
+
+    private final ObjectMapper objectMapper;
+
+    public JsonOrderCacheCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(CachedOrder entry) {
+        try {
+            return objectMapper.writeValueAsBytes(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize cached order", e);
+        }
+    }
+
+    @Override
+    public boolean canDecode(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == '{';
+    }
+
+    @Override
+    public CachedOrder decode(byte[] bytes) {
+        try {
+            JsonNode node = objectMapper.readTree(bytes);
+            if (node.has("order")) {
+                return objectMapper.treeToValue(node, CachedOrder.class);
+            }
+            return new CachedOrder(objectMapper.treeToValue(node, OrderResponse.class), 0, Long.MAX_VALUE);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed cached order JSON", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.aegis.orderservice.cache;
+
+/**
+ * Serialized form of {@link CachedOrder} values in Redis. Every registered codec can read; the one named by
+ * app.cache.orders.codec writes. Formats are told apart by their first byte, so switching codecs (or
+ * rolling out a new version) only turns unreadable entries into misses until they are rewritten.
+ */
+public interface OrderCacheCodec {
+
+    String name();
+
+    byte[] encode(CachedOrder entry);
+
+    /** True if {@code bytes} look like this codec's output (cheap check on the leading byte). */
+    boolean canDecode(byte[] bytes);
+
+    /**
+     * @throws IllegalArgumentException if the bytes are malformed or an unsupported version
+     */
+    CachedOrder decode(byte[] bytes);
+}
@@ -4,6 +4,9 @@ import io.github.resilience4j.bulkhead.Bulkhead;
 import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryRegistry;
 import org.slf4j.Logger;
@@ -12,6 +15,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
 /**
  * Dummy dependency client protected by retry (transient only), circuit breaker, and bulkhead.
@@ -55,21 +59,36 @@ public class DummyDependencyClient {
         ).get();
     }
 
+    /**
+     * Non-blocking variant of {@link #call()}: same circuit breaker, retry and bulkhead instances applied as
+     * Reactor operators (bulkhead outermost, as above). Retry backoff is a timer, not a sleeping thread, so
+     * several calls can be composed (e.g. {@code Mono.zip}) without holding any thread while waiting.
+     * Nothing happens until subscribed; each subscription is one protected call.
+     */
+    public Mono<String> callReactive() {
+        return Mono.defer(this::exchange)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
     private String doCall() {
+        return exchange().block();
+    }
+
+    private Mono<String> exchange() {
         String url = dummyBaseUrl + "dummy";
-        try {
-            return webClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-        } catch (WebClientResponseException e) {
-            int status = e.getStatusCode().value();
-            if (status >= 500) {
-                log.warn("Dummy dependency returned 5xx: {} {}", status, url);
-                throw e; // retried by Resilience4j
-            }
-            throw new ClientErrorException("Dependency returned " + status, e); // not retried
-        }
+        return webClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(String.class)
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    int status = e.getStatusCode().value();
+                    if (status >= 500) {
+                        log.warn("Dummy dependency returned 5xx: {} {}", status, url);
+                        return e; // retried by Resilience4j
+                    }
+                    return new ClientErrorException("Dependency returned " + status, e); // not retried
+                });
     }
 }
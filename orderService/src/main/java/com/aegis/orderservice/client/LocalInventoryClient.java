@@ -0,0 +1,47 @@
+package com.aegis.orderservice.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process Inventory stub for offline runs and saga load tests: simulated latency and failure rate,
+ * reservations kept in memory. Disable with app.saga.stub-clients=false once a real client exists.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.saga", name = "stub-clients", havingValue = "true", matchIfMissing = true)
+public class LocalInventoryClient implements InventoryClient {
+
+    private final long latencyMs;
+    private final double failureRate;
+    private final Map<String, List<SkuQty>> reservations = new ConcurrentHashMap<>();
+
+    public LocalInventoryClient(@Value("${app.saga.stub.latency-ms:20}") long latencyMs,
+                                @Value("${app.saga.stub.inventory-failure-rate:0.0}") double failureRate) {
+        this.latencyMs = latencyMs;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String reserve(List<SkuQty> skuQuantities) {
+        StubLatency.simulate(latencyMs, failureRate, "Insufficient stock (simulated)");
+        String reservationId = "res-" + UUID.randomUUID();
+        reservations.put(reservationId, List.copyOf(skuQuantities));
+        return reservationId;
+    }
+
+    @Override
+    public void release(String reservationId) {
+        StubLatency.simulate(latencyMs, 0.0, null);
+        reservations.remove(reservationId);
+    }
+
+    public int activeReservations() {
+        return reservations.size();
+    }
+}
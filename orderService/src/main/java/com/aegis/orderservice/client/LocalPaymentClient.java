@@ -0,0 +1,41 @@
+package com.aegis.orderservice.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * In-process Payment stub for offline runs and saga load tests: simulated latency and decline rate.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.saga", name = "stub-clients", havingValue = "true", matchIfMissing = true)
+public class LocalPaymentClient implements PaymentClient {
+
+    private final long latencyMs;
+    private final double failureRate;
+
+    public LocalPaymentClient(@Value("${app.saga.stub.latency-ms:20}") long latencyMs,
+                              @Value("${app.saga.stub.payment-failure-rate:0.0}") double failureRate) {
+        this.latencyMs = latencyMs;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String authorize(String orderId, BigDecimal amount, String currency) {
+        StubLatency.simulate(latencyMs, failureRate, "Payment declined (simulated)");
+        return "auth-" + UUID.randomUUID();
+    }
+
+    @Override
+    public void capture(String authorizationId) {
+        StubLatency.simulate(latencyMs, 0.0, null);
+    }
+
+    @Override
+    public void voidAuthorization(String authorizationId) {
+        StubLatency.simulate(latencyMs, 0.0, null);
+    }
+}
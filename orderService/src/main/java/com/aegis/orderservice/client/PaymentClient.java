@@ -21,4 +21,9 @@ public interface PaymentClient {
      * Capture a previously authorized payment (to be implemented when Payment Service is available).
      */
     void capture(String authorizationId);
+
+    /**
+     * Void an authorization that will not be captured (e.g. it lost a race with another saga run).
+     */
+    void voidAuthorization(String authorizationId);
 }
@@ -0,0 +1,26 @@
+package com.aegis.orderservice.client;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shared latency/failure simulation for the local dependency stubs.
+ */
+final class StubLatency {
+
+    private StubLatency() {
+    }
+
+    static void simulate(long latencyMs, double failureRate, String failureMessage) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during simulated dependency call", e);
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new ClientErrorException(failureMessage, null);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.aegis.orderservice.concurrency;
+
+import com.aegis.orderservice.exception.ServiceOverloadedException;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded admission queue in front of a {@link ConcurrencyLimiter}. When no permit is free a request waits
+ * (up to {@code capacity} waiters) and is handed the next released permit, so short bursts are absorbed
+ * instead of turned into 503s.
+ * <p>
+ * Shedding is CoDel-style: the queue counts as overloaded once it has not been empty for {@code interval}.
+ * While overloaded, waiters whose queue time exceeds {@code target} are dropped at dequeue and new arrivals
+ * wait at most {@code target}; otherwise they wait up to {@code maxWait}. Waits never outlast the caller's
+ * deadline, and a request whose deadline has passed is rejected before it gets a permit (so before any DB
+ * work). Lanes are served in priority order: {@link Lane#RETRY} (an idempotency key this instance has
+ * recently seen) before {@link Lane#NEW}.
+ */
+public class AdmissionQueue {
+
+    public enum Lane { RETRY, NEW }
+
+    public enum Rejection { QUEUE_FULL, SHED, DEADLINE_EXPIRED }
+
+    /** Pass as deadline when the caller has none. */
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final ConcurrencyLimiter limiter;
+    private final int capacity;
+    private final long targetNanos;
+    private final long intervalNanos;
+    private final long maxWaitNanos;
+    private final int recentKeysCapacity;
+    private final RejectionListener rejectionListener;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Lane, ArrayDeque<Waiter>> lanes = new EnumMap<>(Lane.class);
+    private final Map<String, Boolean> recentKeys;
+    private volatile int queued;
+    private long lastEmptyNanos = System.nanoTime();
+
+    public AdmissionQueue(ConcurrencyLimiter limiter, int capacity, long targetMs, long intervalMs, long maxWaitMs,
+                          int recentKeysCapacity, RejectionListener rejectionListener) {
+        this.limiter = limiter;
+        this.capacity = Math.max(0, capacity);
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, targetMs));
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervalMs));
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMs));
+        this.recentKeysCapacity = Math.max(0, recentKeysCapacity);
+        this.rejectionListener = rejectionListener != null ? rejectionListener : r -> {};
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, new ArrayDeque<>());
+        }
+        this.recentKeys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > AdmissionQueue.this.recentKeysCapacity;
+            }
+        };
+    }
+
+    /**
+     * Admits a create for {@code idempotencyKey}: RETRY lane if the key was seen recently, NEW otherwise.
+     */
+    public ConcurrencyLimiter.Permit admit(String idempotencyKey, long deadlineNanos) {
+        Lane lane;
+        lock.lock();
+        try {
+            lane = recentKeys.put(idempotencyKey, Boolean.TRUE) != null ? Lane.RETRY : Lane.NEW;
+        } finally {
+            lock.unlock();
+        }
+        return admit(lane, deadlineNanos);
+    }
+
+    /**
+     * Rejects (DEADLINE_EXPIRED, counted like any other rejection) when {@code deadlineNanos} has already
+     * passed; for callers that would otherwise do work before {@link #admit}.
+     */
+    public void checkDeadline(long deadlineNanos) {
+        if (expired(deadlineNanos, System.nanoTime())) {
+            throw reject(Rejection.DEADLINE_EXPIRED);
+        }
+    }
+
+    /**
+     * Blocks until a permit is granted; throws {@link ServiceOverloadedException} when the queue is full,
+     * the request is shed, or {@code deadlineNanos} (System.nanoTime based, or {@link #NO_DEADLINE}) passes.
+     */
+    public ConcurrencyLimiter.Permit admit(Lane lane, long deadlineNanos) {
+        long now = System.nanoTime();
+        if (expired(deadlineNanos, now)) {
+            throw reject(Rejection.DEADLINE_EXPIRED);
+        }
+        Waiter waiter;
+        long maxWait;
+        lock.lock();
+        try {
+            if (queued == 0) {
+                lastEmptyNanos = now;
+                Optional<ConcurrencyLimiter.Permit> permit = limiter.tryAcquire();
+                if (permit.isPresent()) {
+                    return new QueuedPermit(permit.get());
+                }
+            }
+            if (queued >= capacity) {
+                throw reject(Rejection.QUEUE_FULL);
+            }
+            waiter = new Waiter(now, deadlineNanos);
+            lanes.get(lane).addLast(waiter);
+            queued++;
+            maxWait = overloaded(now) ? targetNanos : maxWaitNanos;
+        } finally {
+            lock.unlock();
+        }
+        // A permit may have been released between tryAcquire and enqueue
+        dispatch();
+
+        long waitNanos = deadlineNanos == NO_DEADLINE ? maxWait : Math.min(maxWait, deadlineNanos - now);
+        try {
+            return waiter.result.get(Math.max(0, waitNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return abandon(waiter, expired(deadlineNanos, System.nanoTime()) ? Rejection.DEADLINE_EXPIRED : Rejection.SHED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return abandon(waiter, Rejection.SHED);
+        } catch (ExecutionException e) {
+            throw (ServiceOverloadedException) e.getCause();
+        }
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    private ConcurrencyLimiter.Permit abandon(Waiter waiter, Rejection rejection) {
+        lock.lock();
+        try {
+            if (!waiter.result.isDone()) {
+                for (ArrayDeque<Waiter> q : lanes.values()) {
+                    if (q.remove(waiter)) {
+                        queued--;
+                        if (queued == 0) {
+                            lastEmptyNanos = System.nanoTime();
+                        }
+                        break;
+                    }
+                }
+                waiter.result.completeExceptionally(reject(rejection));
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Granted concurrently (returns the permit) or rejected above (throws)
+        try {
+            return waiter.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject(Rejection.SHED);
+        } catch (ExecutionException e) {
+            throw (ServiceOverloadedException) e.getCause();
+        }
+    }
+
+    /**
+     * Hands free permits to queued waiters in lane order, dropping expired or (while overloaded) stale ones.
+     */
+    private void dispatch() {
+        lock.lock();
+        try {
+            while (queued > 0) {
+                long now = System.nanoTime();
+                Waiter next = peekHighestPriority();
+                boolean expired = expired(next.deadlineNanos, now);
+                if (expired || (overloaded(now) && now - next.enqueuedNanos > targetNanos)) {
+                    pollHighestPriority();
+                    next.result.completeExceptionally(reject(expired ? Rejection.DEADLINE_EXPIRED : Rejection.SHED));
+                    continue;
+                }
+                Optional<ConcurrencyLimiter.Permit> permit = limiter.tryAcquire();
+                if (permit.isEmpty()) {
+                    break;
+                }
+                pollHighestPriority();
+                next.result.complete(new QueuedPermit(permit.get()));
+            }
+            if (queued == 0) {
+                lastEmptyNanos = System.nanoTime();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean expired(long deadlineNanos, long now) {
+        return deadlineNanos != NO_DEADLINE && deadlineNanos - now <= 0;
+    }
+
+    private boolean overloaded(long now) {
+        return queued > 0 && now - lastEmptyNanos > intervalNanos;
+    }
+
+    private Waiter peekHighestPriority() {
+        for (Lane lane : Lane.values()) {
+            Waiter w = lanes.get(lane).peekFirst();
+            if (w != null) {
+                return w;
+            }
+        }
+        throw new IllegalStateException("Admission queue count out of sync");
+    }
+
+    private void pollHighestPriority() {
+        for (Lane lane : Lane.values()) {
+            if (lanes.get(lane).pollFirst() != null) {
+                queued--;
+                return;
+            }
+        }
+    }
+
+    private ServiceOverloadedException reject(Rejection rejection) {
+        rejectionListener.onRejected(rejection);
+        return new ServiceOverloadedException(switch (rejection) {
+            case QUEUE_FULL -> "Too many concurrent order creations; try again later";
+            case SHED -> "Order create queue is congested; try again later";
+            case DEADLINE_EXPIRED -> "Request deadline exceeded before the order could be processed";
+        });
+    }
+
+    @FunctionalInterface
+    public interface RejectionListener {
+        void onRejected(Rejection rejection);
+    }
+
+    private static final class Waiter {
+        private final long enqueuedNanos;
+        private final long deadlineNanos;
+        private final CompletableFuture<ConcurrencyLimiter.Permit> result = new CompletableFuture<>();
+
+        private Waiter(long enqueuedNanos, long deadlineNanos) {
+            this.enqueuedNanos = enqueuedNanos;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    /** Releasing a permit hands the freed slot to the next waiter. */
+    private final class QueuedPermit implements ConcurrencyLimiter.Permit {
+
+        private final ConcurrencyLimiter.Permit delegate;
+
+        private QueuedPermit(ConcurrencyLimiter.Permit delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onSuccess() {
+            delegate.onSuccess();
+            dispatch();
+        }
+
+        @Override
+        public void onDropped() {
+            delegate.onDropped();
+            dispatch();
+        }
+
+        @Override
+        public void onIgnore() {
+            delegate.onIgnore();
+            dispatch();
+        }
+    }
+}
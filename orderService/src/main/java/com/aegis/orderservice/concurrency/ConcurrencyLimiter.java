@@ -0,0 +1,29 @@
+package com.aegis.orderservice.concurrency;
+
+import java.util.Optional;
+
+/**
+ * Bounds in-flight work. Callers must finish every acquired {@link Permit} exactly once; the outcome feeds
+ * adaptive implementations.
+ */
+public interface ConcurrencyLimiter {
+
+    /** Empty when the limit is reached; reject the request (503) rather than queue it here. */
+    Optional<Permit> tryAcquire();
+
+    int getLimit();
+
+    int getInFlight();
+
+    interface Permit {
+
+        /** Work completed normally; its latency is a valid sample. */
+        void onSuccess();
+
+        /** Work failed in a way that signals overload (timeout, pool exhaustion); the limit backs off. */
+        void onDropped();
+
+        /** Work ended without a meaningful latency sample (e.g. client error); only frees the slot. */
+        void onIgnore();
+    }
+}
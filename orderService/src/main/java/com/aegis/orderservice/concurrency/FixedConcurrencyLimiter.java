@@ -0,0 +1,58 @@
+package com.aegis.orderservice.concurrency;
+
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Static limit (the previous Semaphore behaviour); outcomes are ignored.
+ */
+public class FixedConcurrencyLimiter implements ConcurrencyLimiter {
+
+    private final int limit;
+    private final Semaphore semaphore;
+
+    public FixedConcurrencyLimiter(int limit) {
+        this.limit = Math.max(1, limit);
+        this.semaphore = new Semaphore(this.limit);
+    }
+
+    @Override
+    public Optional<Permit> tryAcquire() {
+        if (!semaphore.tryAcquire()) {
+            return Optional.empty();
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        };
+        return Optional.of(new Permit() {
+            @Override
+            public void onSuccess() {
+                release.run();
+            }
+
+            @Override
+            public void onDropped() {
+                release.run();
+            }
+
+            @Override
+            public void onIgnore() {
+                release.run();
+            }
+        });
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public int getInFlight() {
+        return limit - semaphore.availablePermits();
+    }
+}
@@ -0,0 +1,144 @@
+package com.aegis.orderservice.concurrency;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient limiter: compares a long-term latency baseline with the latest sample. While latency stays near
+ * the baseline the limit grows by a small queue allowance ({@code sqrt(limit)}); when latency rises (work is
+ * queueing in the DB or pool) the limit shrinks proportionally, and an overload failure multiplies it by
+ * {@code backoffRatio}. Updates are smoothed and clamped to [minLimit, maxLimit].
+ * <p>
+ * The limit only grows when at least half of it is in use, so an idle service does not inflate it. If the
+ * baseline drifts far above current latency (e.g. after a slow period) it decays towards the samples.
+ */
+public class GradientConcurrencyLimiter implements ConcurrencyLimiter {
+
+    private static final double LONG_RTT_WINDOW = 600;
+    private static final double BASELINE_DRIFT_RATIO = 2.0;
+    private static final double BASELINE_DECAY = 0.95;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long samples;
+
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double smoothing, double rttTolerance, double backoffRatio) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.smoothing = Math.min(1.0, Math.max(0.01, smoothing));
+        this.rttTolerance = Math.max(1.0, rttTolerance);
+        this.backoffRatio = Math.min(0.99, Math.max(0.5, backoffRatio));
+        this.estimatedLimit = clamp(initialLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public Optional<Permit> tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return Optional.of(new GradientPermit(System.nanoTime(), current + 1));
+            }
+        }
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Applies one completed request. {@code inFlightAtStart} is the concurrency the request ran under.
+     */
+    void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        lock.lock();
+        try {
+            if (!dropped) {
+                samples++;
+                double window = Math.min(samples, LONG_RTT_WINDOW);
+                longRttNanos = samples == 1 ? rttNanos : longRttNanos + (rttNanos - longRttNanos) / window;
+                if (longRttNanos / rttNanos > BASELINE_DRIFT_RATIO) {
+                    longRttNanos *= BASELINE_DECAY;
+                }
+            }
+            if (!dropped && inFlightAtStart < estimatedLimit / 2) {
+                return;
+            }
+            double newLimit;
+            if (dropped) {
+                newLimit = estimatedLimit * backoffRatio;
+            } else {
+                double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRttNanos / rttNanos));
+                newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            }
+            estimatedLimit = clamp(estimatedLimit * (1 - smoothing) + newLimit * smoothing);
+            limit = (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    private final class GradientPermit implements Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private GradientPermit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        @Override
+        public void onSuccess() {
+            if (release()) {
+                onSample(Math.max(1, System.nanoTime() - startNanos), inFlightAtStart, false);
+            }
+        }
+
+        @Override
+        public void onDropped() {
+            if (release()) {
+                onSample(Math.max(1, System.nanoTime() - startNanos), inFlightAtStart, true);
+            }
+        }
+
+        @Override
+        public void onIgnore() {
+            release();
+        }
+
+        private boolean release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -1,20 +1,53 @@
 package com.aegis.orderservice.config;
 
+import com.aegis.orderservice.concurrency.AdmissionQueue;
+import com.aegis.orderservice.concurrency.ConcurrencyLimiter;
+import com.aegis.orderservice.concurrency.FixedConcurrencyLimiter;
+import com.aegis.orderservice.concurrency.GradientConcurrencyLimiter;
+import com.aegis.orderservice.metrics.OrderMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.Semaphore;
-
 /**
  * Backpressure: bounded concurrency for order creation. When saturated, fail fast with 503.
+ * app.backpressure.mode=fixed keeps a static limit (max-concurrent-order-creates); adaptive lets the limit
+ * follow observed create latency and overload errors. Requests that find the limit reached wait in a
+ * bounded {@link AdmissionQueue} (queue-capacity 0 restores fail-fast).
  */
 @Configuration
 public class BackpressureConfig {
 
     @Bean
-    public Semaphore orderCreateSemaphore(
-            @Value("${app.backpressure.max-concurrent-order-creates:50}") int maxConcurrent) {
-        return new Semaphore(maxConcurrent);
+    public ConcurrencyLimiter orderCreateLimiter(
+            @Value("${app.backpressure.mode:fixed}") String mode,
+            @Value("${app.backpressure.max-concurrent-order-creates:50}") int maxConcurrent,
+            @Value("${app.backpressure.adaptive.initial-limit:20}") int initialLimit,
+            @Value("${app.backpressure.adaptive.min-limit:5}") int minLimit,
+            @Value("${app.backpressure.adaptive.max-limit:200}") int maxLimit,
+            @Value("${app.backpressure.adaptive.smoothing:0.2}") double smoothing,
+            @Value("${app.backpressure.adaptive.rtt-tolerance:1.5}") double rttTolerance,
+            @Value("${app.backpressure.adaptive.backoff-ratio:0.9}") double backoffRatio,
+            OrderMetrics orderMetrics) {
+        ConcurrencyLimiter limiter = "adaptive".equalsIgnoreCase(mode.trim())
+                ? new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit, smoothing, rttTolerance, backoffRatio)
+                : new FixedConcurrencyLimiter(maxConcurrent);
+        orderMetrics.bindOrderCreateLimiter(limiter);
+        return limiter;
+    }
+
+    @Bean
+    public AdmissionQueue orderCreateAdmissionQueue(
+            ConcurrencyLimiter orderCreateLimiter,
+            @Value("${app.backpressure.admission.queue-capacity:200}") int queueCapacity,
+            @Value("${app.backpressure.admission.target-ms:5}") long targetMs,
+            @Value("${app.backpressure.admission.interval-ms:100}") long intervalMs,
+            @Value("${app.backpressure.admission.max-wait-ms:500}") long maxWaitMs,
+            @Value("${app.backpressure.admission.recent-keys:10000}") int recentKeys,
+            OrderMetrics orderMetrics) {
+        AdmissionQueue queue = new AdmissionQueue(orderCreateLimiter, queueCapacity, targetMs, intervalMs, maxWaitMs,
+                recentKeys, orderMetrics::recordAdmissionRejected);
+        orderMetrics.bindAdmissionQueue(queue);
+        return queue;
     }
 }
@@ -0,0 +1,95 @@
+package com.aegis.orderservice.config;
+
+import com.aegis.orderservice.datasource.ReplicaHealthMonitor;
+import com.aegis.orderservice.datasource.ReplicaRoutingDataSource;
+import com.aegis.orderservice.metrics.OrderMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas (app.datasource.replicas.enabled): replaces the auto-configured DataSource with
+ * primary + replica Hikari pools behind a {@link ReplicaRoutingDataSource}. Read-only transactions go to a
+ * healthy replica within max-lag-ms, everything else (writes, Flyway, non-transactional access) to the
+ * primary. Replicas share the primary's credentials unless username/password are set.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replicas", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    /** The primary pool, configured from spring.datasource.* exactly like the auto-configured one. */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(@Value("${spring.datasource.url}") String url,
+                                              @Value("${spring.datasource.username:}") String username,
+                                              @Value("${spring.datasource.password:}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("primary");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            @Value("${app.datasource.replicas.urls}") String[] urls,
+            @Value("${app.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replicas.max-pool-size:10}") int maxPoolSize,
+            @Value("${app.datasource.replicas.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${app.datasource.replicas.max-lag-ms:1000}") long maxLagMs,
+            OrderMetrics orderMetrics) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(url.trim());
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(maxPoolSize);
+            pool.setReadOnly(true);
+            pool.setConnectionTimeout(Math.max(250, connectTimeoutMs));
+            // Start even when a replica is down; the health monitor keeps it out of rotation until it answers
+            pool.setInitializationFailTimeout(-1);
+            ReplicaRoutingDataSource.Replica replica = new ReplicaRoutingDataSource.Replica(name, pool, maxLagMs);
+            orderMetrics.bindReplica(replica);
+            replicas.add(replica);
+        }
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("app.datasource.replicas.enabled=true but app.datasource.replicas.urls is empty");
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, orderMetrics);
+    }
+
+    /**
+     * The application DataSource. Lazy connections let routing see the transaction's read-only flag, which
+     * is only set once the transaction manager has begun.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(
+            ReplicaRoutingDataSource replicaRoutingDataSource,
+            @Value("${app.datasource.replicas.health-check-timeout-seconds:1}") int queryTimeoutSeconds) {
+        return new ReplicaHealthMonitor(replicaRoutingDataSource.getReplicas(), queryTimeoutSeconds);
+    }
+}
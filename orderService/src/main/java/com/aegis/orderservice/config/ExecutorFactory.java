@@ -0,0 +1,45 @@
+package com.aegis.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the app's own worker executors in the configured execution mode. With
+ * spring.threads.virtual.enabled=true Spring Boot already runs Tomcat request handling, @Scheduled jobs and
+ * the application task executor on virtual threads; this covers executors the app builds itself (saga
+ * workers), so blocking dependency calls park a virtual thread instead of holding a pooled one.
+ * <p>
+ * Pinning audit (JDK 21 pins a virtual thread that blocks inside {@code synchronized}): main code has no
+ * {@code synchronized} blocks; InMemoryTokenBucketRateLimiter uses ReentrantLock; Resilience4j 2.x
+ * CircuitBreaker/Retry/Bulkhead and pgjdbc 42.6+ use j.u.c locks. Check a running instance with
+ * -Djdk.tracePinnedThreads=short. Long-lived loops (group-commit flusher, lease heartbeats) stay on
+ * dedicated platform threads.
+ */
+@Component
+public class ExecutorFactory {
+
+    private final boolean virtualThreads;
+
+    public ExecutorFactory(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Virtual mode: one virtual thread per task (callers bound concurrency themselves).
+     * Platform mode: fixed pool of {@code platformThreads} daemon threads.
+     */
+    public ExecutorService newWorkerExecutor(String name, int platformThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(Math.max(1, platformThreads),
+                Thread.ofPlatform().name(name + "-", 0).daemon(true).factory());
+    }
+}
@@ -0,0 +1,12 @@
+package com.aegis.orderservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. idempotency partition retention).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
@@ -22,14 +23,16 @@ public class DependencyController {
         this.dummyDependencyClient = dummyDependencyClient;
     }
 
+    /**
+     * Returns a Mono so the servlet thread is released while the call (including retry backoff) is pending.
+     */
     @GetMapping("/dependency-status")
-    public ResponseEntity<?> dependencyStatus() {
-        try {
-            String result = dummyDependencyClient.call();
-            return ResponseEntity.ok(Map.of("status", "ok", "dependencyResponse", result != null ? result : ""));
-        } catch (Exception e) {
-            return ResponseEntity.status(503)
-                    .body(Map.of("status", "dependency_unavailable", "error", e.getMessage()));
-        }
+    public Mono<ResponseEntity<?>> dependencyStatus() {
+        return dummyDependencyClient.callReactive()
+                .defaultIfEmpty("")
+                .<ResponseEntity<?>>map(result -> ResponseEntity.ok(Map.of("status", "ok", "dependencyResponse", result)))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(503)
+                        .body(Map.of("status", "dependency_unavailable",
+                                "error", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()))));
     }
 }
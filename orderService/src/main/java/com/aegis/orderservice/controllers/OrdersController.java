@@ -1,35 +1,59 @@
 package com.aegis.orderservice.controllers;
 
 import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.concurrency.AdmissionQueue;
+import com.aegis.orderservice.concurrency.ConcurrencyLimiter;
+import com.aegis.orderservice.dto.BatchCreateOrderRequest;
+import com.aegis.orderservice.dto.BatchCreateOrderResponse;
+import com.aegis.orderservice.dto.BatchGetOrdersRequest;
+import com.aegis.orderservice.dto.BatchGetOrdersResponse;
 import com.aegis.orderservice.dto.CreateOrderRequest;
 import com.aegis.orderservice.dto.CreateOrderResponse;
+import com.aegis.orderservice.dto.CursorPageResponse;
 import com.aegis.orderservice.dto.IdempotentCreateResult;
 import com.aegis.orderservice.dto.OrderResponse;
 import com.aegis.orderservice.dto.PageResponse;
+import com.aegis.orderservice.exception.RateLimitExceededException;
 import com.aegis.orderservice.exception.ServiceOverloadedException;
 import com.aegis.orderservice.metrics.OrderMetrics;
+import com.aegis.orderservice.ratelimit.OrderRateLimits;
+import com.aegis.orderservice.ratelimit.TokenBucketResult;
+import com.aegis.orderservice.services.impl.GroupCommitOrderCreator;
 import com.aegis.orderservice.services.resources.IOrderService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.aegis.orderservice.util.OrderCursor;
+import com.aegis.orderservice.util.OrderETags;
 import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.slf4j.MDC;
 
 import java.util.UUID;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/orders")
 public class OrdersController {
 
     public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    /**
+     * Client time budget in ms; the request is dropped (503) if it cannot start before the budget runs out.
+     * A budget of 0 or less is already spent; only a missing header means no deadline.
+     */
+    public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout-Ms";
     private static final int MAX_PAGE_SIZE = 100;
     private static final int DEFAULT_PAGE_SIZE = 20;
     private static final int DEFAULT_PAGE = 0;
@@ -37,42 +61,109 @@ public class OrdersController {
     private static final String DEFAULT_SORT_DIR = "desc";
 
     private final IOrderService ordersService;
-    private final ObjectMapper objectMapper;
-    private final Semaphore orderCreateSemaphore;
+    private final AdmissionQueue orderCreateAdmission;
     private final OrderMetrics orderMetrics;
+    private final OrderRateLimits rateLimits;
+    private final Optional<GroupCommitOrderCreator> groupCommit;
 
-    public OrdersController(IOrderService ordersService, ObjectMapper objectMapper,
-                            Semaphore orderCreateSemaphore, OrderMetrics orderMetrics) {
+    public OrdersController(IOrderService ordersService,
+                            AdmissionQueue orderCreateAdmission, OrderMetrics orderMetrics,
+                            OrderRateLimits rateLimits,
+                            @Autowired(required = false) GroupCommitOrderCreator groupCommit) {
         this.ordersService = ordersService;
-        this.objectMapper = objectMapper;
-        this.orderCreateSemaphore = orderCreateSemaphore;
+        this.orderCreateAdmission = orderCreateAdmission;
         this.orderMetrics = orderMetrics;
+        this.rateLimits = rateLimits;
+        this.groupCommit = Optional.ofNullable(groupCommit);
     }
 
+    /**
+     * Strong ETag from the order's version. With If-None-Match, the cached version alone (L1 or the small
+     * Redis version key) is checked first and a match answers 304 without loading the order; otherwise the
+     * order is read as usual and compared.
+     */
     @GetMapping("/{orderId}")
-    public ResponseEntity<?> getOrderById(@PathVariable UUID orderId) {
+    public ResponseEntity<?> getOrderById(
+            @PathVariable UUID orderId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         MDC.put("orderId", orderId.toString());
-        return ordersService.getOrderById(orderId)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        if (ifNoneMatch != null) {
+            Optional<String> cachedETag = ordersService.getCachedOrderVersion(orderId)
+                    .map(version -> OrderETags.of(orderId, version));
+            if (cachedETag.isPresent() && OrderETags.matches(ifNoneMatch, cachedETag.get())) {
+                orderMetrics.recordNotModified(true);
+                return notModified(cachedETag.get());
+            }
+        }
+        Optional<OrderResponse> order = ordersService.getOrderById(orderId);
+        if (order.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = OrderETags.of(order.get());
+        if (OrderETags.matches(ifNoneMatch, etag)) {
+            orderMetrics.recordNotModified(false);
+            return notModified(etag);
+        }
+        return withETag(etag).body(order.get());
+    }
+
+    /**
+     * Up to {@link BatchGetOrdersRequest#MAX_IDS} orders in one call (one rate-limit token, one MGET, one
+     * DB query for the misses). Always 200; unknown ids come back as {@code found=false} entries.
+     */
+    @PostMapping(path = "/batch-get", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchGetOrdersResponse> getOrdersByIds(@Valid @RequestBody BatchGetOrdersRequest request) {
+        return ResponseEntity.ok(ordersService.getOrdersByIds(request.getOrderIds()));
     }
 
+    /**
+     * Offset pages by default. Passing {@code cursor} (empty for the first page) switches to keyset paging on
+     * (createdAt, id): constant cost per page, {@code nextCursor} in the response, {@code sort}/{@code page}
+     * ignored, and no COUNT(*) unless {@code includeTotal=true}. Pages carry a weak ETag over their orders'
+     * versions and the page metadata; a matching If-None-Match gets 304 without a body.
+     */
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<PageResponse<OrderResponse>> listOrders(
+    public ResponseEntity<?> listOrders(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @RequestParam(required = false) String userId,
             @RequestParam(required = false) String status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sort,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         if (page < 0) page = DEFAULT_PAGE;
         if (size <= 0) size = DEFAULT_PAGE_SIZE;
         if (size > MAX_PAGE_SIZE) size = MAX_PAGE_SIZE;
         OrderStatus statusEnum = parseOrderStatus(status);
         boolean sortDesc = !"asc".equalsIgnoreCase(sortDir != null ? sortDir.trim() : DEFAULT_SORT_DIR);
+        if (cursor != null) {
+            OrderCursor position = cursor.isBlank() ? null : OrderCursor.decode(cursor.trim());
+            CursorPageResponse<OrderResponse> result =
+                    ordersService.getOrdersAfter(userId, statusEnum, position, size, sortDesc, includeTotal);
+            return listResponse(ifNoneMatch, OrderETags.of(result), result);
+        }
         String sortProperty = (sort == null || sort.isBlank()) ? DEFAULT_SORT : sort.trim();
         PageResponse<OrderResponse> result = ordersService.getOrders(userId, statusEnum, page, size, sortProperty, sortDesc);
-        return ResponseEntity.ok(result);
+        return listResponse(ifNoneMatch, OrderETags.of(result), result);
+    }
+
+    private ResponseEntity<?> listResponse(String ifNoneMatch, String etag, Object body) {
+        if (OrderETags.matches(ifNoneMatch, etag)) {
+            orderMetrics.recordListNotModified();
+            return notModified(etag);
+        }
+        return withETag(etag).body(body);
+    }
+
+    private static ResponseEntity<Void> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(String etag) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        return etag != null ? ok.eTag(etag) : ok;
     }
 
     private static OrderStatus parseOrderStatus(String status) {
@@ -87,18 +178,30 @@ public class OrdersController {
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> createOrder(
             @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = REQUEST_TIMEOUT_HEADER, required = false) Long requestTimeoutMs,
             @Valid @RequestBody CreateOrderRequest request) {
+        long deadline = deadlineNanos(requestTimeoutMs);
+        // Before the replay lookup too: a spent budget gets no DB work at all
+        orderCreateAdmission.checkDeadline(deadline);
         if (idempotencyKey == null || idempotencyKey.isBlank()) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", "Idempotency-Key header is required"));
         }
-        boolean acquired = orderCreateSemaphore.tryAcquire();
-        if (!acquired) {
-            throw new ServiceOverloadedException("Too many concurrent order creations; try again later");
+        String key = idempotencyKey.trim();
+        // Completed and in-flight keys are answered (or waited for) before admission: replays never hold a
+        // create permit
+        Optional<IdempotentCreateResult> replay = ordersService.findReplay(key, request, deadline);
+        if (replay.isPresent()) {
+            return replayResponse(replay.get());
         }
+        ConcurrencyLimiter.Permit permit = admit(() -> orderCreateAdmission.admit(key, deadline));
         Timer.Sample latencySample = orderMetrics.startCreateLatency();
+        Throwable failure = null;
+        boolean replayed = false;
         try {
-            IdempotentCreateResult result = ordersService.createOrderIdempotent(idempotencyKey.trim(), request);
+            IdempotentCreateResult result = groupCommit
+                    .map(gc -> gc.submit(key, request, deadline))
+                    .orElseGet(() -> ordersService.createOrderIdempotent(key, request));
             if (result.getType() == IdempotentCreateResult.Type.CREATED) {
                 CreateOrderResponse created = result.getResponse();
                 MDC.put("orderId", created.getOrderId().toString());
@@ -107,19 +210,105 @@ public class OrdersController {
                         .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(created.getOrderId()).toUri())
                         .body(created);
             }
-            // REPLAY: return stored status and exact stored body (parse so we don't double-encode)
-            try {
-                Object body = objectMapper.readValue(result.getResponseBodyJson(), Object.class);
-                return ResponseEntity
-                        .status(result.getResponseCode())
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(body);
-            } catch (JsonProcessingException e) {
-                throw new IllegalStateException("Stored response body is not valid JSON", e);
+            replayed = true;
+            return replayResponse(result);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            orderMetrics.recordCreateLatency(latencySample);
+            if (replayed) {
+                // Raced with the owner past findReplay; not a create, so not a latency sample
+                permit.onIgnore();
+            } else {
+                releaseCreatePermit(permit, failure);
             }
+        }
+    }
+
+    /**
+     * Bulk idempotent create: each entry carries its own Idempotency-Key. Costs one create rate-limit token
+     * per entry (429 when the bucket cannot pay for all of them) and a single backpressure permit, which is
+     * why batches are capped at {@link BatchCreateOrderRequest#MAX_ENTRIES}, no more than one group-commit
+     * flush. Per-entry outcomes are reported in the body (always 200).
+     */
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchCreateOrderResponse> createOrdersBatch(
+            @RequestHeader(value = REQUEST_TIMEOUT_HEADER, required = false) Long requestTimeoutMs,
+            @Valid @RequestBody BatchCreateOrderRequest request) {
+        long deadline = deadlineNanos(requestTimeoutMs);
+        TokenBucketResult rateLimit = rateLimits.tryConsumeCreates(request.getOrders().size());
+        if (!rateLimit.isAllowed()) {
+            throw new RateLimitExceededException(rateLimit.getRetryAfterSeconds());
+        }
+        ConcurrencyLimiter.Permit permit = admit(() -> orderCreateAdmission.admit(AdmissionQueue.Lane.NEW, deadline));
+        Timer.Sample latencySample = orderMetrics.startCreateLatency();
+        Throwable failure = null;
+        try {
+            return ResponseEntity.ok(ordersService.createOrdersBatch(request.getOrders()));
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
         } finally {
             orderMetrics.recordCreateLatency(latencySample);
-            orderCreateSemaphore.release();
+            // A batch is much slower than a single create; do not let it skew the latency baseline
+            if (failure != null && isOverload(failure)) {
+                permit.onDropped();
+            } else {
+                permit.onIgnore();
+            }
         }
     }
+
+    /**
+     * Stored status and the exact stored body bytes (already JSON); no Jackson round trip.
+     */
+    private static ResponseEntity<byte[]> replayResponse(IdempotentCreateResult result) {
+        return ResponseEntity
+                .status(result.getResponseCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(result.getResponseBodyJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Waits in the admission queue; rejections (full, shed, deadline passed) surface as 503. */
+    private ConcurrencyLimiter.Permit admit(Supplier<ConcurrencyLimiter.Permit> admission) {
+        long start = System.nanoTime();
+        try {
+            return admission.get();
+        } finally {
+            orderMetrics.recordAdmissionWait(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The budget starts when the handler runs; queue wait counts against it. A budget of 0 or less yields
+     * a deadline that has already passed.
+     */
+    private static long deadlineNanos(Long requestTimeoutMs) {
+        if (requestTimeoutMs == null) {
+            return AdmissionQueue.NO_DEADLINE;
+        }
+        long now = System.nanoTime();
+        return requestTimeoutMs <= 0 ? now : now + TimeUnit.MILLISECONDS.toNanos(requestTimeoutMs);
+    }
+
+    /**
+     * Feeds the outcome to the limiter: successes are latency samples, overload failures shrink the limit,
+     * anything else (idempotency conflicts, validation, bugs) only frees the slot.
+     */
+    private static void releaseCreatePermit(ConcurrencyLimiter.Permit permit, Throwable failure) {
+        if (failure == null) {
+            permit.onSuccess();
+        } else if (isOverload(failure)) {
+            permit.onDropped();
+        } else {
+            permit.onIgnore();
+        }
+    }
+
+    private static boolean isOverload(Throwable failure) {
+        return failure instanceof ServiceOverloadedException
+                || failure instanceof CannotGetJdbcConnectionException
+                || failure instanceof TransientDataAccessException;
+    }
 }
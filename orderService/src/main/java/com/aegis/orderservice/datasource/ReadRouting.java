@@ -0,0 +1,39 @@
+package com.aegis.orderservice.datasource;
+
+/**
+ * Per-thread override that sends read-only transactions to the primary instead of a replica. Takes effect
+ * for connections acquired while a scope is open, i.e. it must be opened before the transaction's first
+ * statement. Scopes nest; without replica routing configured they are no-ops.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Integer> PRIMARY_PINS = new ThreadLocal<>();
+
+    private ReadRouting() {}
+
+    public static Scope pinPrimary() {
+        Integer pins = PRIMARY_PINS.get();
+        PRIMARY_PINS.set(pins == null ? 1 : pins + 1);
+        return ReadRouting::unpin;
+    }
+
+    public static boolean isPrimaryPinned() {
+        return PRIMARY_PINS.get() != null;
+    }
+
+    private static void unpin() {
+        Integer pins = PRIMARY_PINS.get();
+        if (pins == null || pins <= 1) {
+            PRIMARY_PINS.remove();
+        } else {
+            PRIMARY_PINS.set(pins - 1);
+        }
+    }
+
+    /** try-with-resources handle for {@link #pinPrimary()}. */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,95 @@
+package com.aegis.orderservice.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * Probes every replica on a fixed delay: reachable, still a standby, and how far its replay is behind.
+ * Lag is 0 when everything received has been replayed (an idle primary produces no new commits, so the
+ * last replay timestamp alone would look ever more stale), otherwise the age of the last replayed commit.
+ * A replica that is not in recovery is reported once and treated as caught up, which is what a plain
+ * second instance used for local testing looks like.
+ */
+public class ReplicaHealthMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private static final String LAG_SQL = """
+            SELECT pg_is_in_recovery(),
+                   CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE CAST(EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()) * 1000 AS bigint)
+                   END
+            """;
+
+    private final List<Probe> probes;
+
+    public ReplicaHealthMonitor(List<ReplicaRoutingDataSource.Replica> replicas, int queryTimeoutSeconds) {
+        this.probes = replicas.stream().map(r -> {
+            JdbcTemplate jdbc = new JdbcTemplate(r.dataSource());
+            jdbc.setQueryTimeout(queryTimeoutSeconds);
+            return new Probe(r, jdbc);
+        }).toList();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval-ms:2000}")
+    public void check() {
+        for (Probe probe : probes) {
+            check(probe);
+        }
+    }
+
+    private void check(Probe probe) {
+        ReplicaRoutingDataSource.Replica replica = probe.replica();
+        boolean wasAvailable = replica.isAvailable();
+        try {
+            Status status = probe.jdbc().queryForObject(LAG_SQL, (rs, rowNum) -> {
+                long lag = rs.getLong(2);
+                // No replay timestamp yet while behind: unknown lag, keep it out of rotation
+                if (rs.wasNull()) {
+                    lag = Long.MAX_VALUE;
+                }
+                return new Status(rs.getBoolean(1), lag);
+            });
+            if (!status.inRecovery() && !probe.warnedNotStandby) {
+                probe.warnedNotStandby = true;
+                log.warn("Replica {} is not a standby (pg_is_in_recovery() = false); assuming it is in sync", replica.name());
+            }
+            replica.markUp(status.lagMs());
+        } catch (Exception e) {
+            replica.markDown();
+            if (wasAvailable) {
+                log.warn("Replica {} failed health check: {}", replica.name(), e.getMessage());
+            }
+            return;
+        }
+        if (wasAvailable != replica.isAvailable()) {
+            log.info("Replica {} {} (lagMs={})", replica.name(),
+                    replica.isAvailable() ? "available" : "lagging, reads go to primary", replica.lagMs());
+        }
+    }
+
+    private static final class Probe {
+        private final ReplicaRoutingDataSource.Replica replica;
+        private final JdbcTemplate jdbc;
+        private boolean warnedNotStandby;
+
+        private Probe(ReplicaRoutingDataSource.Replica replica, JdbcTemplate jdbc) {
+            this.replica = replica;
+            this.jdbc = jdbc;
+        }
+
+        ReplicaRoutingDataSource.Replica replica() {
+            return replica;
+        }
+
+        JdbcTemplate jdbc() {
+            return jdbc;
+        }
+    }
+
+    private record Status(boolean inRecovery, long lagMs) {}
+}
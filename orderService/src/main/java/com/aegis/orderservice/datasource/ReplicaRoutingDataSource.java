@@ -0,0 +1,137 @@
+package com.aegis.orderservice.datasource;
+
+import com.aegis.orderservice.metrics.OrderMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a replica (round robin over the available ones) and
+ * everything else to the primary. A replica is available while {@link ReplicaHealthMonitor} sees it up and
+ * within max-lag; with none available, or with {@link ReadRouting} pinning the primary, reads use the primary.
+ * <p>
+ * The routing decision reads the transaction's read-only flag, which Spring sets after the transaction
+ * manager has begun, so this must sit behind a LazyConnectionDataSourceProxy that defers the real
+ * connection to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final OrderMetrics orderMetrics;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, OrderMetrics orderMetrics) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.orderMetrics = orderMetrics;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadRouting.isPrimaryPinned()) {
+            return primary.getConnection();
+        }
+        Replica replica = nextAvailable();
+        if (replica == null) {
+            orderMetrics.recordReplicaFallback();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.dataSource().getConnection();
+            orderMetrics.recordReplicaRead();
+            return connection;
+        } catch (SQLException e) {
+            // Do not wait for the next health check to stop routing here
+            replica.markDown();
+            log.warn("Replica {} unavailable, reading from primary: {}", replica.name(), e.getMessage());
+            orderMetrics.recordReplicaFallback();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Routing data source uses the pools' configured credentials");
+    }
+
+    private Replica nextAvailable() {
+        int n = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            Replica candidate = replicas.get((start + i) % n);
+            if (candidate.isAvailable()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /** Closes the replica pools; the primary pool is a bean of its own. */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.dataSource().close();
+        }
+    }
+
+    /**
+     * One replica pool plus the health state written by {@link ReplicaHealthMonitor}. Starts unavailable
+     * until the first successful check.
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final long maxLagMs;
+        private volatile boolean up;
+        private volatile long lagMs = -1;
+
+        public Replica(String name, HikariDataSource dataSource, long maxLagMs) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.maxLagMs = maxLagMs;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public HikariDataSource dataSource() {
+            return dataSource;
+        }
+
+        /** Replay lag at the last check; -1 while down or unknown. */
+        public long lagMs() {
+            return lagMs;
+        }
+
+        public boolean isAvailable() {
+            return up && lagMs <= maxLagMs;
+        }
+
+        void markUp(long lagMs) {
+            this.lagMs = lagMs;
+            this.up = true;
+        }
+
+        void markDown() {
+            this.up = false;
+            this.lagMs = -1;
+        }
+    }
+}
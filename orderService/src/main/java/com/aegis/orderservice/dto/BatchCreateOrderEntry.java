@@ -0,0 +1,24 @@
+package com.aegis.orderservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a batch create: the idempotency key it would carry as a header plus the order body.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateOrderEntry {
+
+    @NotBlank(message = "idempotencyKey must not be blank")
+    private String idempotencyKey;
+
+    @NotNull(message = "order is required")
+    @Valid
+    private CreateOrderRequest order;
+}
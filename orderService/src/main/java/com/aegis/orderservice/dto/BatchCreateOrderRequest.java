@@ -0,0 +1,24 @@
+package com.aegis.orderservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateOrderRequest {
+
+    /** One admission permit covers the whole batch; keep it within a single group-commit flush. */
+    public static final int MAX_ENTRIES = 50;
+
+    @NotEmpty(message = "orders must not be empty")
+    @Size(max = MAX_ENTRIES, message = "orders must contain at most " + MAX_ENTRIES + " entries")
+    @Valid
+    private List<BatchCreateOrderEntry> orders;
+}
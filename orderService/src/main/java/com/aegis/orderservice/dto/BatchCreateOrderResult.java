@@ -0,0 +1,58 @@
+package com.aegis.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Per-entry result of a batch create. {@code status} and {@code body} are exactly what
+ * POST /api/v1/orders would have returned for the same key and request.
+ */
+@Getter
+@AllArgsConstructor
+public class BatchCreateOrderResult {
+
+    public enum Outcome { CREATED, REPLAY, CONFLICT, IN_PROGRESS, FAILED }
+
+    private final String idempotencyKey;
+    private final Outcome outcome;
+    private final int status;
+    @JsonRawValue
+    private final String body;
+    /** Typed response for CREATED entries; lets in-process callers skip re-parsing {@code body}. */
+    @JsonIgnore
+    private final CreateOrderResponse response;
+    /** Error message for CONFLICT / IN_PROGRESS / FAILED entries. */
+    @JsonIgnore
+    private final String error;
+
+    public static BatchCreateOrderResult created(String key, CreateOrderResponse response, String responseBodyJson) {
+        return new BatchCreateOrderResult(key, Outcome.CREATED, 201, responseBodyJson, response, null);
+    }
+
+    public static BatchCreateOrderResult replay(String key, int responseCode, String responseBodyJson) {
+        return new BatchCreateOrderResult(key, Outcome.REPLAY, responseCode, responseBodyJson, null, null);
+    }
+
+    public static BatchCreateOrderResult conflict(String key, String message) {
+        return new BatchCreateOrderResult(key, Outcome.CONFLICT, 409, errorBody(message), null, message);
+    }
+
+    public static BatchCreateOrderResult inProgress(String key, String message) {
+        return new BatchCreateOrderResult(key, Outcome.IN_PROGRESS, 409, errorBody(message), null, message);
+    }
+
+    public static BatchCreateOrderResult failed(String key, String message) {
+        return new BatchCreateOrderResult(key, Outcome.FAILED, 500, errorBody(message), null, message);
+    }
+
+    private static String errorBody(String message) {
+        String m = message == null ? "" : message.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r")
+                .replace("\t", "\\t");
+        return "{\"error\":\"" + m + "\"}";
+    }
+}
@@ -0,0 +1,28 @@
+package com.aegis.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One requested id: {@code found=false} and no {@code order} when it does not exist.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetOrderResult {
+
+    private UUID orderId;
+    private boolean found;
+    private OrderResponse order;
+
+    public static BatchGetOrderResult found(OrderResponse order) {
+        return new BatchGetOrderResult(order.getOrderId(), true, order);
+    }
+
+    public static BatchGetOrderResult notFound(UUID orderId) {
+        return new BatchGetOrderResult(orderId, false, null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.aegis.orderservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetOrdersRequest {
+
+    public static final int MAX_IDS = 100;
+
+    @NotEmpty(message = "orderIds must not be empty")
+    @Size(max = MAX_IDS, message = "orderIds must contain at most " + MAX_IDS + " ids")
+    private List<@NotNull(message = "orderIds must not contain null") UUID> orderIds;
+}
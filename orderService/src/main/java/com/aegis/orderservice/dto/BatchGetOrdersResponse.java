@@ -0,0 +1,18 @@
+package com.aegis.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Results in the same order as the requested ids (duplicates included).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetOrdersResponse {
+
+    private List<BatchGetOrderResult> results;
+}
@@ -13,6 +13,7 @@ import java.util.UUID;
 
 /**
  * Full order response: same shape as create response (orderId, status, totalAmount, createdAt) plus items.
+ * {@code version} is the row's optimistic-lock version; it changes with every update and backs the ETag.
  */
 @Data
 @Builder
@@ -26,5 +27,6 @@ public class OrderResponse {
     private OrderStatus status;
     private BigDecimal totalAmount;
     private Instant createdAt;
+    private Long version;
     private List<OrderItemResponse> items;
 }
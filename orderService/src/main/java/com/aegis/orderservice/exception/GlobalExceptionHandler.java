@@ -47,6 +47,12 @@ public class GlobalExceptionHandler {
                 .body(Map.of("error", ex.getMessage()));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursor(InvalidCursorException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
     @ExceptionHandler(ServiceOverloadedException.class)
     public ResponseEntity<Map<String, String>> handleServiceOverloaded(ServiceOverloadedException ex) {
         log.warn("Service overloaded (backpressure): message={} correlationId={}", ex.getMessage(), MDC.get(com.aegis.orderservice.filter.CorrelationIdFilter.MDC_KEY));
@@ -54,6 +60,13 @@ public class GlobalExceptionHandler {
                 .body(Map.of("error", ex.getMessage()));
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceeded(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage(), "retryAfterSeconds", ex.getRetryAfterSeconds()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleException(Exception ex) {
         String correlationId = MDC.get(com.aegis.orderservice.filter.CorrelationIdFilter.MDC_KEY);
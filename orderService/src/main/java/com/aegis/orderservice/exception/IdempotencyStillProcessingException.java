@@ -5,7 +5,9 @@ package com.aegis.orderservice.exception;
  */
 public class IdempotencyStillProcessingException extends RuntimeException {
 
+    public static final String MESSAGE = "Request with this idempotency key is still processing, retry later.";
+
     public IdempotencyStillProcessingException() {
-        super("Request with this idempotency key is still processing, retry later.");
+        super(MESSAGE);
     }
 }
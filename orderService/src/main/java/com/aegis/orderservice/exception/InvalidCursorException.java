@@ -0,0 +1,8 @@
+package com.aegis.orderservice.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException() {
+        super("cursor is invalid; pass the nextCursor from a previous response, or an empty cursor for the first page");
+    }
+}
@@ -0,0 +1,18 @@
+package com.aegis.orderservice.exception;
+
+/**
+ * A rate-limit bucket could not pay for the request; answered with 429 and Retry-After.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public RateLimitExceededException(int retryAfterSeconds) {
+        super("Too Many Requests");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,7 +1,6 @@
 package com.aegis.orderservice.filter;
 
-import com.aegis.orderservice.config.RateLimitProperties;
-import com.aegis.orderservice.ratelimit.RateLimiter;
+import com.aegis.orderservice.ratelimit.OrderRateLimits;
 import com.aegis.orderservice.ratelimit.TokenBucketResult;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -14,54 +13,38 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Optional;
 
 /**
- * Token-bucket rate limit for POST /api/v1/orders and GET /api/v1/orders/{id}.
+ * Token-bucket rate limit for POST /api/v1/orders and GET /api/v1/orders/{id}. POST /batch-get is a read and
+ * takes one token from the GET bucket for the whole batch. POST /batch is not limited here: it costs one
+ * create token per entry, which is only known once the body is parsed, so the controller charges it.
  * Returns 429 Too Many Requests with Retry-After when exceeded.
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE + 1)
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    private static final String POST_ORDERS_KEY = "ratelimit:post:orders";
-    private static final String GET_ORDER_KEY = "ratelimit:get:order";
     private static final String API_ORDERS_PREFIX = "/api/v1/orders";
 
-    private final Optional<RateLimiter> rateLimiter;
-    private final Optional<RateLimitProperties> rateLimitProperties;
+    private final OrderRateLimits rateLimits;
 
-    public RateLimitFilter(Optional<RateLimiter> rateLimiter,
-                           RateLimitProperties rateLimitProperties) {
-        this.rateLimiter = rateLimiter;
-        this.rateLimitProperties = Optional.of(rateLimitProperties);
+    public RateLimitFilter(OrderRateLimits rateLimits) {
+        this.rateLimits = rateLimits;
     }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
-        if (rateLimiter.isEmpty() || rateLimitProperties.isEmpty()) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
         String path = request.getRequestURI();
         String method = request.getMethod();
 
         TokenBucketResult result;
         if ("POST".equalsIgnoreCase(method) && path != null && path.equals(API_ORDERS_PREFIX)) {
-            RateLimitProperties props = rateLimitProperties.get();
-            result = rateLimiter.get().tryConsume(
-                    POST_ORDERS_KEY,
-                    props.getPostOrdersCapacity(),
-                    props.getPostOrdersRefillPerSecond());
-        } else if ("GET".equalsIgnoreCase(method) && path != null && path.startsWith(API_ORDERS_PREFIX + "/")) {
-            RateLimitProperties props = rateLimitProperties.get();
-            result = rateLimiter.get().tryConsume(
-                    GET_ORDER_KEY,
-                    props.getGetOrderCapacity(),
-                    props.getGetOrderRefillPerSecond());
+            result = rateLimits.tryConsumeCreates(1);
+        } else if (path != null && (("GET".equalsIgnoreCase(method) && path.startsWith(API_ORDERS_PREFIX + "/"))
+                || ("POST".equalsIgnoreCase(method) && path.equals(API_ORDERS_PREFIX + "/batch-get")))) {
+            result = rateLimits.tryConsumeRead();
         } else {
             filterChain.doFilter(request, response);
             return;
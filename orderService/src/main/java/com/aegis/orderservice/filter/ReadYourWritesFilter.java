@@ -0,0 +1,89 @@
+package com.aegis.orderservice.filter;
+
+import com.aegis.orderservice.datasource.ReadRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Read-your-writes with replica routing. Every write request gets an X-Consistency-Token response header
+ * (epoch millis, taken when the response completes, so after the write committed); a client that sends it
+ * back is read from the primary until read-your-writes-ms has passed, so it never sees a replica that has
+ * not replayed its write yet. Write responses are buffered so the header can still be set at that point.
+ * Tokens up to the window ahead are accepted to tolerate clock skew between instances; nothing further out,
+ * so a forged token cannot pin a client to the primary for more than twice the window.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(prefix = "app.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String CONSISTENCY_TOKEN_HEADER = "X-Consistency-Token";
+
+    private final long windowMs;
+
+    public ReadYourWritesFilter(@Value("${app.datasource.replicas.read-your-writes-ms:5000}") long windowMs) {
+        this.windowMs = Math.max(0, windowMs);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!isWrite(request)) {
+            route(request, response, filterChain);
+            return;
+        }
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        try {
+            route(request, buffered, filterChain);
+        } finally {
+            buffered.setHeader(CONSISTENCY_TOKEN_HEADER, Long.toString(System.currentTimeMillis()));
+            buffered.copyBodyToResponse();
+        }
+    }
+
+    private void route(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!isRecentWrite(request.getHeader(CONSISTENCY_TOKEN_HEADER), System.currentTimeMillis())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try (ReadRouting.Scope ignored = ReadRouting.pinPrimary()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private boolean isRecentWrite(String token, long now) {
+        if (token == null || token.isBlank()) {
+            return false;
+        }
+        try {
+            long writtenAt = Long.parseLong(token.trim());
+            return Math.abs(now - writtenAt) < windowMs;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /** POST /batch-get is a read despite the method. */
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return false;
+        }
+        String path = request.getRequestURI();
+        return path == null || !path.endsWith("/batch-get");
+    }
+}
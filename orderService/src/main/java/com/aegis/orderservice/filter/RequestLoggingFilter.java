@@ -1,5 +1,7 @@
 package com.aegis.orderservice.filter;
 
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -44,10 +46,40 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
             if (orderId != null) {
                 MDC.remove("orderId");
             }
-            long latencyMs = System.currentTimeMillis() - start;
-            int status = response.getStatus();
-            logger.info("endpoint={} latencyMs={} status={} correlationId={}",
-                    endpoint, latencyMs, status, MDC.get(CorrelationIdFilter.MDC_KEY));
+            String correlationId = MDC.get(CorrelationIdFilter.MDC_KEY);
+            if (request.isAsyncStarted()) {
+                // Async handler (Mono/CompletableFuture): log once the response is actually complete
+                request.getAsyncContext().addListener(new CompletionLogger(endpoint, start, correlationId));
+            } else {
+                log(endpoint, start, response.getStatus(), correlationId);
+            }
+        }
+    }
+
+    private static void log(String endpoint, long start, int status, String correlationId) {
+        long latencyMs = System.currentTimeMillis() - start;
+        logger.info("endpoint={} latencyMs={} status={} correlationId={}",
+                endpoint, latencyMs, status, correlationId);
+    }
+
+    private record CompletionLogger(String endpoint, long start, String correlationId) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            log(endpoint, start, response.getStatus(), correlationId);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
         }
     }
 
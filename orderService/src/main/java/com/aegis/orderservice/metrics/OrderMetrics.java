@@ -1,11 +1,21 @@
 package com.aegis.orderservice.metrics;
 
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.concurrency.AdmissionQueue;
+import com.aegis.orderservice.concurrency.ConcurrencyLimiter;
+import com.aegis.orderservice.datasource.ReplicaRoutingDataSource;
+import com.github.benmanes.caffeine.cache.Cache;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Custom metrics for orders and idempotency. Use for dashboards and SLOs.
@@ -17,23 +27,129 @@ public class OrderMetrics {
     private static final String ORDERS_CREATE_LATENCY = "orders.create.latency";
     private static final String IDEMPOTENCY_HIT = "idempotency.hit.count";
     private static final String IDEMPOTENCY_CONFLICT = "idempotency.conflict.count";
+    private static final String IDEMPOTENCY_CACHE_HIT = "idempotency.cache.hit.count";
+    private static final String IDEMPOTENCY_REPLAY_LOOKUP_SKIPPED = "idempotency.replay_lookup.skipped.count";
     private static final String CACHE_HIT = "cache.hit.count";
     private static final String CACHE_MISS = "cache.miss.count";
+    private static final String CACHE_L1_HIT = "cache.l1.hit.count";
+    private static final String CACHE_L2_HIT = "cache.l2.hit.count";
+    private static final String CACHE_L1_HIT_RATIO = "cache.l1.hit.ratio";
+    private static final String CACHE_L2_HIT_RATIO = "cache.l2.hit.ratio";
+    private static final String ORDER_L1_CACHE = "orders.l1";
+    private static final String CACHE_LOAD_COALESCED = "cache.load.coalesced.count";
+    private static final String CACHE_STALE_SERVED = "cache.stale.served.count";
+    private static final String CACHE_EARLY_REFRESH = "cache.refresh.early.count";
+    private static final String CACHE_REFRESH_DROPPED = "cache.refresh.dropped.count";
+    private static final String CACHE_LIST_HIT = "cache.list.hit.count";
+    private static final String CACHE_LIST_MISS = "cache.list.miss.count";
+    private static final String NOT_MODIFIED = "orders.not_modified.count";
+    private static final String GROUP_COMMIT_SIZE = "orders.group_commit.size";
+    private static final String IDEMPOTENCY_PARTITIONS = "idempotency.partitions.count";
+    private static final String IDEMPOTENCY_PARTITIONS_DROPPED = "idempotency.partitions.dropped.count";
+    private static final String IDEMPOTENCY_BYTES_RECLAIMED = "idempotency.partitions.reclaimed.bytes";
+    private static final String OUTBOX_PUBLISHED = "outbox.published.count";
+    private static final String OUTBOX_LAG = "outbox.lag.ms";
+    private static final String SAGA_CONFIRMED = "saga.confirmed.count";
+    private static final String SAGA_FAILED = "saga.failed.count";
+    private static final String SAGA_DEFERRED = "saga.deferred.count";
+    private static final String SAGA_COMPENSATION_FAILED = "saga.compensation.failed.count";
+    private static final String SAGA_DURATION = "saga.duration";
+    private static final String SAGA_IN_FLIGHT = "saga.in_flight";
+    private static final String CREATE_LIMIT = "orders.create.limit";
+    private static final String CREATE_IN_FLIGHT = "orders.create.in_flight";
+    private static final String CREATE_REJECTED = "orders.create.rejected.count";
+    private static final String ADMISSION_QUEUE_SIZE = "orders.admission.queue.size";
+    private static final String ADMISSION_WAIT = "orders.admission.wait";
+    private static final String ADMISSION_SHED = "orders.admission.shed.count";
+    private static final String ADMISSION_EXPIRED = "orders.admission.deadline_expired.count";
+    private static final String DB_REPLICA_READS = "db.replica.reads.count";
+    private static final String DB_REPLICA_FALLBACK = "db.replica.fallback.count";
+    private static final String DB_REPLICA_LAG = "db.replica.lag.ms";
+    private static final String DB_REPLICA_AVAILABLE = "db.replica.available";
 
     private final Counter ordersCreatedCount;
     private final Timer ordersCreateLatency;
     private final Counter idempotencyHitCount;
     private final Counter idempotencyConflictCount;
+    private final Counter idempotencyCacheHitCount;
+    private final Counter replayLookupSkippedCount;
     private final Counter cacheHitCount;
     private final Counter cacheMissCount;
+    private final Counter cacheL1HitCount;
+    private final Counter cacheL2HitCount;
+    private final Counter cacheLoadCoalescedCount;
+    private final Counter cacheStaleServedCount;
+    private final Counter cacheEarlyRefreshCount;
+    private final Counter cacheRefreshDroppedCount;
+    private final Counter cacheListHitCount;
+    private final Counter cacheListMissCount;
+    private final Counter notModifiedFromVersionCount;
+    private final Counter notModifiedLoadedCount;
+    private final Counter notModifiedListCount;
+    private final DistributionSummary groupCommitSize;
+    private final AtomicInteger idempotencyPartitions = new AtomicInteger();
+    private final Counter idempotencyPartitionsDropped;
+    private final Counter idempotencyBytesReclaimed;
+    private final Counter outboxPublishedCount;
+    private final AtomicLong outboxLagMs = new AtomicLong();
+    private final Counter sagaConfirmedCount;
+    private final Counter sagaFailedCount;
+    private final Counter sagaDeferredCount;
+    private final Counter sagaCompensationFailedCount;
+    private final Timer sagaDuration;
+    private final AtomicInteger sagasInFlight = new AtomicInteger();
+    private final MeterRegistry registry;
+    private final Counter createRejectedCount;
+    private final Timer admissionWait;
+    private final Counter admissionShedCount;
+    private final Counter admissionExpiredCount;
+    private final Counter replicaReadsCount;
+    private final Counter replicaFallbackCount;
 
     public OrderMetrics(MeterRegistry registry) {
+        this.registry = registry;
         this.ordersCreatedCount = registry.counter(ORDERS_CREATED);
         this.ordersCreateLatency = registry.timer(ORDERS_CREATE_LATENCY);
         this.idempotencyHitCount = registry.counter(IDEMPOTENCY_HIT);
         this.idempotencyConflictCount = registry.counter(IDEMPOTENCY_CONFLICT);
+        this.idempotencyCacheHitCount = registry.counter(IDEMPOTENCY_CACHE_HIT);
+        this.replayLookupSkippedCount = registry.counter(IDEMPOTENCY_REPLAY_LOOKUP_SKIPPED);
         this.cacheHitCount = registry.counter(CACHE_HIT);
         this.cacheMissCount = registry.counter(CACHE_MISS);
+        this.cacheL1HitCount = registry.counter(CACHE_L1_HIT);
+        this.cacheL2HitCount = registry.counter(CACHE_L2_HIT);
+        this.cacheLoadCoalescedCount = registry.counter(CACHE_LOAD_COALESCED);
+        this.cacheStaleServedCount = registry.counter(CACHE_STALE_SERVED);
+        this.cacheEarlyRefreshCount = registry.counter(CACHE_EARLY_REFRESH);
+        this.cacheRefreshDroppedCount = registry.counter(CACHE_REFRESH_DROPPED);
+        this.cacheListHitCount = registry.counter(CACHE_LIST_HIT);
+        this.cacheListMissCount = registry.counter(CACHE_LIST_MISS);
+        this.notModifiedFromVersionCount = registry.counter(NOT_MODIFIED, "source", "cached_version");
+        this.notModifiedLoadedCount = registry.counter(NOT_MODIFIED, "source", "order");
+        this.notModifiedListCount = registry.counter(NOT_MODIFIED, "source", "list");
+        registry.gauge(CACHE_L1_HIT_RATIO, this, m -> ratio(m.cacheL1HitCount.count(),
+                m.cacheHitCount.count() + m.cacheMissCount.count()));
+        // L2 only sees L1 misses: its ratio is over the lookups that reached Redis
+        registry.gauge(CACHE_L2_HIT_RATIO, this, m -> ratio(m.cacheL2HitCount.count(),
+                m.cacheL2HitCount.count() + m.cacheMissCount.count()));
+        this.groupCommitSize = registry.summary(GROUP_COMMIT_SIZE);
+        registry.gauge(IDEMPOTENCY_PARTITIONS, idempotencyPartitions);
+        this.idempotencyPartitionsDropped = registry.counter(IDEMPOTENCY_PARTITIONS_DROPPED);
+        this.idempotencyBytesReclaimed = registry.counter(IDEMPOTENCY_BYTES_RECLAIMED);
+        this.outboxPublishedCount = registry.counter(OUTBOX_PUBLISHED);
+        registry.gauge(OUTBOX_LAG, outboxLagMs);
+        this.sagaConfirmedCount = registry.counter(SAGA_CONFIRMED);
+        this.sagaFailedCount = registry.counter(SAGA_FAILED);
+        this.sagaDeferredCount = registry.counter(SAGA_DEFERRED);
+        this.sagaCompensationFailedCount = registry.counter(SAGA_COMPENSATION_FAILED);
+        this.sagaDuration = registry.timer(SAGA_DURATION);
+        registry.gauge(SAGA_IN_FLIGHT, sagasInFlight);
+        this.createRejectedCount = registry.counter(CREATE_REJECTED);
+        this.admissionWait = registry.timer(ADMISSION_WAIT);
+        this.admissionShedCount = registry.counter(ADMISSION_SHED);
+        this.admissionExpiredCount = registry.counter(ADMISSION_EXPIRED);
+        this.replicaReadsCount = registry.counter(DB_REPLICA_READS);
+        this.replicaFallbackCount = registry.counter(DB_REPLICA_FALLBACK);
     }
 
     public void recordOrderCreated() {
@@ -58,6 +174,16 @@ public class OrderMetrics {
         idempotencyConflictCount.increment();
     }
 
+    /** Replay served from the Redis idempotency tier without touching Postgres. */
+    public void recordIdempotencyCacheHit() {
+        idempotencyCacheHitCount.increment();
+    }
+
+    /** Pre-admission replay lookup skipped because the lookup bulkhead was full; the create path resolved the key. */
+    public void recordReplayLookupSkipped() {
+        replayLookupSkippedCount.increment();
+    }
+
     public void recordCacheHit() {
         cacheHitCount.increment();
     }
@@ -65,4 +191,156 @@ public class OrderMetrics {
     public void recordCacheMiss() {
         cacheMissCount.increment();
     }
+
+    /** Order served from the in-process tier (also counted in cache.hit.count). */
+    public void recordCacheL1Hit() {
+        cacheL1HitCount.increment();
+    }
+
+    /** Order served from Redis after an L1 miss (also counted in cache.hit.count). */
+    public void recordCacheL2Hit() {
+        cacheL2HitCount.increment();
+    }
+
+    /** Cache miss that joined another request's in-flight load instead of querying the DB itself. */
+    public void recordCacheLoadCoalesced() {
+        cacheLoadCoalescedCount.increment();
+    }
+
+    /** Hit past its logical expiry, served while a background refresh runs. */
+    public void recordCacheStaleServed() {
+        cacheStaleServedCount.increment();
+    }
+
+    /** Hit before its logical expiry that won the XFetch draw and triggered a background refresh. */
+    public void recordCacheEarlyRefresh() {
+        cacheEarlyRefreshCount.increment();
+    }
+
+    /** Background refresh not scheduled because the refresh executor queue was full. */
+    public void recordCacheRefreshDropped() {
+        cacheRefreshDroppedCount.increment();
+    }
+
+    /** Per-user list page served from the list cache (see OrderListCacheService). */
+    public void recordListCacheHit() {
+        cacheListHitCount.increment();
+    }
+
+    public void recordListCacheMiss() {
+        cacheListMissCount.increment();
+    }
+
+    /**
+     * 304 for a single order: {@code fromCachedVersion} when answered from the cached version alone,
+     * otherwise after loading the order.
+     */
+    public void recordNotModified(boolean fromCachedVersion) {
+        (fromCachedVersion ? notModifiedFromVersionCount : notModifiedLoadedCount).increment();
+    }
+
+    /** 304 for a list page (the page itself was still read, from the list cache or the DB). */
+    public void recordListNotModified() {
+        notModifiedListCount.increment();
+    }
+
+    /** Size, evictions and Caffeine's own hit/miss stats for the order L1 cache. */
+    public void bindOrderL1Cache(Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(registry, cache, ORDER_L1_CACHE);
+    }
+
+    private static double ratio(double part, double total) {
+        return total > 0 ? part / total : 0;
+    }
+
+    public void recordGroupCommitSize(int orders) {
+        groupCommitSize.record(orders);
+    }
+
+    public void setIdempotencyPartitionCount(int partitions) {
+        idempotencyPartitions.set(partitions);
+    }
+
+    public void recordIdempotencyPartitionsDropped(int partitions, long bytesReclaimed) {
+        idempotencyPartitionsDropped.increment(partitions);
+        idempotencyBytesReclaimed.increment(bytesReclaimed);
+    }
+
+    public void recordOutboxPublished(int events) {
+        outboxPublishedCount.increment(events);
+    }
+
+    /** Age of the oldest unpublished outbox event; 0 when the outbox is drained. */
+    public void setOutboxLagMs(long lagMs) {
+        outboxLagMs.set(lagMs);
+    }
+
+    /** Saga run ended in {@code status}; runs that stop early (lost race, DB error) are not recorded. */
+    public void recordSagaFinished(OrderStatus status, long durationNanos) {
+        if (status == OrderStatus.CONFIRMED) {
+            sagaConfirmedCount.increment();
+        } else if (status == OrderStatus.FAILED) {
+            sagaFailedCount.increment();
+        }
+        sagaDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Saga not started because max-in-flight was reached; the sweeper resumes it later. */
+    public void recordSagaDeferred() {
+        sagaDeferredCount.increment();
+    }
+
+    public void recordSagaCompensationFailed() {
+        sagaCompensationFailedCount.increment();
+    }
+
+    public void setSagasInFlight(int sagas) {
+        sagasInFlight.set(sagas);
+    }
+
+    /** Exposes the order-create concurrency limit and current in-flight count as gauges. */
+    public void bindOrderCreateLimiter(ConcurrencyLimiter limiter) {
+        registry.gauge(CREATE_LIMIT, limiter, ConcurrencyLimiter::getLimit);
+        registry.gauge(CREATE_IN_FLIGHT, limiter, ConcurrencyLimiter::getInFlight);
+    }
+
+    public void recordCreateRejected() {
+        createRejectedCount.increment();
+    }
+
+    public void bindAdmissionQueue(AdmissionQueue queue) {
+        registry.gauge(ADMISSION_QUEUE_SIZE, queue, AdmissionQueue::getQueued);
+    }
+
+    /** Time from arrival to permit (near zero when a permit was free). */
+    public void recordAdmissionWait(long nanos) {
+        admissionWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Every admission rejection counts as a create rejection; shed and expired are also counted apart. */
+    public void recordAdmissionRejected(AdmissionQueue.Rejection rejection) {
+        createRejectedCount.increment();
+        switch (rejection) {
+            case SHED -> admissionShedCount.increment();
+            case DEADLINE_EXPIRED -> admissionExpiredCount.increment();
+            case QUEUE_FULL -> { }
+        }
+    }
+
+    /** Read-only transaction served by a replica. */
+    public void recordReplicaRead() {
+        replicaReadsCount.increment();
+    }
+
+    /** Read-only transaction sent to the primary because no replica was available (down or lagging). */
+    public void recordReplicaFallback() {
+        replicaFallbackCount.increment();
+    }
+
+    /** Replay lag (-1 while down) and availability (1/0) per replica, tagged with the replica name. */
+    public void bindReplica(ReplicaRoutingDataSource.Replica replica) {
+        Tags tags = Tags.of("replica", replica.name());
+        registry.gauge(DB_REPLICA_LAG, tags, replica, ReplicaRoutingDataSource.Replica::lagMs);
+        registry.gauge(DB_REPLICA_AVAILABLE, tags, replica, r -> r.isAvailable() ? 1 : 0);
+    }
 }
@@ -0,0 +1,36 @@
+package com.aegis.orderservice.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Keeps the last {@code MAX_EVENTS} relayed events in memory; for local runs and tests (app.outbox.sink=memory).
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "memory")
+public class InMemoryOutboxEventSink implements OutboxEventSink {
+
+    private static final int MAX_EVENTS = 10_000;
+
+    private final ConcurrentLinkedDeque<OutboxEvent> events = new ConcurrentLinkedDeque<>();
+
+    @Override
+    public void publish(List<OutboxEvent> batch) {
+        events.addAll(batch);
+        while (events.size() > MAX_EVENTS) {
+            events.pollFirst();
+        }
+    }
+
+    public List<OutboxEvent> events() {
+        return new ArrayList<>(events);
+    }
+
+    public void clear() {
+        events.clear();
+    }
+}
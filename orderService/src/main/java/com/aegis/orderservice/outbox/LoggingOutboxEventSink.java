@@ -0,0 +1,26 @@
+package com.aegis.orderservice.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default sink: one log line per event on the "order-events" logger (route it to a file with logging config).
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxEventSink implements OutboxEventSink {
+
+    private static final Logger eventLog = LoggerFactory.getLogger("order-events");
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent e : events) {
+            eventLog.info("id={} type={} aggregateId={} createdAt={} payload={}",
+                    e.id(), e.eventType(), e.aggregateId(), e.createdAt(), e.payload());
+        }
+    }
+}
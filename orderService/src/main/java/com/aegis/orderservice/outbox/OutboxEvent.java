@@ -0,0 +1,10 @@
+package com.aegis.orderservice.outbox;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Event handed to an {@link OutboxEventSink}. {@code id} is unique per event and can be used by consumers for
+ * de-duplication; it is not ordered. Events of one aggregate are handed over in the order they were written.
+ */
+public record OutboxEvent(long id, UUID aggregateId, String eventType, String payload, Instant createdAt) {}
@@ -0,0 +1,12 @@
+package com.aegis.orderservice.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events (broker, log, in-memory for tests).
+ * Throwing leaves the whole batch unpublished; it is retried on the next relay run.
+ */
+public interface OutboxEventSink {
+
+    void publish(List<OutboxEvent> events) throws Exception;
+}
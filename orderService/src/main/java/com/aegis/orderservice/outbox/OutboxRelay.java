@@ -0,0 +1,114 @@
+package com.aegis.orderservice.outbox;
+
+import com.aegis.orderservice.Entity.OrderOutbox;
+import com.aegis.orderservice.metrics.OrderMetrics;
+import com.aegis.orderservice.repository.OrderOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Publishes order_outbox rows to the configured {@link OutboxEventSink}.
+ * Each batch runs in one transaction: claim up to {@code batch-size} rows with FOR UPDATE SKIP LOCKED,
+ * publish, mark published. Concurrent relays (other instances) skip locked rows, so a row is handed to
+ * exactly one relay; a sink failure rolls back and the rows are retried on the next run. Delivery is
+ * at-least-once only in the narrow case where the sink accepted a batch but the commit then failed.
+ * Per order, events are published in write order: a batch takes at most one (the oldest unpublished) event
+ * per order, so an order with several pending events drains over consecutive batches.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OutboxEventSink sink;
+    private final Optional<OrderMetrics> orderMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public OutboxRelay(OrderOutboxRepository outboxRepository,
+                       OutboxEventSink sink,
+                       @Autowired(required = false) OrderMetrics orderMetrics,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${app.outbox.relay.max-batches-per-run:50}") int maxBatchesPerRun) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.orderMetrics = Optional.ofNullable(orderMetrics);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+    }
+
+    /**
+     * Drains full batches back to back (bounded by {@code max-batches-per-run}), then updates the lag gauge.
+     */
+    @Scheduled(initialDelayString = "${app.outbox.relay.initial-delay-ms:1000}",
+            fixedDelayString = "${app.outbox.relay.interval-ms:500}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (relayBatch() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Outbox relay run failed; unpublished events will be retried", e);
+        } finally {
+            updateLag();
+        }
+    }
+
+    /**
+     * Relays one batch and returns the number of events published.
+     */
+    public int relayBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OrderOutbox> rows = outboxRepository.claimUnpublished(batchSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            List<OutboxEvent> events = rows.stream()
+                    .map(r -> new OutboxEvent(r.getId(), r.getAggregateId(), r.getEventType(), r.getPayload(), r.getCreatedAt()))
+                    .toList();
+            try {
+                sink.publish(events);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Outbox sink failed", e);
+            }
+            outboxRepository.markPublished(rows.stream().map(OrderOutbox::getId).toList(), Instant.now());
+            return rows.size();
+        });
+        int count = published != null ? published : 0;
+        if (count > 0) {
+            orderMetrics.ifPresent(m -> m.recordOutboxPublished(count));
+        }
+        return count;
+    }
+
+    private void updateLag() {
+        try {
+            Instant oldest = outboxRepository.findOldestUnpublishedCreatedAt();
+            long lagMs = oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis());
+            orderMetrics.ifPresent(m -> m.setOutboxLagMs(lagMs));
+        } catch (Exception e) {
+            log.debug("Failed to read outbox lag", e);
+        }
+    }
+}
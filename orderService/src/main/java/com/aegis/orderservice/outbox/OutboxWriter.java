@@ -0,0 +1,89 @@
+package com.aegis.orderservice.outbox;
+
+import com.aegis.orderservice.Entity.OrderOutbox;
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.Entity.Orders;
+import com.aegis.orderservice.repository.OrderOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Appends order events to order_outbox. Must join the caller's transaction so the event commits (or rolls
+ * back) together with the order change; {@link OutboxRelay} publishes it afterwards.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxWriter {
+
+    public static final String ORDER_CREATED = "OrderCreated";
+    public static final String ORDER_STATUS_CHANGED = "OrderStatusChanged";
+
+    private final OrderOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OrderOutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void orderCreated(Orders order) {
+        orderCreatedAll(List.of(order));
+    }
+
+    /** One row per order; inserted through Hibernate JDBC batching. */
+    public void orderCreatedAll(List<Orders> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<OrderOutbox> rows = new ArrayList<>(orders.size());
+        for (Orders order : orders) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("orderId", order.getId().toString());
+            payload.put("userId", order.getUserId());
+            payload.put("status", order.getStatus().name());
+            payload.put("currency", order.getCurrency());
+            payload.put("totalAmount", order.getTotalAmount());
+            payload.put("itemCount", order.getItems().size());
+            payload.put("createdAt", order.getCreatedAt().toString());
+            rows.add(row(order.getId(), ORDER_CREATED, payload));
+        }
+        outboxRepository.saveAll(rows);
+    }
+
+    public void statusChanged(UUID orderId, OrderStatus from, OrderStatus to, String reason) {
+        Instant now = Instant.now();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", orderId.toString());
+        payload.put("from", from != null ? from.name() : null);
+        payload.put("to", to.name());
+        payload.put("reason", reason);
+        payload.put("changedAt", now.toString());
+        outboxRepository.save(row(orderId, ORDER_STATUS_CHANGED, payload));
+    }
+
+    private OrderOutbox row(UUID aggregateId, String eventType, Map<String, Object> payload) {
+        OrderOutbox row = new OrderOutbox();
+        row.setAggregateId(aggregateId);
+        row.setEventType(eventType);
+        row.setPayload(toJson(payload));
+        return row;
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox payload", e);
+        }
+    }
+}
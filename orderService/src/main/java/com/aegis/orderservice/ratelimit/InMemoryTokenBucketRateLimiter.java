@@ -16,9 +16,9 @@ public class InMemoryTokenBucketRateLimiter implements RateLimiter {
     private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
 
     @Override
-    public TokenBucketResult tryConsume(String bucketKey, int capacity, double refillPerSecond) {
+    public TokenBucketResult tryConsume(String bucketKey, int capacity, double refillPerSecond, int tokens) {
         Bucket bucket = buckets.computeIfAbsent(bucketKey, k -> new Bucket(capacity, refillPerSecond));
-        return bucket.tryConsume(capacity, refillPerSecond);
+        return bucket.tryConsume(capacity, refillPerSecond, tokens);
     }
 
     private static class Bucket {
@@ -31,18 +31,18 @@ public class InMemoryTokenBucketRateLimiter implements RateLimiter {
             this.lastRefillMs = System.currentTimeMillis();
         }
 
-        TokenBucketResult tryConsume(int capacity, double refillPerSecond) {
+        TokenBucketResult tryConsume(int capacity, double refillPerSecond, int cost) {
             lock.lock();
             try {
                 long now = System.currentTimeMillis();
                 double elapsed = (now - lastRefillMs) / 1000.0;
                 tokens = Math.min(capacity, tokens + elapsed * refillPerSecond);
                 lastRefillMs = now;
-                if (tokens >= 1) {
-                    tokens -= 1;
+                if (tokens >= cost) {
+                    tokens -= cost;
                     return TokenBucketResult.allowed();
                 }
-                int retryAfter = (int) Math.ceil((1 - tokens) / refillPerSecond);
+                int retryAfter = (int) Math.ceil((Math.min(cost, capacity) - tokens) / refillPerSecond);
                 return TokenBucketResult.rejected(Math.max(1, retryAfter));
             } finally {
                 lock.unlock();
@@ -0,0 +1,39 @@
+package com.aegis.orderservice.ratelimit;
+
+import com.aegis.orderservice.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * The order API's buckets: creates cost one token per order (a batch pays for every entry), reads one token
+ * per request. Everything is allowed when no {@link RateLimiter} is configured.
+ */
+@Component
+public class OrderRateLimits {
+
+    static final String POST_ORDERS_KEY = "ratelimit:post:orders";
+    static final String GET_ORDER_KEY = "ratelimit:get:order";
+
+    private final Optional<RateLimiter> rateLimiter;
+    private final RateLimitProperties props;
+
+    public OrderRateLimits(@Autowired(required = false) RateLimiter rateLimiter, RateLimitProperties props) {
+        this.rateLimiter = Optional.ofNullable(rateLimiter);
+        this.props = props;
+    }
+
+    public TokenBucketResult tryConsumeCreates(int orders) {
+        return rateLimiter
+                .map(l -> l.tryConsume(POST_ORDERS_KEY, props.getPostOrdersCapacity(),
+                        props.getPostOrdersRefillPerSecond(), orders))
+                .orElseGet(TokenBucketResult::allowed);
+    }
+
+    public TokenBucketResult tryConsumeRead() {
+        return rateLimiter
+                .map(l -> l.tryConsume(GET_ORDER_KEY, props.getGetOrderCapacity(), props.getGetOrderRefillPerSecond()))
+                .orElseGet(TokenBucketResult::allowed);
+    }
+}
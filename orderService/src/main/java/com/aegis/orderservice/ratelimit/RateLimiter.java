@@ -2,5 +2,13 @@ package com.aegis.orderservice.ratelimit;
 
 public interface RateLimiter {
 
-    TokenBucketResult tryConsume(String bucketKey, int capacity, double refillPerSecond);
+    default TokenBucketResult tryConsume(String bucketKey, int capacity, double refillPerSecond) {
+        return tryConsume(bucketKey, capacity, refillPerSecond, 1);
+    }
+
+    /**
+     * Takes {@code tokens} at once or none. A cost above {@code capacity} can never be paid and is always
+     * rejected.
+     */
+    TokenBucketResult tryConsume(String bucketKey, int capacity, double refillPerSecond, int tokens);
 }
@@ -20,17 +20,18 @@ public class RedisTokenBucketRateLimiter implements RateLimiter {
         local capacity = tonumber(ARGV[1])
         local refillPerSec = tonumber(ARGV[2])
         local now = tonumber(ARGV[3])
+        local cost = tonumber(ARGV[4])
         local tokens = tonumber(redis.call('GET', k) or capacity)
         local ts = tonumber(redis.call('GET', kts) or now)
         local elapsed = (now - ts) / 1000.0
         tokens = math.min(capacity, tokens + elapsed * refillPerSec)
-        if tokens >= 1 then
-          tokens = tokens - 1
+        if tokens >= cost then
+          tokens = tokens - cost
           redis.call('SET', k, tostring(tokens))
           redis.call('SET', kts, tostring(now))
           return {1, 0}
         else
-          local retryAfter = math.ceil((1 - tokens) / refillPerSec)
+          local retryAfter = math.ceil((math.min(cost, capacity) - tokens) / refillPerSec)
           if retryAfter < 1 then retryAfter = 1 end
           return {0, retryAfter}
         end
@@ -45,17 +46,19 @@ public class RedisTokenBucketRateLimiter implements RateLimiter {
     }
 
     /**
-     * Try to consume one token. Returns allowed + retry-after seconds if rejected.
+     * Try to consume {@code tokens} tokens. Returns allowed + retry-after seconds if rejected.
      */
+    @Override
     @SuppressWarnings("unchecked")
-    public TokenBucketResult tryConsume(String key, int capacity, double refillPerSecond) {
+    public TokenBucketResult tryConsume(String key, int capacity, double refillPerSecond, int tokens) {
         long now = System.currentTimeMillis();
         List<Long> result = redis.execute(
                 script,
                 List.of(key),
                 String.valueOf(capacity),
                 String.valueOf(refillPerSecond),
-                String.valueOf(now));
+                String.valueOf(now),
+                String.valueOf(tokens));
         if (result == null || result.size() < 2) {
             return TokenBucketResult.allowed();
         }
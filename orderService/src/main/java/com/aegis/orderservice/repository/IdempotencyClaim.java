@@ -0,0 +1,25 @@
+package com.aegis.orderservice.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projection returned by {@link IdempotencyKeysRepository#claimOrGet}: the row for the key and whether
+ * this call inserted it ({@code claimed = true}) or it already existed.
+ */
+public interface IdempotencyClaim {
+
+    String getKey();
+
+    String getRequestHash();
+
+    String getStatus();
+
+    Integer getResponseCode();
+
+    String getResponseBody();
+
+    /** Day partition holding the row; pass it to {@link IdempotencyKeysRepository#complete}. */
+    LocalDate getCreatedDay();
+
+    Boolean getClaimed();
+}
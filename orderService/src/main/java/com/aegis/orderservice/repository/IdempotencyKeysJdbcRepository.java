@@ -0,0 +1,84 @@
+package com.aegis.orderservice.repository;
+
+import com.aegis.orderservice.Entity.IdempotencyKeys;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based idempotency writes for the batch create path. Claims many keys in one statement and
+ * completes them with a single JDBC batch, so a chunk of N orders costs O(1) round trips here.
+ * Completions name the claimed row's created_day, so each update touches one partition.
+ */
+@Repository
+public class IdempotencyKeysJdbcRepository {
+
+    /** claim_idempotency_keys (V8) locks the keys in hash order, so batches sharing keys cannot deadlock. */
+    private static final String CLAIM_ALL_SQL = """
+            SELECT key, created_day
+            FROM claim_idempotency_keys(CAST(? AS text[]), CAST(? AS text[]), CAST(? AS timestamp))
+            WHERE claimed
+            """;
+
+    private static final String COMPLETE_SQL = """
+            UPDATE idempotency_keys
+            SET status = ?, order_id = ?, response_code = ?, response_body = CAST(? AS jsonb), updated_at = ?
+            WHERE key = ? AND created_day = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeysJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts IN_PROGRESS rows for all keys not claimed yet (on any day). Returns the keys this call claimed
+     * with the day partition of their row; keys already present are left untouched and omitted.
+     */
+    public Map<String, LocalDate> claimAll(List<String> keys, List<String> requestHashes, Instant now) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        Timestamp ts = Timestamp.from(now);
+        Map<String, LocalDate> claimed = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(CLAIM_ALL_SQL);
+            ps.setArray(1, con.createArrayOf("text", keys.toArray()));
+            ps.setArray(2, con.createArrayOf("text", requestHashes.toArray()));
+            ps.setTimestamp(3, ts);
+            return ps;
+        }, rs -> {
+            claimed.put(rs.getString(1), rs.getObject(2, LocalDate.class));
+        });
+        return claimed;
+    }
+
+    /**
+     * Marks claimed keys COMPLETED with their stored response in one JDBC batch.
+     */
+    public void completeAll(List<Completion> completions, Instant now) {
+        if (completions.isEmpty()) {
+            return;
+        }
+        Timestamp ts = Timestamp.from(now);
+        jdbcTemplate.batchUpdate(COMPLETE_SQL, completions, completions.size(), (ps, c) -> {
+            ps.setString(1, IdempotencyKeys.STATUS_COMPLETED);
+            ps.setObject(2, c.orderId());
+            ps.setInt(3, c.responseCode());
+            ps.setString(4, c.responseBody());
+            ps.setTimestamp(5, ts);
+            ps.setString(6, c.key());
+            ps.setObject(7, c.createdDay());
+        });
+    }
+
+    public record Completion(String key, LocalDate createdDay, UUID orderId, int responseCode, String responseBody) {}
+}
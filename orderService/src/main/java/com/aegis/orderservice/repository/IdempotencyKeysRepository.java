@@ -2,6 +2,57 @@ package com.aegis.orderservice.repository;
 
 import com.aegis.orderservice.Entity.IdempotencyKeys;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
 
 public interface IdempotencyKeysRepository extends JpaRepository<IdempotencyKeys, String> {
+
+    /**
+     * Claim-or-read in one round trip through claim_idempotency_keys (V8): waits for any concurrent claimer
+     * of the key, then inserts the IN_PROGRESS row under today's created_day, otherwise returns the existing
+     * row (from whichever day it was claimed on).
+     */
+    @Query(value = """
+            SELECT key AS "key", request_hash AS "requestHash", status AS "status", response_code AS "responseCode",
+                   response_body AS "responseBody", created_day AS "createdDay", claimed AS "claimed"
+            FROM claim_idempotency_keys(ARRAY[CAST(:key AS text)], ARRAY[CAST(:requestHash AS text)],
+                                        CAST(:now AS timestamp))
+            """, nativeQuery = true)
+    Optional<IdempotencyClaim> claimOrGet(@Param("key") String key,
+                                          @Param("requestHash") String requestHash,
+                                          @Param("now") Instant now);
+
+    /** The key's row, from whichever day partition holds it. */
+    @Query(value = """
+            SELECT key AS "key", request_hash AS "requestHash", status AS "status", response_code AS "responseCode",
+                   CAST(response_body AS text) AS "responseBody", created_day AS "createdDay", FALSE AS "claimed"
+            FROM idempotency_keys
+            WHERE key = :key
+            """, nativeQuery = true)
+    Optional<IdempotencyClaim> findClaimByKey(@Param("key") String key);
+
+    /**
+     * Stores the final response for a claimed key without loading the row first. {@code createdDay} is the
+     * claim's ({@link IdempotencyClaim#getCreatedDay}), so only that day's partition is touched.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE IdempotencyKeys k
+            SET k.status = :status, k.orderId = :orderId, k.responseCode = :responseCode,
+                k.responseBody = :responseBody, k.updatedAt = :updatedAt
+            WHERE k.key = :key AND k.createdDay = :createdDay
+            """)
+    int complete(@Param("key") String key,
+                 @Param("createdDay") LocalDate createdDay,
+                 @Param("status") String status,
+                 @Param("orderId") UUID orderId,
+                 @Param("responseCode") int responseCode,
+                 @Param("responseBody") String responseBody,
+                 @Param("updatedAt") Instant updatedAt);
 }
@@ -0,0 +1,41 @@
+package com.aegis.orderservice.repository;
+
+import com.aegis.orderservice.Entity.OrderOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+
+    /**
+     * Locks the oldest unpublished rows; rows locked by another relay instance are skipped, not waited on.
+     * Only an aggregate's oldest unpublished event, by (created_at, id), is eligible: its later events wait
+     * until it is published, so no two relays (and no single batch) hold events of the same order and each
+     * order's events go out in the order they were written.
+     */
+    @Query(value = """
+            SELECT * FROM order_outbox o
+            WHERE o.published_at IS NULL
+              AND NOT EXISTS (
+                  SELECT 1 FROM order_outbox p
+                  WHERE p.aggregate_id = o.aggregate_id
+                    AND p.published_at IS NULL
+                    AND (p.created_at, p.id) < (o.created_at, o.id))
+            ORDER BY o.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OrderOutbox> claimUnpublished(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OrderOutbox o SET o.publishedAt = :publishedAt WHERE o.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    @Query("SELECT MIN(o.createdAt) FROM OrderOutbox o WHERE o.publishedAt IS NULL")
+    Instant findOldestUnpublishedCreatedAt();
+}
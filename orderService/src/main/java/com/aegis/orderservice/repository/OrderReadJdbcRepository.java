@@ -0,0 +1,237 @@
+package com.aegis.orderservice.repository;
+
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.dto.OrderItemResponse;
+import com.aegis.orderservice.dto.OrderResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-only projection of orders straight into {@link OrderResponse}/{@link OrderItemResponse}: no entities,
+ * no persistence context, no dirty-checking snapshots. Single orders and id batches come back in one
+ * LEFT JOIN; pages are one query for the orders plus one for all their items.
+ * <p>
+ * Timestamps are bound and read as UTC OffsetDateTime, the same way Hibernate maps the entities' Instant
+ * columns, so both read paths agree on every created_at comparison.
+ */
+@Repository
+public class OrderReadJdbcRepository {
+
+    private static final String ORDER_COLUMNS = "o.id, o.user_id, o.currency, o.status, o.total_amount, o.created_at, o.version";
+
+    private static final String FIND_BY_ID_SQL = """
+            SELECT %s, i.id AS item_id, i.sku, i.qty, i.unit_price, i.line_amount
+            FROM orders o
+            LEFT JOIN order_items i ON i.order_id = o.id
+            WHERE o.id = ?
+            ORDER BY i.id
+            """.formatted(ORDER_COLUMNS);
+
+    private static final String FIND_ALL_BY_IDS_SQL = """
+            SELECT %s, i.id AS item_id, i.sku, i.qty, i.unit_price, i.line_amount
+            FROM orders o
+            LEFT JOIN order_items i ON i.order_id = o.id
+            WHERE o.id = ANY(?)
+            ORDER BY o.id, i.id
+            """.formatted(ORDER_COLUMNS);
+
+    private static final String ITEMS_BY_ORDER_IDS_SQL = """
+            SELECT i.order_id, i.id AS item_id, i.sku, i.qty, i.unit_price, i.line_amount
+            FROM order_items i
+            WHERE i.order_id = ANY(?)
+            ORDER BY i.id
+            """;
+
+    /** API sort property -> column; anything else is not sortable on this path. */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "o.created_at",
+            "updatedAt", "o.updated_at",
+            "totalAmount", "o.total_amount",
+            "status", "o.status",
+            "userId", "o.user_id",
+            "currency", "o.currency",
+            "id", "o.id");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderReadJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static boolean isSortable(String sortProperty) {
+        return SORT_COLUMNS.containsKey(sortProperty);
+    }
+
+    public Optional<OrderResponse> findById(UUID orderId) {
+        Map<UUID, OrderResponse> rows = jdbcTemplate.query(FIND_BY_ID_SQL, ordersWithItems(), orderId);
+        return rows == null ? Optional.empty() : rows.values().stream().findFirst();
+    }
+
+    /**
+     * Orders (with items) for the ids that exist, keyed by id; missing ids are simply absent.
+     */
+    public Map<UUID, OrderResponse> findAllByIds(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, OrderResponse> rows = jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(FIND_ALL_BY_IDS_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", orderIds.toArray()));
+            return ps;
+        }, ordersWithItems());
+        return rows == null ? Map.of() : rows;
+    }
+
+    /**
+     * One offset page ordered by {@code sortProperty} (see {@link #isSortable}) with id as tie-breaker.
+     */
+    public List<OrderResponse> findPage(String userId, OrderStatus status, String sortProperty, boolean sortDesc,
+                                        long offset, int limit) {
+        String column = SORT_COLUMNS.get(sortProperty);
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort property: " + sortProperty);
+        }
+        String direction = sortDesc ? "DESC" : "ASC";
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(ORDER_COLUMNS).append(" FROM orders o");
+        appendFilter(sql, args, userId, status);
+        sql.append(" ORDER BY ").append(column).append(' ').append(direction);
+        if (!"o.id".equals(column)) {
+            sql.append(", o.id ").append(direction);
+        }
+        sql.append(" LIMIT ? OFFSET ?");
+        args.add(limit);
+        args.add(offset);
+        return withItems(jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapOrder(rs), args.toArray()));
+    }
+
+    /**
+     * Up to {@code limit} orders strictly after (createdAt, id) in created_at order; {@code afterCreatedAt}
+     * null means from the start. Same predicate shape as {@link OrderSpecs#seekAfter}.
+     */
+    public List<OrderResponse> findAfter(String userId, OrderStatus status, Instant afterCreatedAt, UUID afterId,
+                                         boolean desc, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(ORDER_COLUMNS).append(" FROM orders o");
+        appendFilter(sql, args, userId, status);
+        if (afterCreatedAt != null) {
+            String op = desc ? "<" : ">";
+            OffsetDateTime createdAt = utc(afterCreatedAt);
+            sql.append(args.isEmpty() ? " WHERE " : " AND ")
+                    .append("o.created_at ").append(op).append("= ? AND (o.created_at ").append(op)
+                    .append(" ? OR o.id ").append(op).append(" ?)");
+            args.add(createdAt);
+            args.add(createdAt);
+            args.add(afterId);
+        }
+        String direction = desc ? "DESC" : "ASC";
+        sql.append(" ORDER BY o.created_at ").append(direction).append(", o.id ").append(direction).append(" LIMIT ?");
+        args.add(limit);
+        return withItems(jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapOrder(rs), args.toArray()));
+    }
+
+    public long count(String userId, OrderStatus status) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM orders o");
+        appendFilter(sql, args, userId, status);
+        Long count = jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+        return count == null ? 0 : count;
+    }
+
+    private static void appendFilter(StringBuilder sql, List<Object> args, String userId, OrderStatus status) {
+        List<String> predicates = new ArrayList<>(2);
+        if (userId != null && !userId.isBlank()) {
+            predicates.add("o.user_id = ?");
+            args.add(userId.trim());
+        }
+        if (status != null) {
+            predicates.add("o.status = ?");
+            args.add(status.name());
+        }
+        if (!predicates.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+    }
+
+    /** Fills in items for a page of item-less orders with one ANY(?) query. */
+    private List<OrderResponse> withItems(List<OrderResponse> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<UUID, OrderResponse> byId = new HashMap<>();
+        for (OrderResponse o : orders) {
+            byId.put(o.getOrderId(), o);
+        }
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(ITEMS_BY_ORDER_IDS_SQL);
+            Array ids = con.createArrayOf("uuid", byId.keySet().toArray());
+            ps.setArray(1, ids);
+            return ps;
+        }, (RowCallbackHandler) rs -> byId.get(rs.getObject("order_id", UUID.class)).getItems().add(mapItem(rs)));
+        return orders;
+    }
+
+    private static ResultSetExtractor<Map<UUID, OrderResponse>> ordersWithItems() {
+        return rs -> {
+            Map<UUID, OrderResponse> orders = new LinkedHashMap<>();
+            while (rs.next()) {
+                UUID id = rs.getObject("id", UUID.class);
+                OrderResponse order = orders.get(id);
+                if (order == null) {
+                    order = mapOrder(rs);
+                    orders.put(id, order);
+                }
+                rs.getLong("item_id");
+                if (!rs.wasNull()) {
+                    order.getItems().add(mapItem(rs));
+                }
+            }
+            return orders;
+        };
+    }
+
+    private static OrderResponse mapOrder(ResultSet rs) throws SQLException {
+        OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
+        return OrderResponse.builder()
+                .orderId(rs.getObject("id", UUID.class))
+                .userId(rs.getString("user_id"))
+                .currency(rs.getString("currency"))
+                .status(OrderStatus.valueOf(rs.getString("status")))
+                .totalAmount(rs.getBigDecimal("total_amount"))
+                .createdAt(createdAt == null ? null : createdAt.toInstant())
+                .version(rs.getObject("version", Long.class))
+                .items(new ArrayList<>())
+                .build();
+    }
+
+    private static OrderItemResponse mapItem(ResultSet rs) throws SQLException {
+        return OrderItemResponse.builder()
+                .id(rs.getLong("item_id"))
+                .sku(rs.getString("sku"))
+                .qty(rs.getInt("qty"))
+                .unitPrice(rs.getBigDecimal("unit_price"))
+                .lineAmount(rs.getBigDecimal("line_amount"))
+                .build();
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
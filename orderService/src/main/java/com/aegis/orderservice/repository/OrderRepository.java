@@ -1,16 +1,62 @@
 package com.aegis.orderservice.repository;
 
+import com.aegis.orderservice.Entity.OrderItems;
 import com.aegis.orderservice.Entity.Orders;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface OrderRepository extends JpaRepository<Orders, UUID>, JpaSpecificationExecutor<Orders> {
 
-    @Query("SELECT o FROM Orders o LEFT JOIN FETCH o.items WHERE o.id = :id")
+    @Query("SELECT o FROM Orders o LEFT JOIN FETCH o.items i WHERE o.id = :id ORDER BY i.id")
     Optional<Orders> findByIdWithItems(@Param("id") UUID id);
+
+    /** One query for many orders with their items; ids that do not exist are simply absent. */
+    @Query("SELECT o FROM Orders o LEFT JOIN FETCH o.items i WHERE o.id IN :ids ORDER BY o.id, i.id")
+    List<Orders> findAllByIdWithItems(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Items of a page of orders in one query (listing read path), instead of one lazy load per order.
+     * {@code i.order.id} reads the FK column, so the orders are not joined or re-selected.
+     */
+    @Query("SELECT i FROM OrderItems i WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItems> findItemsByOrderIds(@Param("orderIds") Collection<UUID> orderIds);
+
+    /**
+     * Claims orders whose saga stalled (no transition or heartbeat since {@code cutoff}) by touching
+     * updated_at, so concurrent sweepers skip them for another interval. Rows locked elsewhere are skipped,
+     * not waited on. The version bump makes a transaction of a presumed-dead run that read the row before
+     * the claim fail its optimistic lock; callers invalidate cached copies with the returned version.
+     */
+    @Query(value = """
+            UPDATE orders SET updated_at = :now, version = version + 1
+            WHERE id IN (
+                SELECT id FROM orders
+                WHERE status IN ('PENDING', 'RESERVED', 'PAYMENT_AUTHORIZED') AND updated_at < :cutoff
+                ORDER BY updated_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id AS "id", user_id AS "userId", version AS "version"
+            """, nativeQuery = true)
+    List<StalledSagaClaim> claimStalledSagas(@Param("cutoff") Instant cutoff, @Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Saga lease heartbeat: keeps updated_at of orders whose saga runs on this instance inside the
+     * stalled-after window, so no sweeper claims them while a step is still in progress. Leaves the version
+     * alone, so the running saga's own transitions never fail on it.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE orders SET updated_at = :now
+            WHERE id IN (:ids) AND status IN ('PENDING', 'RESERVED', 'PAYMENT_AUTHORIZED')
+            """, nativeQuery = true)
+    int touchRunningSagas(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
 }
@@ -2,8 +2,12 @@ package com.aegis.orderservice.repository;
 
 import com.aegis.orderservice.Entity.OrderStatus;
 import com.aegis.orderservice.Entity.Orders;
+import jakarta.persistence.criteria.Path;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Instant;
+import java.util.UUID;
+
 public final class OrderSpecs {
 
     private OrderSpecs() {}
@@ -21,4 +25,20 @@ public final class OrderSpecs {
         }
         return (root, query, cb) -> cb.equal(root.get("status"), status);
     }
+
+    /**
+     * Rows strictly after (createdAt, id) in the listing order. The redundant bound on created_at alone lets
+     * idx_orders_user_created / idx_orders_status_created range-scan instead of filtering the OR.
+     */
+    public static Specification<Orders> seekAfter(Instant createdAt, UUID id, boolean desc) {
+        return (root, query, cb) -> {
+            Path<Instant> created = root.get("createdAt");
+            Path<UUID> orderId = root.get("id");
+            return desc
+                    ? cb.and(cb.lessThanOrEqualTo(created, createdAt),
+                            cb.or(cb.lessThan(created, createdAt), cb.lessThan(orderId, id)))
+                    : cb.and(cb.greaterThanOrEqualTo(created, createdAt),
+                            cb.or(cb.greaterThan(created, createdAt), cb.greaterThan(orderId, id)));
+        };
+    }
 }
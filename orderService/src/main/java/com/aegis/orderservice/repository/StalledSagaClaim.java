@@ -0,0 +1,16 @@
+package com.aegis.orderservice.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection returned by {@link OrderRepository#claimStalledSagas}: a claimed order, its owner and the
+ * version the claim bumped it to.
+ */
+public interface StalledSagaClaim {
+
+    UUID getId();
+
+    String getUserId();
+
+    Long getVersion();
+}
@@ -0,0 +1,359 @@
+package com.aegis.orderservice.saga;
+
+import com.aegis.orderservice.Entity.OrderItems;
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.Entity.Orders;
+import com.aegis.orderservice.client.InventoryClient;
+import com.aegis.orderservice.client.PaymentClient;
+import com.aegis.orderservice.config.ExecutorFactory;
+import com.aegis.orderservice.metrics.OrderMetrics;
+import com.aegis.orderservice.outbox.OutboxWriter;
+import com.aegis.orderservice.repository.OrderRepository;
+import com.aegis.orderservice.repository.StalledSagaClaim;
+import com.aegis.orderservice.services.OrderCacheService;
+import com.aegis.orderservice.services.OrderListCacheService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Drives orders PENDING -> RESERVED -> PAYMENT_AUTHORIZED -> CONFIRMED off the request thread.
+ * Each step is a dependency call followed by a short transaction that moves the order from the expected
+ * status (optimistic lock on {@code version}) and appends an OrderStatusChanged outbox event. A failed
+ * reservation fails the order; a failed authorization fails it and then releases the reservation
+ * (compensation). Compensation only ever follows a won transition: a run that loses one (another run moved
+ * the order first) undoes only what it obtained itself (its reservation or authorization), never the ids
+ * stored on the row, which belong to the winner.
+ * <p>
+ * Sagas start after the creating transaction commits. At most {@code max-in-flight} run at once; orders
+ * over the limit, and sagas interrupted by a crash, are picked up by {@link #resumeStalled} once they have
+ * not moved for {@code stalled-after-ms}. While a saga runs here, {@link #heartbeat} keeps its updated_at
+ * fresh (a lease), so no sweeper claims it in the middle of a slow step, and this instance never runs two
+ * sagas for one order. The order row holds the reservation/authorization ids, so a resumed saga continues
+ * from its current status. Steps run on {@code worker-threads} platform threads, or one virtual thread per
+ * step in virtual-thread mode.
+ * Enabled with app.saga.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.saga", name = "enabled", havingValue = "true")
+public class OrderSagaEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSagaEngine.class);
+    private static final int MAX_REASON_LENGTH = 255;
+
+    private final OrderRepository orderRepository;
+    private final OutboxWriter outboxWriter;
+    private final InventoryClient inventoryClient;
+    private final PaymentClient paymentClient;
+    private final Optional<OrderMetrics> orderMetrics;
+    private final Optional<OrderCacheService> orderCache;
+    private final Optional<OrderListCacheService> orderListCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Set<UUID> running = ConcurrentHashMap.newKeySet();
+    private final int releaseAttempts;
+    private final Duration stalledAfter;
+    private final int sweepBatchSize;
+
+    public OrderSagaEngine(OrderRepository orderRepository,
+                           OutboxWriter outboxWriter,
+                           InventoryClient inventoryClient,
+                           PaymentClient paymentClient,
+                           @Autowired(required = false) OrderMetrics orderMetrics,
+                           @Autowired(required = false) OrderCacheService orderCache,
+                           @Autowired(required = false) OrderListCacheService orderListCache,
+                           PlatformTransactionManager transactionManager,
+                           ExecutorFactory executorFactory,
+                           @Value("${app.saga.worker-threads:32}") int workerThreads,
+                           @Value("${app.saga.max-in-flight:1000}") int maxInFlight,
+                           @Value("${app.saga.release-attempts:3}") int releaseAttempts,
+                           @Value("${app.saga.stalled-after-ms:60000}") long stalledAfterMs,
+                           @Value("${app.saga.sweep-batch-size:100}") int sweepBatchSize) {
+        this.orderRepository = orderRepository;
+        this.outboxWriter = outboxWriter;
+        this.inventoryClient = inventoryClient;
+        this.paymentClient = paymentClient;
+        this.orderMetrics = Optional.ofNullable(orderMetrics);
+        this.orderCache = Optional.ofNullable(orderCache);
+        this.orderListCache = Optional.ofNullable(orderListCache);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executorFactory.newWorkerExecutor("order-saga", workerThreads);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(this.maxInFlight);
+        this.releaseAttempts = Math.max(1, releaseAttempts);
+        this.stalledAfter = Duration.ofMillis(Math.max(1, stalledAfterMs));
+        this.sweepBatchSize = Math.max(1, sweepBatchSize);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrdersCreated(OrdersCreatedEvent event) {
+        event.orderIds().forEach(this::start);
+    }
+
+    /**
+     * Starts (or resumes) the saga for an order. Completes with the status the saga stopped in; completes
+     * with null when the in-flight limit is reached (the sweeper retries it later) or the order's saga is
+     * already running on this instance.
+     */
+    public CompletableFuture<OrderStatus> start(UUID orderId) {
+        if (!running.add(orderId)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!inFlight.tryAcquire()) {
+            running.remove(orderId);
+            orderMetrics.ifPresent(OrderMetrics::recordSagaDeferred);
+            return CompletableFuture.completedFuture(null);
+        }
+        long startNanos = System.nanoTime();
+        orderMetrics.ifPresent(m -> m.setSagasInFlight(inFlightCount()));
+        CompletableFuture<OrderStatus> saga;
+        try {
+            saga = CompletableFuture.supplyAsync(() -> load(orderId), executor).thenCompose(this::advance);
+        } catch (RuntimeException e) {
+            // Executor rejected the task (shutting down)
+            inFlight.release();
+            running.remove(orderId);
+            return CompletableFuture.failedFuture(e);
+        }
+        return saga.whenComplete((status, err) -> {
+            inFlight.release();
+            running.remove(orderId);
+            orderMetrics.ifPresent(m -> m.setSagasInFlight(inFlightCount()));
+            if (err != null) {
+                log.warn("Saga stopped for order {}; it will be resumed by the sweeper", orderId, unwrap(err));
+                return;
+            }
+            orderMetrics.ifPresent(m -> m.recordSagaFinished(status, System.nanoTime() - startNanos));
+        });
+    }
+
+    /**
+     * Resumes sagas that have not moved for {@code stalled-after-ms}: deferred by the in-flight limit or
+     * interrupted by a restart. Safe on several instances (claims with FOR UPDATE SKIP LOCKED).
+     */
+    @Scheduled(initialDelayString = "${app.saga.sweep-initial-delay-ms:10000}",
+            fixedDelayString = "${app.saga.sweep-interval-ms:10000}")
+    public void resumeStalled() {
+        int capacity = Math.min(sweepBatchSize, inFlight.availablePermits());
+        if (capacity == 0) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<StalledSagaClaim> claims = transactionTemplate.execute(status ->
+                orderRepository.claimStalledSagas(now.minus(stalledAfter), now, capacity));
+        if (claims != null && !claims.isEmpty()) {
+            log.info("Resuming {} stalled order sagas", claims.size());
+            // The claim bumped each version; cached copies and ETags must not keep the old one
+            claims.forEach(c -> evictCached(c.getId(), c.getUserId(), c.getVersion()));
+            claims.forEach(c -> start(c.getId()));
+        }
+    }
+
+    /**
+     * Renews the lease of every saga running here by touching updated_at. Must run well within
+     * {@code stalled-after-ms}; if it fails for that long, another instance may resume the sagas, and the
+     * status transitions decide which run wins.
+     */
+    @Scheduled(initialDelayString = "${app.saga.heartbeat-interval-ms:15000}",
+            fixedDelayString = "${app.saga.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        if (running.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(running);
+        try {
+            transactionTemplate.executeWithoutResult(status -> orderRepository.touchRunningSagas(ids, Instant.now()));
+        } catch (RuntimeException e) {
+            log.warn("Saga heartbeat failed for {} orders", ids.size(), e);
+        }
+    }
+
+    private CompletableFuture<OrderStatus> advance(SagaOrder order) {
+        return switch (order.status()) {
+            case PENDING -> CompletableFuture
+                    .supplyAsync(() -> inventoryClient.reserve(order.items()), executor)
+                    .handle((reservationId, err) -> err == null
+                            ? reserved(order, reservationId)
+                            : transition(order.id(), OrderStatus.PENDING, OrderStatus.FAILED,
+                            "Inventory reservation failed: " + unwrap(err).getMessage(), o -> {}))
+                    .thenCompose(this::advance);
+            case RESERVED -> CompletableFuture
+                    .supplyAsync(() -> paymentClient.authorize(order.id().toString(), order.totalAmount(), order.currency()), executor)
+                    .handle((authorizationId, err) -> err == null
+                            ? authorized(order, authorizationId)
+                            : compensate(order, "Payment authorization failed: " + unwrap(err).getMessage()))
+                    .thenCompose(this::advance);
+            case PAYMENT_AUTHORIZED -> CompletableFuture
+                    .supplyAsync(() -> transition(order.id(), OrderStatus.PAYMENT_AUTHORIZED, OrderStatus.CONFIRMED, null, o -> {}), executor)
+                    .thenCompose(this::advance);
+            default -> CompletableFuture.completedFuture(order.status());
+        };
+    }
+
+    private SagaOrder reserved(SagaOrder order, String reservationId) {
+        try {
+            return transition(order.id(), OrderStatus.PENDING, OrderStatus.RESERVED, null,
+                    o -> o.setReservationId(reservationId));
+        } catch (RuntimeException e) {
+            // Another saga run moved the order first; do not leak our reservation
+            releaseWithRetry(reservationId);
+            throw e;
+        }
+    }
+
+    private SagaOrder authorized(SagaOrder order, String authorizationId) {
+        try {
+            return transition(order.id(), OrderStatus.RESERVED, OrderStatus.PAYMENT_AUTHORIZED, null,
+                    o -> o.setPaymentAuthorizationId(authorizationId));
+        } catch (RuntimeException e) {
+            // Another saga run moved the order first; our authorization will never be captured
+            voidWithRetry(authorizationId);
+            throw e;
+        }
+    }
+
+    /**
+     * Fails the order, then releases the reservation stored on it. Losing the transition throws before
+     * anything is released: the order has moved on and its reservation is still in use. If every release
+     * attempt fails the order stays failed, keeps its reservation_id for manual cleanup, and the failure is
+     * counted.
+     */
+    private SagaOrder compensate(SagaOrder order, String reason) {
+        SagaOrder failed = transition(order.id(), OrderStatus.RESERVED, OrderStatus.FAILED, reason, o -> {});
+        if (failed.reservationId() != null) {
+            releaseWithRetry(failed.reservationId());
+        }
+        return failed;
+    }
+
+    private boolean releaseWithRetry(String reservationId) {
+        return withRetry("release reservation", reservationId, inventoryClient::release);
+    }
+
+    private boolean voidWithRetry(String authorizationId) {
+        return withRetry("void authorization", authorizationId, paymentClient::voidAuthorization);
+    }
+
+    private boolean withRetry(String action, String id, Consumer<String> call) {
+        for (int attempt = 1; attempt <= releaseAttempts; attempt++) {
+            try {
+                call.accept(id);
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("Failed to {} {} (attempt {}/{})", action, id, attempt, releaseAttempts, e);
+            }
+        }
+        orderMetrics.ifPresent(OrderMetrics::recordSagaCompensationFailed);
+        log.error("Giving up trying to {} {}; needs manual cleanup", action, id);
+        return false;
+    }
+
+    /**
+     * Moves the order from {@code from} to {@code to} in one transaction and records the status change in
+     * the outbox. Throws if the order is no longer in {@code from} or was updated concurrently.
+     */
+    private SagaOrder transition(UUID orderId, OrderStatus from, OrderStatus to, String reason, Consumer<Orders> mutate) {
+        SagaOrder moved = transactionTemplate.execute(status -> {
+            Orders order = orderRepository.findByIdWithItems(orderId)
+                    .orElseThrow(() -> new IllegalStateException("Order not found: " + orderId));
+            if (order.getStatus() != from) {
+                throw new ObjectOptimisticLockingFailureException(Orders.class, orderId);
+            }
+            mutate.accept(order);
+            order.setStatus(to);
+            order.setUpdatedAt(Instant.now());
+            if (reason != null) {
+                order.setFailureReason(reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason);
+            }
+            orderRepository.saveAndFlush(order);
+            outboxWriter.statusChanged(orderId, from, to, reason);
+            return SagaOrder.of(order);
+        });
+        // Committed: drop the cached copy (written through at create with the old status) and the owner's list pages
+        evictCached(orderId, moved.userId(), moved.version());
+        return moved;
+    }
+
+    /**
+     * Drops the cached order after a committed write, leaving {@code version} (when known) as a floor for
+     * replica fills, and the owner's cached list pages. Failures are logged; entries expire anyway.
+     */
+    private void evictCached(UUID orderId, String userId, Long version) {
+        orderCache.ifPresent(cache -> {
+            try {
+                if (version != null) {
+                    cache.invalidate(orderId, version);
+                } else {
+                    cache.invalidate(orderId);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to invalidate cached order {}", orderId, e);
+            }
+        });
+        orderListCache.ifPresent(cache -> {
+            try {
+                cache.invalidateUser(userId);
+            } catch (Exception e) {
+                log.warn("Failed to invalidate cached order lists of order {}", orderId, e);
+            }
+        });
+    }
+
+    private SagaOrder load(UUID orderId) {
+        return transactionTemplate.execute(status -> orderRepository.findByIdWithItems(orderId)
+                .map(SagaOrder::of)
+                .orElseThrow(() -> new IllegalStateException("Order not found: " + orderId)));
+    }
+
+    private int inFlightCount() {
+        return Math.max(0, maxInFlight - inFlight.availablePermits());
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Detached view of the order, safe to pass between threads. */
+    record SagaOrder(UUID id, String userId, OrderStatus status, BigDecimal totalAmount, String currency,
+                     List<InventoryClient.SkuQty> items, String reservationId, Long version) {
+
+        static SagaOrder of(Orders o) {
+            List<InventoryClient.SkuQty> items = o.getItems().stream()
+                    .map((OrderItems i) -> new InventoryClient.SkuQty(i.getSku(), i.getQty()))
+                    .toList();
+            return new SagaOrder(o.getId(), o.getUserId(), o.getStatus(), o.getTotalAmount(), o.getCurrency(), items,
+                    o.getReservationId(), o.getVersion());
+        }
+    }
+}
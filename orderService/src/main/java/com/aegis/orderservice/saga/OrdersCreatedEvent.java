@@ -0,0 +1,11 @@
+package com.aegis.orderservice.saga;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published inside the creating transaction; listeners that need the rows to be visible use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)}. {@code userIds} are the distinct owners.
+ */
+public record OrdersCreatedEvent(List<UUID> orderIds, Set<String> userIds) {}
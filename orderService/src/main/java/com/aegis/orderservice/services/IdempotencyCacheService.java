@@ -0,0 +1,154 @@
+package com.aegis.orderservice.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis tier in front of idempotency_keys (which stays the system of record).
+ * Completed: idem:done:{key} -> "{requestHash}|{responseCode}|{responseBody}", TTL completed-ttl.
+ * In progress: idem:inflight:{key} -> "{requestHash}|{owner token}", SET NX with a short TTL (the lease) so a
+ * crashed owner expires; live owners renew it via {@link #startHeartbeat}. The hash lets a different request
+ * reusing an in-flight key be rejected as a conflict without waiting for the owner. Releases are published on {@link #RELEASED_CHANNEL}.
+ */
+@Service
+@ConditionalOnBean(org.springframework.data.redis.connection.RedisConnectionFactory.class)
+@ConditionalOnProperty(prefix = "app.idempotency.redis", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyCacheService.class);
+    private static final String DONE_PREFIX = "idem:done:";
+    private static final String INFLIGHT_PREFIX = "idem:inflight:";
+    public static final String RELEASED_CHANNEL = "idem:released";
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """;
+    private static final String RENEW_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """;
+
+    private final StringRedisTemplate redis;
+    private final Duration completedTtl;
+    private final Duration inProgressTtl;
+    private final DefaultRedisScript<Long> releaseScript;
+    private final DefaultRedisScript<Long> renewScript;
+    private final ScheduledExecutorService heartbeats;
+
+    public IdempotencyCacheService(StringRedisTemplate redis,
+                                   @Value("${app.idempotency.redis.completed-ttl-seconds:86400}") long completedTtlSeconds,
+                                   @Value("${app.idempotency.redis.in-progress-ttl-ms:30000}") long inProgressTtlMs) {
+        this.redis = redis;
+        this.completedTtl = Duration.ofSeconds(completedTtlSeconds);
+        this.inProgressTtl = Duration.ofMillis(inProgressTtlMs);
+        this.releaseScript = new DefaultRedisScript<>(RELEASE_SCRIPT, Long.class);
+        this.renewScript = new DefaultRedisScript<>(RENEW_SCRIPT, Long.class);
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "idempotency-lease-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Stored response for a completed key, if cached. Caller must still compare the request hash.
+     */
+    public Optional<StoredResponse> getCompleted(String key) {
+        String raw = redis.opsForValue().get(DONE_PREFIX + key);
+        if (raw == null) {
+            return Optional.empty();
+        }
+        int first = raw.indexOf('|');
+        int second = first < 0 ? -1 : raw.indexOf('|', first + 1);
+        if (second < 0) {
+            log.warn("Ignoring malformed cached idempotency entry: key={}", key);
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new StoredResponse(
+                    raw.substring(0, first),
+                    Integer.parseInt(raw.substring(first + 1, second)),
+                    raw.substring(second + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed cached idempotency entry: key={}", key);
+            return Optional.empty();
+        }
+    }
+
+    public void putCompleted(String key, String requestHash, int responseCode, String responseBody) {
+        redis.opsForValue().set(DONE_PREFIX + key, requestHash + "|" + responseCode + "|" + responseBody, completedTtl);
+    }
+
+    /**
+     * Marks the key in progress for {@code requestHash} (SET NX PX). Returns the owner token when acquired,
+     * empty when another request already holds the marker.
+     */
+    public Optional<String> tryMarkInProgress(String key, String requestHash) {
+        String token = requestHash + "|" + UUID.randomUUID();
+        Boolean acquired = redis.opsForValue().setIfAbsent(INFLIGHT_PREFIX + key, token, inProgressTtl);
+        return Boolean.TRUE.equals(acquired) ? Optional.of(token) : Optional.empty();
+    }
+
+    /**
+     * Request hash of the in-flight owner of {@code key}; empty when the key is not in progress.
+     */
+    public Optional<String> inProgressHash(String key) {
+        String raw = redis.opsForValue().get(INFLIGHT_PREFIX + key);
+        if (raw == null) {
+            return Optional.empty();
+        }
+        int sep = raw.indexOf('|');
+        return sep < 0 ? Optional.empty() : Optional.of(raw.substring(0, sep));
+    }
+
+    /**
+     * Removes the in-progress marker only if it is still owned by {@code token}, then wakes waiters on
+     * every instance so they re-check the key.
+     */
+    public void releaseInProgress(String key, String token) {
+        redis.execute(releaseScript, List.of(INFLIGHT_PREFIX + key), token);
+        redis.convertAndSend(RELEASED_CHANNEL, key);
+    }
+
+    /**
+     * Renews the in-progress lease every third of its TTL while the owner is working. Cancel the returned
+     * future when done; if the owner dies the lease simply runs out.
+     */
+    public ScheduledFuture<?> startHeartbeat(String key, String token) {
+        long periodMs = Math.max(1, inProgressTtl.toMillis() / 3);
+        return heartbeats.scheduleAtFixedRate(() -> {
+            try {
+                redis.execute(renewScript, List.of(INFLIGHT_PREFIX + key), token, String.valueOf(inProgressTtl.toMillis()));
+            } catch (Exception e) {
+                log.warn("Failed to renew idempotency lease: key={}", key, e);
+            }
+        }, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    public record StoredResponse(String requestHash, int responseCode, String body) {}
+}
@@ -0,0 +1,50 @@
+package com.aegis.orderservice.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-JVM wake-ups for requests waiting on an idempotency key held by another request.
+ * Local owners signal on release; other instances' releases arrive via Redis pub/sub
+ * ({@link IdempotencyReleaseListener}). A signal only means "re-check the store", not success.
+ */
+@Component
+public class IdempotencyCompletionRegistry {
+
+    private final ConcurrentHashMap<String, Set<CompletableFuture<Void>>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Future completed on the next release of {@code key}. Each waiter gets its own, so one waiter giving
+     * up never unregisters the others.
+     */
+    public CompletableFuture<Void> listen(String key) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        waiters.compute(key, (k, futures) -> {
+            Set<CompletableFuture<Void>> set = futures != null ? futures : ConcurrentHashMap.newKeySet();
+            set.add(future);
+            return set;
+        });
+        return future;
+    }
+
+    public void released(String key) {
+        Set<CompletableFuture<Void>> futures = waiters.remove(key);
+        if (futures != null) {
+            futures.forEach(f -> f.complete(null));
+        }
+    }
+
+    /**
+     * Unregisters a waiter that gave up; the key's entry goes with its last waiter, so keys that are never
+     * released do not accumulate.
+     */
+    public void forget(String key, CompletableFuture<Void> future) {
+        waiters.computeIfPresent(key, (k, futures) -> {
+            futures.remove(future);
+            return futures.isEmpty() ? null : futures;
+        });
+    }
+}
@@ -0,0 +1,183 @@
+package com.aegis.orderservice.services;
+
+import com.aegis.orderservice.metrics.OrderMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Retention for the day-partitioned idempotency_keys table (V5): pre-creates partitions for the next
+ * {@code premake-days} days and drops partitions whose upper bound is older than {@code retention-days}.
+ * Dropping a partition reclaims its heap and indexes at once, with no DELETE or vacuum debt, and releases
+ * its keys (uniqueness is only checked against rows that still exist, see V8).
+ * <p>
+ * Every statement commits on its own, so no lock outlives the step that needs it: an expired partition is
+ * detached CONCURRENTLY (no ACCESS EXCLUSIVE on idempotency_keys) and the detached table is then dropped.
+ * Each statement runs under {@code lock-timeout-ms}, so the maintainer gives up and retries next run
+ * instead of queueing ahead of order creates; a detach interrupted that way is finalized on the next run.
+ * A session-level advisory lock keeps other instances out for the whole run.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.idempotency.retention", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyPartitionMaintainer.class);
+    private static final String PARENT = "idempotency_keys";
+    private static final String PARTITION_PREFIX = "idempotency_keys_p";
+    private static final String LOCK_KEY = "hashtext('idempotency_keys_retention')";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})'\\)");
+
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT c.relname, pg_get_expr(c.relpartbound, c.oid), pg_total_relation_size(c.oid), i.inhdetachpending
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = CAST(? AS regclass)
+            """;
+
+    /** Partitions detached by a run whose DROP then failed: no longer attached, so not listed above. */
+    private static final String LIST_DETACHED_SQL = """
+            SELECT c.relname
+            FROM pg_class c
+            WHERE c.relname LIKE 'idempotency\\_keys\\_p%' AND c.relkind = 'r' AND NOT c.relispartition
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Optional<OrderMetrics> orderMetrics;
+    private final int retentionDays;
+    private final int premakeDays;
+    private final long lockTimeoutMs;
+
+    public IdempotencyPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                          @Autowired(required = false) OrderMetrics orderMetrics,
+                                          @Value("${app.idempotency.retention.retention-days:7}") int retentionDays,
+                                          @Value("${app.idempotency.retention.premake-days:7}") int premakeDays,
+                                          @Value("${app.idempotency.retention.lock-timeout-ms:2000}") long lockTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderMetrics = Optional.ofNullable(orderMetrics);
+        this.retentionDays = Math.max(1, retentionDays);
+        this.premakeDays = Math.max(1, premakeDays);
+        this.lockTimeoutMs = Math.max(1, lockTimeoutMs);
+    }
+
+    @Scheduled(initialDelayString = "${app.idempotency.retention.initial-delay-ms:10000}",
+            fixedDelayString = "${app.idempotency.retention.interval-ms:3600000}")
+    public void maintain() {
+        // One pooled connection in autocommit for the run: the advisory lock is per session, and DETACH
+        // CONCURRENTLY cannot run inside a transaction block
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(true);
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(con, true));
+            try {
+                Boolean locked = session.queryForObject("SELECT pg_try_advisory_lock(" + LOCK_KEY + ")", Boolean.class);
+                if (!Boolean.TRUE.equals(locked)) {
+                    log.debug("Idempotency partition maintenance running elsewhere; skipping");
+                    return null;
+                }
+                try {
+                    session.execute("SET lock_timeout = " + lockTimeoutMs);
+                    maintain(session);
+                } finally {
+                    session.execute("RESET lock_timeout");
+                    session.queryForObject("SELECT pg_advisory_unlock(" + LOCK_KEY + ")", Boolean.class);
+                }
+            } finally {
+                con.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private void maintain(JdbcTemplate session) {
+        LocalDate today = session.queryForObject("SELECT CURRENT_DATE", LocalDate.class);
+        List<Partition> partitions = listPartitions(session);
+
+        for (int i = 0; i <= premakeDays; i++) {
+            LocalDate day = today.plusDays(i);
+            String name = PARTITION_PREFIX + SUFFIX.format(day);
+            if (partitions.stream().noneMatch(p -> p.name().equals(name))) {
+                createPartition(session, name, day);
+            }
+        }
+
+        for (String leftover : session.queryForList(LIST_DETACHED_SQL, String.class)) {
+            try {
+                session.execute("DROP TABLE IF EXISTS \"" + leftover + "\"");
+                log.info("Dropped detached idempotency partition: name={}", leftover);
+            } catch (DataAccessException e) {
+                log.warn("Could not drop detached idempotency partition {}: {}", leftover, e.getMessage());
+            }
+        }
+
+        LocalDate cutoff = today.minusDays(retentionDays);
+        int dropped = 0;
+        long bytesReclaimed = 0;
+        for (Partition p : partitions) {
+            if (p.upperBound() != null && !p.upperBound().isAfter(cutoff) && drop(session, p)) {
+                dropped++;
+                bytesReclaimed += p.bytes();
+            }
+        }
+
+        int remaining = listPartitions(session).size();
+        final int droppedCount = dropped;
+        final long reclaimed = bytesReclaimed;
+        orderMetrics.ifPresent(m -> {
+            m.setIdempotencyPartitionCount(remaining);
+            m.recordIdempotencyPartitionsDropped(droppedCount, reclaimed);
+        });
+    }
+
+    /** Detach, then drop, each in its own transaction; false (retried next run) if either step fails. */
+    private boolean drop(JdbcTemplate session, Partition p) {
+        try {
+            session.execute("ALTER TABLE " + PARENT + " DETACH PARTITION \"" + p.name() + "\""
+                    + (p.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+            session.execute("DROP TABLE IF EXISTS \"" + p.name() + "\"");
+        } catch (DataAccessException e) {
+            log.warn("Could not drop expired idempotency partition {}, retrying next run: {}", p.name(), e.getMessage());
+            return false;
+        }
+        log.info("Dropped expired idempotency partition: name={} upperBound={} bytes={}",
+                p.name(), p.upperBound(), p.bytes());
+        return true;
+    }
+
+    private void createPartition(JdbcTemplate session, String name, LocalDate day) {
+        try {
+            session.execute("CREATE TABLE IF NOT EXISTS \"" + name + "\" PARTITION OF " + PARENT
+                    + " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+        } catch (DataAccessException e) {
+            log.warn("Could not create idempotency partition {}, retrying next run: {}", name, e.getMessage());
+            return;
+        }
+        log.info("Created idempotency partition: name={}", name);
+    }
+
+    private List<Partition> listPartitions(JdbcTemplate session) {
+        return session.query(LIST_PARTITIONS_SQL, (rs, rowNum) -> {
+            Matcher m = UPPER_BOUND.matcher(rs.getString(2));
+            return new Partition(rs.getString(1), m.find() ? LocalDate.parse(m.group(1)) : null, rs.getLong(3),
+                    rs.getBoolean(4));
+        }, PARENT);
+    }
+
+    /** upperBound is exclusive; detachPending when an earlier DETACH CONCURRENTLY was interrupted. */
+    private record Partition(String name, LocalDate upperBound, long bytes, boolean detachPending) {}
+}
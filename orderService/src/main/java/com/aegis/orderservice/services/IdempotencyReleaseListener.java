@@ -0,0 +1,34 @@
+package com.aegis.orderservice.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Forwards idempotency key releases published by any instance to the local completion registry.
+ */
+@Component
+@ConditionalOnBean(org.springframework.data.redis.connection.RedisConnectionFactory.class)
+@ConditionalOnProperty(prefix = "app.idempotency.redis", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyReleaseListener implements MessageListener {
+
+    private final IdempotencyCompletionRegistry registry;
+
+    public IdempotencyReleaseListener(IdempotencyCompletionRegistry registry,
+                                      RedisMessageListenerContainer listenerContainer) {
+        this.registry = registry;
+        listenerContainer.addMessageListener(this, new ChannelTopic(IdempotencyCacheService.RELEASED_CHANNEL));
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        registry.released(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,54 @@
+package com.aegis.orderservice.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Forwards order cache messages published by any instance to the local {@link OrderCacheService}:
+ * invalidations evict the L1 copy, load notifications wake requests waiting on another instance's load.
+ */
+@Component
+@ConditionalOnBean(org.springframework.data.redis.connection.RedisConnectionFactory.class)
+public class OrderCacheListener implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderCacheListener.class);
+
+    private final OrderCacheService orderCache;
+
+    public OrderCacheListener(OrderCacheService orderCache,
+                              RedisMessageListenerContainer listenerContainer) {
+        this.orderCache = orderCache;
+        listenerContainer.addMessageListener(this, List.of(
+                new ChannelTopic(OrderCacheService.INVALIDATION_CHANNEL),
+                new ChannelTopic(OrderCacheService.LOADED_CHANNEL)));
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        UUID orderId;
+        try {
+            orderId = UUID.fromString(body);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed order cache message: channel={} body={}", channel, body);
+            return;
+        }
+        if (OrderCacheService.LOADED_CHANNEL.equals(channel)) {
+            orderCache.loaded(orderId);
+        } else {
+            orderCache.evictLocal(orderId);
+        }
+    }
+}
@@ -1,56 +1,588 @@
 package com.aegis.orderservice.services;
 
+import com.aegis.orderservice.cache.CachedOrder;
+import com.aegis.orderservice.cache.OrderCacheCodec;
 import com.aegis.orderservice.dto.OrderResponse;
 import com.aegis.orderservice.metrics.OrderMetrics;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
- * Cache-aside for single-order reads. Key: order:{orderId}. Lock: lock:order:{orderId}.
- * TTL 5–15 minutes with jitter. Stampede: short lock so one thread populates, others wait or fallback to DB.
+ * Cache-aside for single-order reads, two tiers:
+ * L1: in-process Caffeine (W-TinyLFU eviction, bounded by weight = 1 + item count, short TTL).
+ * L2: Redis. Key: order:{orderId}. Lock: lock:order:{orderId}. TTL 5–15 minutes with jitter. Values are
+ * written with the {@link OrderCacheCodec} named by app.cache.orders.codec and read with whichever codec
+ * recognises them.
+ * Next to each entry, order:ver:{orderId} holds just the order's version (same TTL), so conditional GETs
+ * ({@link #getVersion}) are answered without fetching or decoding the order.
+ * {@link #invalidate} drops both tiers locally and broadcasts the id on {@link #INVALIDATION_CHANNEL}
+ * so other instances evict their L1 copy. Given the new version, it leaves that in order:ver as a floor
+ * for {@code version-floor-seconds}.
+ * <p>
+ * Fills may come from a lagging replica, so they are conditional: the loader's result is stored only if
+ * order:ver has not changed since just before the load and the loaded version is not below it. An
+ * invalidation during the load, or a row older than the last invalidation, is returned but not cached.
+ * Stampede ({@link #getOrLoad}): concurrent misses for one order in this JVM share a single load future.
+ * That leader takes a short Redis lock so only one instance hits the DB; leaders on other instances wait
+ * for the holder's {@link #LOADED_CHANNEL} notification, re-read Redis and only then fall back to the DB.
+ * <p>
+ * Refresh-ahead (app.cache.orders.refresh-ahead.enabled): entries carry their load time (delta) and a
+ * logical expiry; Redis keeps them {@code stale-grace-seconds} longer. A hit past the logical expiry is
+ * served stale, and a hit shortly before it is refreshed early with probability rising as expiry nears
+ * (XFetch: refresh when {@code now - delta * beta * ln(rand) >= expiry}). Either way one background
+ * refresh per order runs on a small bounded executor, so hot keys never all expire at once.
  */
 @Service
 @ConditionalOnBean(org.springframework.data.redis.connection.RedisConnectionFactory.class)
 public class OrderCacheService {
 
     private static final Logger log = LoggerFactory.getLogger(OrderCacheService.class);
+    public static final String INVALIDATION_CHANNEL = "order:invalidate";
+    public static final String LOADED_CHANNEL = "order:loaded";
     private static final String KEY_PREFIX = "order:";
+    private static final String VERSION_KEY_PREFIX = "order:ver:";
     private static final String LOCK_PREFIX = "lock:order:";
     private static final long TTL_MIN_SECONDS = 5 * 60;   // 5 min
     private static final long TTL_MAX_SECONDS = 15 * 60;  // 15 min
     private static final long LOCK_PX_MS = 5_000;         // 5s lock
-    private static final long WAIT_AFTER_LOCK_MISS_MS = 200;
+
+    /** KEYS: entry, version key. ARGV: version key as read before the load ('' = absent), value, version ('' = none), ttl ms. */
+    private static final byte[] STORE_IF_UNCHANGED_SCRIPT = """
+            local cur = redis.call('GET', KEYS[2]) or ''
+            if cur ~= ARGV[1] then
+              return 0
+            end
+            if cur ~= '' and (ARGV[3] == '' or tonumber(ARGV[3]) < tonumber(cur)) then
+              return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[4])
+            if ARGV[3] ~= '' then
+              redis.call('SET', KEYS[2], ARGV[3], 'PX', ARGV[4])
+            else
+              redis.call('DEL', KEYS[2])
+            end
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+    /** KEYS: entry, version key. ARGV: value, version ('' = none), ttl ms. Never stores below the version key. */
+    private static final byte[] STORE_IF_NOT_BELOW_FLOOR_SCRIPT = """
+            local cur = redis.call('GET', KEYS[2])
+            if cur and (ARGV[2] == '' or tonumber(ARGV[2]) < tonumber(cur)) then
+              return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+            if ARGV[2] ~= '' then
+              redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            end
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+    /** KEYS: entry, version key. ARGV: new version, floor ttl ms. Never lowers a floor already in place. */
+    private static final String INVALIDATE_SCRIPT = """
+            redis.call('DEL', KEYS[1])
+            local cur = tonumber(redis.call('GET', KEYS[2]) or '')
+            if cur == nil or tonumber(ARGV[1]) > cur then
+              redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[2])
+            end
+            return 1
+            """;
 
     private final StringRedisTemplate redis;
-    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, byte[]> valueRedis;
+    private final List<OrderCacheCodec> codecs;
+    private final OrderCacheCodec writeCodec;
     private final OrderMetrics orderMetrics;
+    private final Cache<UUID, CachedOrder> local;
+    private final long remoteLoadWaitMs;
+    private final ConcurrentHashMap<UUID, CompletableFuture<Optional<OrderResponse>>> loads = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, CompletableFuture<Void>> remoteLoads = new ConcurrentHashMap<>();
+    private final boolean refreshAhead;
+    private final double beta;
+    private final long staleGraceSeconds;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Set<UUID> refreshing = ConcurrentHashMap.newKeySet();
+    private final long versionFloorMs;
+    private final DefaultRedisScript<Long> invalidateScript = new DefaultRedisScript<>(INVALIDATE_SCRIPT, Long.class);
 
-    public OrderCacheService(StringRedisTemplate redis, ObjectMapper objectMapper,
-                             @Autowired(required = false) OrderMetrics orderMetrics) {
+    public OrderCacheService(StringRedisTemplate redis, RedisTemplate<String, byte[]> valueRedis,
+                             List<OrderCacheCodec> codecs,
+                             @Value("${app.cache.orders.codec:binary}") String codecName,
+                             @Autowired(required = false) OrderMetrics orderMetrics,
+                             @Value("${app.cache.orders.l1.enabled:true}") boolean l1Enabled,
+                             @Value("${app.cache.orders.l1.max-weight:100000}") long l1MaxWeight,
+                             @Value("${app.cache.orders.l1.ttl-seconds:30}") long l1TtlSeconds,
+                             @Value("${app.cache.orders.remote-load-wait-ms:1000}") long remoteLoadWaitMs,
+                             @Value("${app.cache.orders.refresh-ahead.enabled:false}") boolean refreshAhead,
+                             @Value("${app.cache.orders.refresh-ahead.beta:1.0}") double beta,
+                             @Value("${app.cache.orders.refresh-ahead.stale-grace-seconds:60}") long staleGraceSeconds,
+                             @Value("${app.cache.orders.refresh-ahead.threads:2}") int refreshThreads,
+                             @Value("${app.cache.orders.refresh-ahead.queue-capacity:100}") int refreshQueueCapacity,
+                             @Value("${app.cache.orders.version-floor-seconds:60}") long versionFloorSeconds) {
         this.redis = redis;
-        this.objectMapper = objectMapper;
+        this.remoteLoadWaitMs = Math.max(0, remoteLoadWaitMs);
+        this.valueRedis = valueRedis;
+        this.codecs = List.copyOf(codecs);
+        this.writeCodec = codecs.stream()
+                .filter(c -> c.name().equals(codecName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown app.cache.orders.codec: " + codecName));
         this.orderMetrics = orderMetrics != null ? orderMetrics : null;
+        this.local = l1Enabled
+                ? Caffeine.newBuilder()
+                .maximumWeight(Math.max(1, l1MaxWeight))
+                .weigher((UUID id, CachedOrder c) -> 1 + (c.order().getItems() != null ? c.order().getItems().size() : 0))
+                .expireAfterWrite(Duration.ofSeconds(Math.max(1, l1TtlSeconds)))
+                .recordStats()
+                .build()
+                : null;
+        if (this.local != null && orderMetrics != null) {
+            orderMetrics.bindOrderL1Cache(local);
+        }
+        this.refreshAhead = refreshAhead;
+        this.beta = Math.max(0, beta);
+        this.staleGraceSeconds = refreshAhead ? Math.max(0, staleGraceSeconds) : 0;
+        this.refreshExecutor = refreshAhead ? newRefreshExecutor(refreshThreads, refreshQueueCapacity) : null;
+        this.versionFloorMs = TimeUnit.SECONDS.toMillis(Math.max(1, versionFloorSeconds));
     }
 
     public Optional<OrderResponse> get(UUID orderId) {
+        return lookup(orderId).map(CachedOrder::order);
+    }
+
+    /** Caches with a zero load time (never refreshed early, still served stale after expiry). */
+    public void set(UUID orderId, OrderResponse response) {
+        set(orderId, response, 0);
+    }
+
+    public void set(UUID orderId, OrderResponse response, long computeMs) {
+        long ttlSeconds = ttlWithJitter();
+        CachedOrder entry = new CachedOrder(response, computeMs,
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds));
+        byte[] value;
+        try {
+            value = writeCodec.encode(entry);
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to serialize order for cache: orderId={}", orderId, e);
+            return;
+        }
+        valueRedis.executePipelined((RedisCallback<Object>) connection -> {
+            write(connection, orderId, entry, value, ttlSeconds);
+            return null;
+        });
+        if (local != null) {
+            local.put(orderId, entry);
+        }
+    }
+
+    /**
+     * Version of the cached order, for conditional GETs: the L1 entry if there is one, else the small
+     * version key (one GET, no decode). Empty when the order is not cached or was cached without a version;
+     * callers then load the order itself. Not counted as a cache hit or miss.
+     */
+    public Optional<Long> getVersion(UUID orderId) {
+        if (local != null) {
+            CachedOrder hit = local.getIfPresent(orderId);
+            if (hit != null && hit.order().getVersion() != null) {
+                return Optional.of(hit.order().getVersion());
+            }
+        }
+        String raw = redis.opsForValue().get(VERSION_KEY_PREFIX + orderId);
+        if (raw == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(raw));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed cached order version: orderId={}", orderId);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Cached orders among {@code orderIds}: L1 first, then a single MGET for the rest. Ids not cached are
+     * absent from the result. No refresh-ahead here: entries inside the stale grace period are returned as-is.
+     */
+    public Map<UUID, OrderResponse> getAll(Collection<UUID> orderIds) {
+        Map<UUID, OrderResponse> found = new HashMap<>();
+        List<UUID> remaining = new ArrayList<>();
+        for (UUID orderId : orderIds) {
+            CachedOrder hit = local != null ? local.getIfPresent(orderId) : null;
+            if (hit != null) {
+                found.put(orderId, hit.order());
+                if (orderMetrics != null) {
+                    orderMetrics.recordCacheHit();
+                    orderMetrics.recordCacheL1Hit();
+                }
+            } else {
+                remaining.add(orderId);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return found;
+        }
+        List<byte[]> raws = valueRedis.opsForValue().multiGet(remaining.stream().map(id -> KEY_PREFIX + id).toList());
+        for (int i = 0; i < remaining.size(); i++) {
+            UUID orderId = remaining.get(i);
+            byte[] raw = raws != null ? raws.get(i) : null;
+            Optional<CachedOrder> parsed = raw != null ? parseCachedOrder(raw) : Optional.empty();
+            if (parsed.isPresent()) {
+                found.put(orderId, parsed.get().order());
+                if (local != null) {
+                    local.put(orderId, parsed.get());
+                }
+            }
+            if (orderMetrics != null) {
+                if (parsed.isPresent()) {
+                    orderMetrics.recordCacheHit();
+                    orderMetrics.recordCacheL2Hit();
+                } else {
+                    orderMetrics.recordCacheMiss();
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Caches many orders with one pipelined round trip of SETs (each with its own jittered TTL).
+     * {@code computeMs} is the time it took to load them all, used as each entry's refresh-ahead delta.
+     */
+    public void setAll(Map<UUID, OrderResponse> responses, long computeMs) {
+        if (responses.isEmpty()) {
+            return;
+        }
+        Map<UUID, CachedOrder> entries = new HashMap<>();
+        valueRedis.executePipelined((RedisCallback<Object>) connection -> {
+            long now = System.currentTimeMillis();
+            for (Map.Entry<UUID, OrderResponse> e : responses.entrySet()) {
+                long ttlSeconds = ttlWithJitter();
+                CachedOrder entry = new CachedOrder(e.getValue(), computeMs, now + TimeUnit.SECONDS.toMillis(ttlSeconds));
+                byte[] value;
+                try {
+                    value = writeCodec.encode(entry);
+                } catch (IllegalArgumentException ex) {
+                    log.warn("Failed to serialize order for cache: orderId={}", e.getKey(), ex);
+                    continue;
+                }
+                write(connection, e.getKey(), entry, value, ttlSeconds);
+                entries.put(e.getKey(), entry);
+            }
+            return null;
+        });
+        if (local != null) {
+            local.putAll(entries);
+        }
+    }
+
+    /**
+     * Raw order:ver values for {@code orderIds} ('' when absent), to be read right before loading them and
+     * passed to {@link #setAllIfUnchanged}.
+     */
+    public Map<UUID, String> versionMarkers(List<UUID> orderIds) {
+        List<String> raws = redis.opsForValue().multiGet(orderIds.stream().map(id -> VERSION_KEY_PREFIX + id).toList());
+        Map<UUID, String> markers = new HashMap<>();
+        for (int i = 0; i < orderIds.size(); i++) {
+            String raw = raws != null && i < raws.size() ? raws.get(i) : null;
+            markers.put(orderIds.get(i), raw != null ? raw : "");
+        }
+        return markers;
+    }
+
+    /**
+     * {@link #setAll} for orders loaded from the DB (possibly a replica): each is stored only if its
+     * order:ver still holds the marker read before the load and its version is not below it. One pipelined
+     * round trip; only stored entries go to L1.
+     */
+    public void setAllIfUnchanged(Map<UUID, OrderResponse> responses, Map<UUID, String> markers, long computeMs) {
+        if (responses.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = new ArrayList<>();
+        List<CachedOrder> entries = new ArrayList<>();
+        List<Object> results = valueRedis.executePipelined((RedisCallback<Object>) connection -> {
+            long now = System.currentTimeMillis();
+            for (Map.Entry<UUID, OrderResponse> e : responses.entrySet()) {
+                long ttlSeconds = ttlWithJitter();
+                CachedOrder entry = new CachedOrder(e.getValue(), computeMs, now + TimeUnit.SECONDS.toMillis(ttlSeconds));
+                byte[] value;
+                try {
+                    value = writeCodec.encode(entry);
+                } catch (IllegalArgumentException ex) {
+                    log.warn("Failed to serialize order for cache: orderId={}", e.getKey(), ex);
+                    continue;
+                }
+                storeIfUnchanged(connection, e.getKey(), entry, value, ttlSeconds, markers.getOrDefault(e.getKey(), ""));
+                ids.add(e.getKey());
+                entries.add(entry);
+            }
+            return null;
+        });
+        if (local != null) {
+            for (int i = 0; i < ids.size(); i++) {
+                if (stored(results, i)) {
+                    local.put(ids.get(i), entries.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Write-through for a row written in the current transaction: caches {@code response} only after commit,
+     * so a rollback never leaves a phantom order in the cache. Without a transaction, caches immediately.
+     * Other after-commit work (the saga's invalidation) may already have moved order:ver past this version;
+     * the write is then skipped rather than lowering the floor. Failures are logged; the next read simply
+     * loads from the DB.
+     */
+    public void setAfterCommit(UUID orderId, OrderResponse response) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            setQuietly(orderId, response);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                setQuietly(orderId, response);
+            }
+        });
+    }
+
+    /** The entry and its version key, with the same TTL so neither outlives the other. */
+    private void write(RedisConnection connection, UUID orderId, CachedOrder entry, byte[] value, long ttlSeconds) {
+        Expiration expiration = Expiration.seconds(ttlSeconds + staleGraceSeconds);
+        connection.stringCommands().set((KEY_PREFIX + orderId).getBytes(StandardCharsets.UTF_8), value,
+                expiration, RedisStringCommands.SetOption.upsert());
+        Long version = entry.order().getVersion();
+        if (version != null) {
+            connection.stringCommands().set((VERSION_KEY_PREFIX + orderId).getBytes(StandardCharsets.UTF_8),
+                    version.toString().getBytes(StandardCharsets.UTF_8), expiration, RedisStringCommands.SetOption.upsert());
+        } else {
+            connection.keyCommands().del((VERSION_KEY_PREFIX + orderId).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void storeIfUnchanged(RedisConnection connection, UUID orderId, CachedOrder entry, byte[] value,
+                                  long ttlSeconds, String marker) {
+        Long version = entry.order().getVersion();
+        connection.scriptingCommands().eval(STORE_IF_UNCHANGED_SCRIPT, ReturnType.INTEGER, 2,
+                (KEY_PREFIX + orderId).getBytes(StandardCharsets.UTF_8),
+                (VERSION_KEY_PREFIX + orderId).getBytes(StandardCharsets.UTF_8),
+                marker.getBytes(StandardCharsets.UTF_8),
+                value,
+                (version != null ? version.toString() : "").getBytes(StandardCharsets.UTF_8),
+                Long.toString(TimeUnit.SECONDS.toMillis(ttlSeconds + staleGraceSeconds)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void storeIfNotBelowFloor(RedisConnection connection, UUID orderId, CachedOrder entry, byte[] value,
+                                      long ttlSeconds) {
+        Long version = entry.order().getVersion();
+        connection.scriptingCommands().eval(STORE_IF_NOT_BELOW_FLOOR_SCRIPT, ReturnType.INTEGER, 2,
+                (KEY_PREFIX + orderId).getBytes(StandardCharsets.UTF_8),
+                (VERSION_KEY_PREFIX + orderId).getBytes(StandardCharsets.UTF_8),
+                value,
+                (version != null ? version.toString() : "").getBytes(StandardCharsets.UTF_8),
+                Long.toString(TimeUnit.SECONDS.toMillis(ttlSeconds + staleGraceSeconds)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean stored(List<Object> results, int i) {
+        return results != null && i < results.size() && results.get(i) instanceof Long l && l == 1L;
+    }
+
+    /** Single-order {@link #setAllIfUnchanged}; true if stored. */
+    private boolean setIfUnchanged(UUID orderId, OrderResponse response, long computeMs, String marker) {
+        long ttlSeconds = ttlWithJitter();
+        CachedOrder entry = new CachedOrder(response, computeMs,
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds));
+        byte[] value;
+        try {
+            value = writeCodec.encode(entry);
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to serialize order for cache: orderId={}", orderId, e);
+            return false;
+        }
+        List<Object> results = valueRedis.executePipelined((RedisCallback<Object>) connection -> {
+            storeIfUnchanged(connection, orderId, entry, value, ttlSeconds, marker);
+            return null;
+        });
+        if (!stored(results, 0)) {
+            return false;
+        }
+        if (local != null) {
+            local.put(orderId, entry);
+        }
+        return true;
+    }
+
+    private String versionMarker(UUID orderId) {
+        String raw = redis.opsForValue().get(VERSION_KEY_PREFIX + orderId);
+        return raw != null ? raw : "";
+    }
+
+    /** Write-through store: skipped (and kept out of L1) when order:ver already holds a newer version. */
+    private void setIfNotBelowFloor(UUID orderId, OrderResponse response) {
+        long ttlSeconds = ttlWithJitter();
+        CachedOrder entry = new CachedOrder(response, 0,
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds));
+        byte[] value;
+        try {
+            value = writeCodec.encode(entry);
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to serialize order for cache: orderId={}", orderId, e);
+            return;
+        }
+        List<Object> results = valueRedis.executePipelined((RedisCallback<Object>) connection -> {
+            storeIfNotBelowFloor(connection, orderId, entry, value, ttlSeconds);
+            return null;
+        });
+        if (stored(results, 0) && local != null) {
+            local.put(orderId, entry);
+        }
+    }
+
+    private void setQuietly(UUID orderId, OrderResponse response) {
+        try {
+            setIfNotBelowFloor(orderId, response);
+        } catch (Exception e) {
+            log.warn("Failed to write order to cache after commit: orderId={}", orderId, e);
+        }
+    }
+
+    public void invalidate(UUID orderId) {
+        evictLocal(orderId);
+        Long removed = redis.delete(List.of(KEY_PREFIX + orderId, VERSION_KEY_PREFIX + orderId));
+        if (removed != null && removed > 0) {
+            log.debug("Cache invalidated for orderId={}", orderId);
+        }
+        redis.convertAndSend(INVALIDATION_CHANNEL, orderId.toString());
+    }
+
+    /**
+     * Invalidation after a committed write that produced {@code version}: drops the entry and leaves the
+     * version in order:ver as a floor, so a fill from a replica that has not replayed the write yet is not
+     * cached. Conditional GETs keep working off the floor, which is the order's current version.
+     */
+    public void invalidate(UUID orderId, long version) {
+        evictLocal(orderId);
+        redis.execute(invalidateScript, List.of(KEY_PREFIX + orderId, VERSION_KEY_PREFIX + orderId),
+                Long.toString(version), Long.toString(versionFloorMs));
+        redis.convertAndSend(INVALIDATION_CHANNEL, orderId.toString());
+    }
+
+    /**
+     * Drops only this instance's L1 copy; called for invalidations broadcast by any instance.
+     */
+    public void evictLocal(UUID orderId) {
+        if (local != null) {
+            local.invalidate(orderId);
+        }
+    }
+
+    /**
+     * Cached order, or the result of {@code loader} (cached if present). Concurrent callers for the same
+     * order join the one in-flight load instead of each running it. With refresh-ahead, a stale or nearly
+     * expired hit is returned as-is and {@code loader} runs again in the background.
+     */
+    public Optional<OrderResponse> getOrLoad(UUID orderId, Supplier<Optional<OrderResponse>> loader) {
+        Optional<CachedOrder> cached = lookup(orderId);
+        if (cached.isPresent()) {
+            if (refreshAhead) {
+                maybeRefresh(orderId, cached.get(), loader);
+            }
+            return cached.map(CachedOrder::order);
+        }
+        CompletableFuture<Optional<OrderResponse>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<OrderResponse>> inFlight = loads.putIfAbsent(orderId, mine);
+        if (inFlight != null) {
+            if (orderMetrics != null) {
+                orderMetrics.recordCacheLoadCoalesced();
+            }
+            return join(orderId, inFlight, loader);
+        }
+        try {
+            Optional<OrderResponse> loaded = loadOnce(orderId, loader);
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(orderId, mine);
+        }
+    }
+
+    /** Wakes this instance's leaders waiting on another instance's load of {@code orderId}. */
+    public void loaded(UUID orderId) {
+        CompletableFuture<Void> f = remoteLoads.remove(orderId);
+        if (f != null) {
+            f.complete(null);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    private Optional<CachedOrder> lookup(UUID orderId) {
+        if (local != null) {
+            CachedOrder hit = local.getIfPresent(orderId);
+            if (hit != null) {
+                if (orderMetrics != null) {
+                    orderMetrics.recordCacheHit();
+                    orderMetrics.recordCacheL1Hit();
+                }
+                return Optional.of(hit);
+            }
+        }
         String key = KEY_PREFIX + orderId;
-        String raw = redis.opsForValue().get(key);
+        byte[] raw = valueRedis.opsForValue().get(key);
         if (raw != null) {
             if (orderMetrics != null) {
                 orderMetrics.recordCacheHit();
+                orderMetrics.recordCacheL2Hit();
+            }
+            Optional<CachedOrder> parsed = parseCachedOrder(raw);
+            if (local != null) {
+                parsed.ifPresent(c -> local.put(orderId, c));
             }
-            return parseOrderResponse(raw);
+            return parsed;
         }
         if (orderMetrics != null) {
             orderMetrics.recordCacheMiss();
@@ -58,50 +590,159 @@ public class OrderCacheService {
         return Optional.empty();
     }
 
-    public void set(UUID orderId, OrderResponse response) {
-        String key = KEY_PREFIX + orderId;
-        long ttlSeconds = ttlWithJitter();
-        try {
-            String json = objectMapper.writeValueAsString(response);
-            redis.opsForValue().set(key, json, Duration.ofSeconds(ttlSeconds));
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to serialize order for cache: orderId={}", orderId, e);
+    private void maybeRefresh(UUID orderId, CachedOrder cached, Supplier<Optional<OrderResponse>> loader) {
+        long now = System.currentTimeMillis();
+        if (now >= cached.expiresAtMs()) {
+            if (orderMetrics != null) {
+                orderMetrics.recordCacheStaleServed();
+            }
+            refreshAsync(orderId, loader);
+        } else if (shouldRefreshEarly(cached, now)) {
+            if (orderMetrics != null) {
+                orderMetrics.recordCacheEarlyRefresh();
+            }
+            refreshAsync(orderId, loader);
         }
     }
 
-    public void invalidate(UUID orderId) {
-        String key = KEY_PREFIX + orderId;
-        Boolean removed = redis.delete(key);
-        if (Boolean.TRUE.equals(removed)) {
-            log.debug("Cache invalidated for orderId={}", orderId);
+    private boolean shouldRefreshEarly(CachedOrder cached, long now) {
+        if (cached.computeMs() <= 0 || beta == 0) {
+            return false;
         }
+        // -ln(u) for u in (0, 1] is an Exp(1) sample: usually small, occasionally large
+        double gap = cached.computeMs() * beta * -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return now + gap >= cached.expiresAtMs();
     }
 
     /**
-     * Try to acquire lock. Returns true if lock was acquired (caller must release with releaseLock).
+     * One refresh per order per instance; across instances the load lock decides, and an instance that
+     * loses it skips the refresh since the holder will repopulate Redis.
      */
-    public boolean tryLock(UUID orderId) {
+    private void refreshAsync(UUID orderId, Supplier<Optional<OrderResponse>> loader) {
+        if (!refreshing.add(orderId)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    if (!tryLock(orderId)) {
+                        return;
+                    }
+                    try {
+                        String marker = versionMarker(orderId);
+                        long start = System.nanoTime();
+                        Optional<OrderResponse> fresh = loader.get();
+                        long computeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        if (fresh.isPresent()) {
+                            setIfUnchanged(orderId, fresh.get(), computeMs, marker);
+                        } else {
+                            invalidate(orderId);
+                        }
+                    } finally {
+                        releaseLock(orderId);
+                    }
+                } catch (Exception e) {
+                    log.warn("Background refresh failed: orderId={}", orderId, e);
+                } finally {
+                    refreshing.remove(orderId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(orderId);
+            if (orderMetrics != null) {
+                orderMetrics.recordCacheRefreshDropped();
+            }
+        }
+    }
+
+    private Optional<OrderResponse> join(UUID orderId, CompletableFuture<Optional<OrderResponse>> inFlight,
+                                         Supplier<Optional<OrderResponse>> loader) {
+        try {
+            return inFlight.get(LOCK_PX_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Coalesced order load failed or timed out, loading directly: orderId={}", orderId, e);
+        }
+        return loader.get();
+    }
+
+    private Optional<OrderResponse> loadOnce(UUID orderId, Supplier<Optional<OrderResponse>> loader) {
+        if (tryLock(orderId)) {
+            try {
+                // Double-check: another instance may have populated Redis since our miss
+                Optional<OrderResponse> cached = get(orderId);
+                if (cached.isPresent()) {
+                    return cached;
+                }
+                String marker = versionMarker(orderId);
+                long start = System.nanoTime();
+                Optional<OrderResponse> fromDb = loader.get();
+                long computeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                fromDb.ifPresent(r -> setIfUnchanged(orderId, r, computeMs, marker));
+                return fromDb;
+            } finally {
+                releaseLock(orderId);
+            }
+        }
+        CompletableFuture<Void> signal = remoteLoads.computeIfAbsent(orderId, k -> new CompletableFuture<>());
+        try {
+            // The holder may have finished between our tryLock and listening
+            Optional<OrderResponse> cached = get(orderId);
+            if (cached.isPresent()) {
+                return cached;
+            }
+            signal.get(remoteLoadWaitMs, TimeUnit.MILLISECONDS);
+            cached = get(orderId);
+            if (cached.isPresent()) {
+                return cached;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("No load notification from lock holder, loading from DB: orderId={}", orderId);
+        } finally {
+            remoteLoads.remove(orderId, signal);
+        }
+        // Holder was slow or found nothing to cache (e.g. unknown id)
+        return loader.get();
+    }
+
+    private boolean tryLock(UUID orderId) {
         String lockKey = LOCK_PREFIX + orderId;
         return Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(lockKey, "1", Duration.ofMillis(LOCK_PX_MS)));
     }
 
-    public void releaseLock(UUID orderId) {
+    /** Releases the load lock and tells waiting instances to re-read Redis. */
+    private void releaseLock(UUID orderId) {
         String lockKey = LOCK_PREFIX + orderId;
         redis.delete(lockKey);
+        redis.convertAndSend(LOADED_CHANNEL, orderId.toString());
     }
 
-    public long getWaitAfterLockMissMs() {
-        return WAIT_AFTER_LOCK_MISS_MS;
+    private Optional<CachedOrder> parseCachedOrder(byte[] raw) {
+        for (OrderCacheCodec codec : codecs) {
+            if (codec.canDecode(raw)) {
+                try {
+                    return Optional.of(codec.decode(raw));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Failed to parse cached order response (codec={})", codec.name(), e);
+                    return Optional.empty();
+                }
+            }
+        }
+        log.warn("Ignoring cached order in an unknown format");
+        return Optional.empty();
     }
 
-    private Optional<OrderResponse> parseOrderResponse(String raw) {
-        try {
-            OrderResponse r = objectMapper.readValue(raw, OrderResponse.class);
-            return Optional.of(r);
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to parse cached order response", e);
-            return Optional.empty();
-        }
+    private static ThreadPoolExecutor newRefreshExecutor(int threads, int queueCapacity) {
+        int n = Math.max(1, threads);
+        return new ThreadPoolExecutor(n, n, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                    Thread t = new Thread(r, "order-cache-refresh");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
     }
 
     private static long ttlWithJitter() {
@@ -0,0 +1,198 @@
+package com.aegis.orderservice.services;
+
+import com.aegis.orderservice.datasource.ReadRouting;
+import com.aegis.orderservice.metrics.OrderMetrics;
+import com.aegis.orderservice.saga.OrdersCreatedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Cache for per-user list pages (GET /api/v1/orders?userId=...). Key:
+ * orders:list:{userId}:{version}:{variant}, where variant encodes status, sort, page or cursor and size, and
+ * the value is the whole JSON page including its counts. Invalidation never touches the entries: any change
+ * to a user's orders INCRs orders:list:{userId}:ver, after which readers look under the new version and the
+ * old pages simply age out (TTL). A per-user sorted set (orders:list:{userId}:idx, by store time) bounds
+ * how many pages a user can hold; storing one more evicts the oldest.
+ * <p>
+ * Lookups read the version and the page in one script call. Stores are conditional on the version the
+ * page was loaded under, so a page computed before a bump is never filed under the new version. Pages are
+ * loaded like any read (from a replica when replicas are on), except for {@code primary-after-write-ms}
+ * after a bump (orders:list:{userId}:recent), when a replica may not have the change yet and the page is
+ * loaded from the primary instead. The
+ * version key's TTL is refreshed with every store, so it outlives every page filed under it: if it expires
+ * and restarts from 0, no page of the old numbering is left to be served. All keys of one user share the
+ * {userId} hash tag.
+ */
+@Service
+@ConditionalOnBean(org.springframework.data.redis.connection.RedisConnectionFactory.class)
+@ConditionalOnProperty(prefix = "app.cache.order-lists", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OrderListCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderListCacheService.class);
+    private static final String KEY_PREFIX = "orders:list:";
+
+    private static final String GET_SCRIPT = """
+            local v = redis.call('GET', KEYS[1]) or '0'
+            return {v, redis.call('GET', ARGV[1] .. v .. ':' .. ARGV[2]), redis.call('EXISTS', KEYS[2])}
+            """;
+    private static final String STORE_SCRIPT = """
+            local v = redis.call('GET', KEYS[1]) or '0'
+            if v ~= ARGV[1] then
+              return 0
+            end
+            local entry = ARGV[2] .. v .. ':' .. ARGV[3]
+            redis.call('SET', entry, ARGV[4], 'PX', ARGV[5])
+            redis.call('ZADD', KEYS[2], ARGV[7], entry)
+            redis.call('PEXPIRE', KEYS[2], ARGV[5])
+            if v ~= '0' then
+              redis.call('PEXPIRE', KEYS[1], ARGV[5])
+            end
+            local overflow = redis.call('ZCARD', KEYS[2]) - tonumber(ARGV[6])
+            if overflow > 0 then
+              local evicted = redis.call('ZPOPMIN', KEYS[2], overflow)
+              for i = 1, #evicted, 2 do
+                redis.call('DEL', evicted[i])
+              end
+            end
+            return 1
+            """;
+    private static final String BUMP_SCRIPT = """
+            local v = redis.call('INCR', KEYS[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            redis.call('SET', KEYS[2], '1', 'PX', ARGV[2])
+            return v
+            """;
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final Optional<OrderMetrics> orderMetrics;
+    private final long ttlMs;
+    private final int maxEntriesPerUser;
+    private final long primaryAfterWriteMs;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> getScript;
+    private final DefaultRedisScript<Long> storeScript;
+    private final DefaultRedisScript<Long> bumpScript;
+
+    public OrderListCacheService(StringRedisTemplate redis,
+                                 ObjectMapper objectMapper,
+                                 @Autowired(required = false) OrderMetrics orderMetrics,
+                                 @Value("${app.cache.order-lists.ttl-seconds:60}") long ttlSeconds,
+                                 @Value("${app.cache.order-lists.max-entries-per-user:20}") int maxEntriesPerUser,
+                                 @Value("${app.cache.order-lists.primary-after-write-ms:5000}") long primaryAfterWriteMs) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.orderMetrics = Optional.ofNullable(orderMetrics);
+        this.ttlMs = Math.max(1, ttlSeconds) * 1000;
+        this.maxEntriesPerUser = Math.max(1, maxEntriesPerUser);
+        this.primaryAfterWriteMs = Math.max(1, primaryAfterWriteMs);
+        this.getScript = new DefaultRedisScript<>(GET_SCRIPT, List.class);
+        this.storeScript = new DefaultRedisScript<>(STORE_SCRIPT, Long.class);
+        this.bumpScript = new DefaultRedisScript<>(BUMP_SCRIPT, Long.class);
+    }
+
+    /**
+     * Cached page for (userId, variant) under the user's current version, else the loader's page, which is
+     * then stored. Redis or JSON errors fall through to the loader. Must run before the caller's transaction
+     * has touched the database, since it may pin the load to the primary.
+     */
+    public <T> T getOrLoad(String userId, String variant, TypeReference<T> type, Supplier<T> loader) {
+        String version = "0";
+        boolean recentWrite = false;
+        try {
+            List<?> result = redis.execute(getScript, List.of(versionKey(userId), recentKey(userId)),
+                    entryPrefix(userId), variant);
+            if (result != null && !result.isEmpty()) {
+                version = String.valueOf(result.get(0));
+                recentWrite = result.size() > 2 && "1".equals(String.valueOf(result.get(2)));
+                Object cached = result.size() > 1 ? result.get(1) : null;
+                if (cached != null) {
+                    T page = objectMapper.readValue(cached.toString(), type);
+                    orderMetrics.ifPresent(OrderMetrics::recordListCacheHit);
+                    return page;
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Order list cache lookup failed, loading from DB: userId={}", userId, e);
+            return loader.get();
+        }
+        orderMetrics.ifPresent(OrderMetrics::recordListCacheMiss);
+        T page = recentWrite ? onPrimary(loader) : loader.get();
+        store(userId, version, variant, page);
+        return page;
+    }
+
+    private static <T> T onPrimary(Supplier<T> loader) {
+        try (ReadRouting.Scope ignored = ReadRouting.pinPrimary()) {
+            return loader.get();
+        }
+    }
+
+    private void store(String userId, String version, String variant, Object page) {
+        try {
+            redis.execute(storeScript, List.of(versionKey(userId), indexKey(userId)),
+                    version, entryPrefix(userId), variant, objectMapper.writeValueAsString(page),
+                    String.valueOf(ttlMs), String.valueOf(maxEntriesPerUser), String.valueOf(System.currentTimeMillis()));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize order list page: userId={}", userId, e);
+        } catch (Exception e) {
+            log.warn("Failed to cache order list page: userId={}", userId, e);
+        }
+    }
+
+    /**
+     * Makes every cached page of this user unreachable (one INCR, nothing scanned or deleted).
+     */
+    public void invalidateUser(String userId) {
+        if (userId == null || userId.isBlank()) {
+            return;
+        }
+        String user = userId.trim();
+        redis.execute(bumpScript, List.of(versionKey(user), recentKey(user)), String.valueOf(ttlMs),
+                String.valueOf(primaryAfterWriteMs));
+    }
+
+    /** New orders change their users' first pages and counts; runs once the rows are visible. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrdersCreated(OrdersCreatedEvent event) {
+        for (String userId : event.userIds()) {
+            try {
+                invalidateUser(userId);
+            } catch (Exception e) {
+                log.warn("Failed to invalidate cached order lists: userId={}", userId, e);
+            }
+        }
+    }
+
+    private static String versionKey(String userId) {
+        return KEY_PREFIX + "{" + userId + "}:ver";
+    }
+
+    private static String recentKey(String userId) {
+        return KEY_PREFIX + "{" + userId + "}:recent";
+    }
+
+    private static String indexKey(String userId) {
+        return KEY_PREFIX + "{" + userId + "}:idx";
+    }
+
+    private static String entryPrefix(String userId) {
+        return KEY_PREFIX + "{" + userId + "}:";
+    }
+}
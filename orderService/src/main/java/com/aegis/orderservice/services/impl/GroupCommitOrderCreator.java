@@ -0,0 +1,181 @@
+package com.aegis.orderservice.services.impl;
+
+import com.aegis.orderservice.concurrency.AdmissionQueue;
+import com.aegis.orderservice.dto.BatchCreateOrderEntry;
+import com.aegis.orderservice.dto.BatchCreateOrderResult;
+import com.aegis.orderservice.dto.CreateOrderRequest;
+import com.aegis.orderservice.dto.IdempotentCreateResult;
+import com.aegis.orderservice.exception.IdempotencyConflictException;
+import com.aegis.orderservice.exception.IdempotencyStillProcessingException;
+import com.aegis.orderservice.exception.ServiceOverloadedException;
+import com.aegis.orderservice.metrics.OrderMetrics;
+import com.aegis.orderservice.services.resources.IOrderService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for POST /api/v1/orders: concurrent creates are queued and flushed together through
+ * {@link IOrderService#createOrdersBatch}, so one transaction (one fsync) covers up to {@code maxBatchSize}
+ * orders collected within {@code maxDelayMs}. Each caller still blocks for, and gets, its own result;
+ * a failing entry is isolated by the batch path's per-entry retry. A caller waits at most until its request
+ * deadline or {@code maxWaitMs}, whichever comes first; every queued entry is completed, on shutdown too.
+ * Enabled with app.group-commit.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitOrderCreator {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitOrderCreator.class);
+
+    private final IOrderService ordersService;
+    private final Optional<OrderMetrics> orderMetrics;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Pending> queue;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public GroupCommitOrderCreator(IOrderService ordersService,
+                                   @Autowired(required = false) OrderMetrics orderMetrics,
+                                   @Value("${app.group-commit.max-batch-size:64}") int maxBatchSize,
+                                   @Value("${app.group-commit.max-delay-ms:5}") long maxDelayMs,
+                                   @Value("${app.group-commit.queue-capacity:1000}") int queueCapacity,
+                                   @Value("${app.group-commit.max-wait-ms:10000}") long maxWaitMs) {
+        this.ordersService = ordersService;
+        this.orderMetrics = Optional.ofNullable(orderMetrics);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxDelayMs));
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, maxWaitMs));
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.flusher = new Thread(this::runFlusher, "order-group-commit");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Enqueues the create and waits for the group it lands in to commit, at most until {@code deadlineNanos}
+     * (System.nanoTime based, or {@link AdmissionQueue#NO_DEADLINE}) or {@code maxWaitMs}. Same exceptions as
+     * {@link IOrderService#createOrderIdempotent}; 503 if the queue is full, the service is shutting down, or
+     * the wait runs out. An entry that times out before its group is taken is dropped; one already in a
+     * group may still commit, and a retry with the same key gets its replay.
+     */
+    public IdempotentCreateResult submit(String idempotencyKey, CreateOrderRequest request, long deadlineNanos) {
+        Pending pending = new Pending(new BatchCreateOrderEntry(idempotencyKey, request), new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new ServiceOverloadedException("Order group-commit queue is full; try again later");
+        }
+        if (!running && queue.remove(pending)) {
+            // shutdown() drained the queue before our offer landed; nobody else will complete this entry
+            throw shuttingDown();
+        }
+        long now = System.nanoTime();
+        long waitNanos = deadlineNanos == AdmissionQueue.NO_DEADLINE
+                ? maxWaitNanos
+                : Math.min(maxWaitNanos, deadlineNanos - now);
+        try {
+            return toIdempotentResult(pending.result().get(Math.max(0, waitNanos), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            queue.remove(pending);
+            throw new ServiceOverloadedException("Timed out waiting for the order group commit; retry with the same Idempotency-Key");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(pending);
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        }
+    }
+
+    private void runFlusher() {
+        List<Pending> group = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (group.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                flush(group);
+            } catch (InterruptedException e) {
+                // Interrupted while collecting: the group was taken off the queue but never flushed
+                group.forEach(p -> p.result().completeExceptionally(shuttingDown()));
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                group.clear();
+            }
+        }
+        failQueued();
+    }
+
+    private void flush(List<Pending> group) {
+        orderMetrics.ifPresent(m -> m.recordGroupCommitSize(group.size()));
+        try {
+            List<BatchCreateOrderResult> results = ordersService.createOrdersBatch(
+                    group.stream().map(Pending::entry).toList()).getResults();
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result().complete(results.get(i));
+            }
+        } catch (Throwable t) {
+            log.error("Group commit of {} orders failed", group.size(), t);
+            group.forEach(p -> p.result().completeExceptionally(t));
+        }
+    }
+
+    private static IdempotentCreateResult toIdempotentResult(BatchCreateOrderResult r) {
+        return switch (r.getOutcome()) {
+            case CREATED -> IdempotentCreateResult.created(r.getResponse(), r.getBody());
+            case REPLAY -> IdempotentCreateResult.replay(r.getStatus(), r.getBody());
+            case CONFLICT -> throw new IdempotencyConflictException(r.getError());
+            case IN_PROGRESS -> throw new IdempotencyStillProcessingException();
+            case FAILED -> throw new IllegalStateException(r.getError());
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        flusher.interrupt();
+        failQueued();
+    }
+
+    private void failQueued() {
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.forEach(p -> p.result().completeExceptionally(shuttingDown()));
+    }
+
+    private static ServiceOverloadedException shuttingDown() {
+        return new ServiceOverloadedException("Order service is shutting down; try again later");
+    }
+
+    private record Pending(BatchCreateOrderEntry entry, CompletableFuture<BatchCreateOrderResult> result) {}
+}
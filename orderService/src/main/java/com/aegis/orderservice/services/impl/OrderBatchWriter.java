@@ -0,0 +1,150 @@
+package com.aegis.orderservice.services.impl;
+
+import com.aegis.orderservice.Entity.IdempotencyKeys;
+import com.aegis.orderservice.Entity.Orders;
+import com.aegis.orderservice.dto.BatchCreateOrderResult;
+import com.aegis.orderservice.dto.CreateOrderRequest;
+import com.aegis.orderservice.dto.CreateOrderResponse;
+import com.aegis.orderservice.exception.IdempotencyStillProcessingException;
+import com.aegis.orderservice.metrics.OrderMetrics;
+import com.aegis.orderservice.outbox.OutboxWriter;
+import com.aegis.orderservice.saga.OrdersCreatedEvent;
+import com.aegis.orderservice.repository.IdempotencyKeysJdbcRepository;
+import com.aegis.orderservice.repository.IdempotencyKeysRepository;
+import com.aegis.orderservice.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes one chunk of idempotent creates in a single transaction:
+ * one set-based key claim, one batched insert of orders and items (Hibernate JDBC batching),
+ * one batched completion of the claimed keys, plus one OrderCreated outbox row per new order.
+ * Entries whose key already exists are resolved from the stored row (replay / conflict / in progress)
+ * without touching orders.
+ */
+@Component
+public class OrderBatchWriter {
+
+    private final OrderRepository orderRepository;
+    private final IdempotencyKeysRepository idempotencyKeysRepository;
+    private final IdempotencyKeysJdbcRepository idempotencyKeysJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final Optional<OrderMetrics> orderMetrics;
+    private final OutboxWriter outboxWriter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OrderBatchWriter(OrderRepository orderRepository,
+                            IdempotencyKeysRepository idempotencyKeysRepository,
+                            IdempotencyKeysJdbcRepository idempotencyKeysJdbcRepository,
+                            ObjectMapper objectMapper,
+                            @Autowired(required = false) OrderMetrics orderMetrics,
+                            OutboxWriter outboxWriter,
+                            ApplicationEventPublisher eventPublisher) {
+        this.orderRepository = orderRepository;
+        this.idempotencyKeysRepository = idempotencyKeysRepository;
+        this.idempotencyKeysJdbcRepository = idempotencyKeysJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.orderMetrics = Optional.ofNullable(orderMetrics);
+        this.outboxWriter = outboxWriter;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Keys must be unique within the chunk. Results are returned in entry order.
+     */
+    @Transactional
+    public List<BatchCreateOrderResult> writeChunk(List<Entry> entries) {
+        Instant now = Instant.now();
+        Map<String, LocalDate> claimed = idempotencyKeysJdbcRepository.claimAll(
+                entries.stream().map(Entry::key).toList(),
+                entries.stream().map(Entry::requestHash).toList(),
+                now);
+
+        List<String> existingKeys = entries.stream()
+                .map(Entry::key)
+                .filter(k -> !claimed.containsKey(k))
+                .toList();
+        Map<String, IdempotencyKeys> existing = existingKeys.isEmpty() ? Map.of()
+                : idempotencyKeysRepository.findAllById(existingKeys).stream()
+                .collect(Collectors.toMap(IdempotencyKeys::getKey, Function.identity()));
+
+        List<Orders> newOrders = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (claimed.containsKey(entry.key())) {
+                newOrders.add(OrdersService.newOrder(entry.request(), now));
+            }
+        }
+        orderRepository.saveAll(newOrders);
+        outboxWriter.orderCreatedAll(newOrders);
+        orderRepository.flush();
+        if (!newOrders.isEmpty()) {
+            eventPublisher.publishEvent(new OrdersCreatedEvent(newOrders.stream().map(Orders::getId).toList(),
+                    newOrders.stream().map(Orders::getUserId).collect(Collectors.toSet())));
+        }
+
+        List<BatchCreateOrderResult> results = new ArrayList<>(entries.size());
+        List<IdempotencyKeysJdbcRepository.Completion> completions = new ArrayList<>(newOrders.size());
+        int next = 0;
+        for (Entry entry : entries) {
+            if (claimed.containsKey(entry.key())) {
+                Orders saved = newOrders.get(next++);
+                CreateOrderResponse response = OrdersService.toCreateOrderResponse(saved);
+                String body = toJson(response);
+                completions.add(new IdempotencyKeysJdbcRepository.Completion(entry.key(),
+                        claimed.get(entry.key()), saved.getId(), 201, body));
+                results.add(BatchCreateOrderResult.created(entry.key(), response, body));
+            } else {
+                results.add(resolveExisting(entry, existing.get(entry.key())));
+            }
+        }
+        idempotencyKeysJdbcRepository.completeAll(completions, Instant.now());
+
+        orderMetrics.ifPresent(m -> completions.forEach(c -> m.recordOrderCreated()));
+        return results;
+    }
+
+    private BatchCreateOrderResult resolveExisting(Entry entry, IdempotencyKeys row) {
+        if (row == null) {
+            // Claimed by a concurrent transaction that has not committed yet
+            return BatchCreateOrderResult.inProgress(entry.key(), IdempotencyStillProcessingException.MESSAGE);
+        }
+        if (!row.getRequestHash().equals(entry.requestHash())) {
+            orderMetrics.ifPresent(OrderMetrics::recordIdempotencyConflict);
+            return BatchCreateOrderResult.conflict(entry.key(), "Idempotency key was used for a different request");
+        }
+        if (IdempotencyKeys.STATUS_COMPLETED.equals(row.getStatus())) {
+            orderMetrics.ifPresent(OrderMetrics::recordIdempotencyHit);
+            return BatchCreateOrderResult.replay(entry.key(),
+                    row.getResponseCode(),
+                    row.getResponseBody() != null ? row.getResponseBody() : "{}");
+        }
+        if (IdempotencyKeys.STATUS_IN_PROGRESS.equals(row.getStatus())) {
+            return BatchCreateOrderResult.inProgress(entry.key(), IdempotencyStillProcessingException.MESSAGE);
+        }
+        orderMetrics.ifPresent(OrderMetrics::recordIdempotencyConflict);
+        return BatchCreateOrderResult.conflict(entry.key(), "Invalid idempotency status: " + row.getStatus());
+    }
+
+    private String toJson(CreateOrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+    }
+
+    public record Entry(String key, CreateOrderRequest request, String requestHash) {}
+}
@@ -4,8 +4,15 @@ import com.aegis.orderservice.Entity.IdempotencyKeys;
 import com.aegis.orderservice.Entity.OrderItems;
 import com.aegis.orderservice.Entity.OrderStatus;
 import com.aegis.orderservice.Entity.Orders;
+import com.aegis.orderservice.concurrency.AdmissionQueue;
+import com.aegis.orderservice.dto.BatchCreateOrderEntry;
+import com.aegis.orderservice.dto.BatchCreateOrderResponse;
+import com.aegis.orderservice.dto.BatchCreateOrderResult;
+import com.aegis.orderservice.dto.BatchGetOrderResult;
+import com.aegis.orderservice.dto.BatchGetOrdersResponse;
 import com.aegis.orderservice.dto.CreateOrderRequest;
 import com.aegis.orderservice.dto.CreateOrderResponse;
+import com.aegis.orderservice.dto.CursorPageResponse;
 import com.aegis.orderservice.dto.IdempotentCreateResult;
 import com.aegis.orderservice.dto.OrderItemRequest;
 import com.aegis.orderservice.dto.OrderItemResponse;
@@ -13,31 +20,53 @@ import com.aegis.orderservice.dto.OrderResponse;
 import com.aegis.orderservice.dto.PageResponse;
 import com.aegis.orderservice.exception.IdempotencyConflictException;
 import com.aegis.orderservice.exception.IdempotencyStillProcessingException;
+import com.aegis.orderservice.outbox.OutboxWriter;
+import com.aegis.orderservice.saga.OrdersCreatedEvent;
+import com.aegis.orderservice.repository.IdempotencyClaim;
 import com.aegis.orderservice.repository.IdempotencyKeysRepository;
+import com.aegis.orderservice.repository.OrderReadJdbcRepository;
 import com.aegis.orderservice.repository.OrderRepository;
 import com.aegis.orderservice.metrics.OrderMetrics;
 import com.aegis.orderservice.repository.OrderSpecs;
+import com.aegis.orderservice.services.IdempotencyCacheService;
+import com.aegis.orderservice.services.IdempotencyCompletionRegistry;
 import com.aegis.orderservice.services.OrderCacheService;
+import com.aegis.orderservice.services.OrderListCacheService;
 import com.aegis.orderservice.services.resources.IOrderService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import com.aegis.orderservice.util.OrderCursor;
 import com.aegis.orderservice.util.RequestHashUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -47,182 +76,520 @@ import org.slf4j.LoggerFactory;
 public class OrdersService implements IOrderService {
 
     private static final Logger log = LoggerFactory.getLogger(OrdersService.class);
+    private static final TypeReference<PageResponse<OrderResponse>> PAGE_TYPE = new TypeReference<>() {};
+    private static final TypeReference<CursorPageResponse<OrderResponse>> CURSOR_PAGE_TYPE = new TypeReference<>() {};
 
     private final OrderRepository orderRepository;
     private final IdempotencyKeysRepository idempotencyKeysRepository;
     private final ObjectMapper objectMapper;
     private final Optional<OrderCacheService> orderCache;
+    private final Optional<OrderListCacheService> orderListCache;
     private final Optional<OrderMetrics> orderMetrics;
+    private final OrderBatchWriter orderBatchWriter;
+    private final int batchChunkSize;
+    private final Optional<IdempotencyCacheService> idempotencyCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final IdempotencyCompletionRegistry completionRegistry;
+    private final long waitForCompletionMs;
+    private final OutboxWriter outboxWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean cacheWriteThroughOnCreate;
+    private final OrderReadJdbcRepository orderReadRepository;
+    private final boolean projectionReads;
+    private final Semaphore replayLookups;
 
     public OrdersService(OrderRepository orderRepository,
                          IdempotencyKeysRepository idempotencyKeysRepository,
                          ObjectMapper objectMapper,
                          @Autowired(required = false) OrderCacheService orderCache,
-                         @Autowired(required = false) OrderMetrics orderMetrics) {
+                         @Autowired(required = false) OrderMetrics orderMetrics,
+                         OrderBatchWriter orderBatchWriter,
+                         @Value("${app.batch.chunk-size:100}") int batchChunkSize,
+                         @Autowired(required = false) IdempotencyCacheService idempotencyCache,
+                         PlatformTransactionManager transactionManager,
+                         IdempotencyCompletionRegistry completionRegistry,
+                         @Value("${app.idempotency.wait-for-completion.max-wait-ms:0}") long waitForCompletionMs,
+                         OutboxWriter outboxWriter,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${app.cache.orders.write-through-on-create:true}") boolean cacheWriteThroughOnCreate,
+                         OrderReadJdbcRepository orderReadRepository,
+                         @Value("${app.orders.read-path:projection}") String readPath,
+                         @Autowired(required = false) OrderListCacheService orderListCache,
+                         @Value("${app.idempotency.replay-lookup.max-concurrent:8}") int replayLookupMaxConcurrent) {
         this.orderRepository = orderRepository;
         this.idempotencyKeysRepository = idempotencyKeysRepository;
         this.objectMapper = objectMapper;
         this.orderCache = Optional.ofNullable(orderCache);
         this.orderMetrics = Optional.ofNullable(orderMetrics);
+        this.orderBatchWriter = orderBatchWriter;
+        this.batchChunkSize = Math.max(1, batchChunkSize);
+        this.idempotencyCache = Optional.ofNullable(idempotencyCache);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.completionRegistry = completionRegistry;
+        this.waitForCompletionMs = Math.max(0, waitForCompletionMs);
+        this.outboxWriter = outboxWriter;
+        this.eventPublisher = eventPublisher;
+        this.cacheWriteThroughOnCreate = cacheWriteThroughOnCreate;
+        this.orderReadRepository = orderReadRepository;
+        this.projectionReads = !"entity".equalsIgnoreCase(readPath);
+        this.orderListCache = Optional.ofNullable(orderListCache);
+        this.replayLookups = new Semaphore(Math.max(1, replayLookupMaxConcurrent));
     }
 
     @Override
     @Transactional
     public CreateOrderResponse createOrder(CreateOrderRequest request) {
-        Instant now = Instant.now();
-        Orders order = new Orders();
-        order.setUserId(request.getUserId());
-        order.setCurrency(request.getCurrency());
-        order.setStatus(OrderStatus.PENDING);
-        order.setCreatedAt(now);
-        order.setUpdatedAt(now);
-
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        List<OrderItems> items = new ArrayList<>();
+        Orders saved = orderRepository.save(newOrder(request, Instant.now()));
+        outboxWriter.orderCreated(saved);
+        eventPublisher.publishEvent(new OrdersCreatedEvent(List.of(saved.getId()), Set.of(saved.getUserId())));
 
-        for (OrderItemRequest itemReq : request.getItems()) {
-            BigDecimal lineAmount = itemReq.getUnitPrice().multiply(BigDecimal.valueOf(itemReq.getQty()));
-            totalAmount = totalAmount.add(lineAmount);
+        orderMetrics.ifPresent(OrderMetrics::recordOrderCreated);
 
-            OrderItems item = new OrderItems();
-            item.setOrder(order);
-            item.setSku(itemReq.getSku());
-            item.setQty(itemReq.getQty());
-            item.setUnitPrice(itemReq.getUnitPrice());
-            item.setLineAmount(lineAmount);
-            items.add(item);
+        // New id, nothing to invalidate; cache it once committed so the client's first GET is a hit
+        if (cacheWriteThroughOnCreate) {
+            orderCache.ifPresent(cache -> cache.setAfterCommit(saved.getId(), toOrderResponse(saved)));
         }
 
-        order.setTotalAmount(totalAmount);
-        order.setItems(items);
+        return toCreateOrderResponse(saved);
+    }
 
-        Orders saved = orderRepository.save(order);
+    @Override
+    public BatchCreateOrderResponse createOrdersBatch(List<BatchCreateOrderEntry> entries) {
+        BatchCreateOrderResult[] results = new BatchCreateOrderResult[entries.size()];
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+        List<Integer> duplicateIndexes = new ArrayList<>();
+        List<OrderBatchWriter.Entry> unique = new ArrayList<>();
+        List<Integer> uniqueIndexes = new ArrayList<>();
+        String[] hashes = new String[entries.size()];
 
-        orderMetrics.ifPresent(OrderMetrics::recordOrderCreated);
+        for (int i = 0; i < entries.size(); i++) {
+            BatchCreateOrderEntry e = entries.get(i);
+            String key = e.getIdempotencyKey().trim();
+            hashes[i] = RequestHashUtil.computeRequestHash(e.getOrder());
+            if (firstIndexByKey.putIfAbsent(key, i) != null) {
+                duplicateIndexes.add(i);
+                continue;
+            }
+            unique.add(new OrderBatchWriter.Entry(key, e.getOrder(), hashes[i]));
+            uniqueIndexes.add(i);
+        }
 
-        // after save
-        orderCache.ifPresent(cache -> {
-            try { cache.invalidate(saved.getId()); }
-            catch (Exception e) { log.warn("Failed to invalidate cache after create: {}", saved.getId(), e); }
+        for (int from = 0; from < unique.size(); from += batchChunkSize) {
+            List<OrderBatchWriter.Entry> chunk = unique.subList(from, Math.min(from + batchChunkSize, unique.size()));
+            List<BatchCreateOrderResult> chunkResults = writeChunkIsolated(chunk);
+            for (int j = 0; j < chunkResults.size(); j++) {
+                results[uniqueIndexes.get(from + j)] = chunkResults.get(j);
+                cacheCompleted(chunk.get(j), chunkResults.get(j));
+            }
+        }
+
+        // Repeated key inside the same batch behaves like a sequential retry of the first entry
+        for (int i : duplicateIndexes) {
+            String key = entries.get(i).getIdempotencyKey().trim();
+            int first = firstIndexByKey.get(key);
+            BatchCreateOrderResult firstResult = results[first];
+            if (!hashes[first].equals(hashes[i])) {
+                orderMetrics.ifPresent(OrderMetrics::recordIdempotencyConflict);
+                results[i] = BatchCreateOrderResult.conflict(key, "Idempotency key was used for a different request");
+            } else if (firstResult.getOutcome() == BatchCreateOrderResult.Outcome.CREATED
+                    || firstResult.getOutcome() == BatchCreateOrderResult.Outcome.REPLAY) {
+                orderMetrics.ifPresent(OrderMetrics::recordIdempotencyHit);
+                results[i] = BatchCreateOrderResult.replay(key, firstResult.getStatus(), firstResult.getBody());
+            } else {
+                results[i] = firstResult;
+            }
+        }
+        return new BatchCreateOrderResponse(List.of(results));
+    }
+
+    private void cacheCompleted(OrderBatchWriter.Entry entry, BatchCreateOrderResult result) {
+        if (result.getOutcome() != BatchCreateOrderResult.Outcome.CREATED
+                && result.getOutcome() != BatchCreateOrderResult.Outcome.REPLAY) {
+            return;
+        }
+        idempotencyCache.ifPresent(cache -> {
+            try { cache.putCompleted(entry.key(), entry.requestHash(), result.getStatus(), result.getBody()); }
+            catch (Exception e) { log.warn("Failed to cache idempotent response: key={}", entry.key(), e); }
         });
+    }
 
-        return CreateOrderResponse.builder()
-                .orderId(saved.getId())
-                .status(saved.getStatus())
-                .totalAmount(saved.getTotalAmount())
-                .createdAt(saved.getCreatedAt())
-                .build();
+    /**
+     * Writes a chunk in one transaction; if that fails, retries each entry in its own transaction
+     * so one bad entry does not fail its neighbours.
+     */
+    private List<BatchCreateOrderResult> writeChunkIsolated(List<OrderBatchWriter.Entry> chunk) {
+        try {
+            return orderBatchWriter.writeChunk(chunk);
+        } catch (Exception e) {
+            if (chunk.size() == 1) {
+                log.warn("Batch create entry failed: idempotencyKey={}", chunk.get(0).key(), e);
+                return List.of(BatchCreateOrderResult.failed(chunk.get(0).key(), e.getMessage()));
+            }
+            log.warn("Batch create chunk of {} failed, retrying entries individually", chunk.size(), e);
+            List<BatchCreateOrderResult> results = new ArrayList<>(chunk.size());
+            for (OrderBatchWriter.Entry entry : chunk) {
+                results.addAll(writeChunkIsolated(List.of(entry)));
+            }
+            return results;
+        }
     }
 
+    /**
+     * Not annotated: a replay served from the Redis tier must not open a transaction (or borrow a
+     * connection). The Postgres claim/create runs in {@link #transactionTemplate}.
+     */
     @Override
-    @Transactional
     public IdempotentCreateResult createOrderIdempotent(String idempotencyKey, CreateOrderRequest request) {
         String requestHash = RequestHashUtil.computeRequestHash(request);
-        Instant now = Instant.now();
+        if (idempotencyCache.isEmpty()) {
+            return transactionTemplate.execute(tx -> claimAndCreate(idempotencyKey, requestHash, request));
+        }
+        IdempotencyCacheService cache = idempotencyCache.get();
 
-        IdempotencyKeys newRow = new IdempotencyKeys();
-        newRow.setKey(idempotencyKey);
-        newRow.setRequestHash(requestHash);
-        newRow.setStatus(IdempotencyKeys.STATUS_IN_PROGRESS);
-        newRow.setCreatedAt(now);
-        newRow.setUpdatedAt(now);
+        Optional<IdempotentCreateResult> cached = replayFromCache(cache, idempotencyKey, requestHash);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        String markerToken = null;
+        boolean heldElsewhere = false;
+        try {
+            Optional<String> acquired = cache.tryMarkInProgress(idempotencyKey, requestHash);
+            if (acquired.isPresent()) {
+                markerToken = acquired.get();
+            } else {
+                heldElsewhere = true;
+            }
+        } catch (Exception e) {
+            log.warn("Idempotency cache unavailable, using database only: key={}", idempotencyKey, e);
+        }
+        if (heldElsewhere) {
+            // Another request holds the key; it may have finished between our two reads
+            cached = replayFromCache(cache, idempotencyKey, requestHash);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            heldElsewhere(cache, idempotencyKey, requestHash);
+            // Waiting for the owner happens in findReplay, before admission; here it would hold a create permit
+            throw new IdempotencyStillProcessingException();
+        }
 
+        ScheduledFuture<?> heartbeat = markerToken != null ? cache.startHeartbeat(idempotencyKey, markerToken) : null;
         try {
-            idempotencyKeysRepository.saveAndFlush(newRow);
-        } catch (DataIntegrityViolationException e) {
-            // Duplicate key: fetch existing and decide
-            IdempotencyKeys existing = idempotencyKeysRepository.findById(idempotencyKey).orElseThrow();
-            if (!existing.getRequestHash().equals(requestHash)) {
-                orderMetrics.ifPresent(OrderMetrics::recordIdempotencyConflict);
-                throw new IdempotencyConflictException(
-                        "Idempotency key was used for a different request");
+            IdempotentCreateResult result = transactionTemplate.execute(tx -> claimAndCreate(idempotencyKey, requestHash, request));
+            // Committed: safe to serve later retries from Redis
+            try {
+                cache.putCompleted(idempotencyKey, requestHash, result.getResponseCode(), result.getResponseBodyJson());
+            } catch (Exception e) {
+                log.warn("Failed to cache idempotent response: key={}", idempotencyKey, e);
             }
-            if (IdempotencyKeys.STATUS_COMPLETED.equals(existing.getStatus())) {
-                orderMetrics.ifPresent(OrderMetrics::recordIdempotencyHit);
-                return IdempotentCreateResult.replay(
-                        existing.getResponseCode(),
-                        existing.getResponseBody() != null ? existing.getResponseBody() : "{}");
+            return result;
+        } finally {
+            if (heartbeat != null) {
+                heartbeat.cancel(false);
+            }
+            if (markerToken != null) {
+                try { cache.releaseInProgress(idempotencyKey, markerToken); }
+                catch (Exception e) { log.warn("Failed to release idempotency marker: key={}", idempotencyKey, e); }
+                completionRegistry.released(idempotencyKey);
+            }
+        }
+    }
+
+    /**
+     * Redis tier first, then a read-only lookup of idempotency_keys; never claims or writes. At most
+     * {@code replay-lookup.max-concurrent} DB lookups run at once: they happen before admission, so without
+     * a cap a burst of retries could take the whole pool. Over the cap the lookup is skipped and the create
+     * path (which claims the key and replays just as well) takes over.
+     * <p>
+     * With wait-for-completion on, a key another request is working on is waited for here (until the
+     * owner releases, max-wait-ms or the deadline), so a duplicate never holds a create permit while idle.
+     */
+    @Override
+    public Optional<IdempotentCreateResult> findReplay(String idempotencyKey, CreateOrderRequest request,
+                                                       long deadlineNanos) {
+        String requestHash = RequestHashUtil.computeRequestHash(request);
+        if (idempotencyCache.isPresent()) {
+            IdempotencyCacheService cache = idempotencyCache.get();
+            Optional<IdempotentCreateResult> cached = replayFromCache(cache, idempotencyKey, requestHash);
+            if (cached.isPresent()) {
+                return cached;
             }
-            if (IdempotencyKeys.STATUS_IN_PROGRESS.equals(existing.getStatus())) {
+            if (waitForCompletionMs > 0 && heldElsewhere(cache, idempotencyKey, requestHash)) {
+                cached = awaitCompletion(cache, idempotencyKey, requestHash, deadlineNanos);
+                if (cached.isPresent()) {
+                    return cached;
+                }
                 throw new IdempotencyStillProcessingException();
             }
+        }
+        if (!replayLookups.tryAcquire()) {
+            orderMetrics.ifPresent(OrderMetrics::recordReplayLookupSkipped);
+            return Optional.empty();
+        }
+        Optional<IdempotencyClaim> stored;
+        try {
+            stored = readOnlyTransactionTemplate.execute(tx -> idempotencyKeysRepository.findClaimByKey(idempotencyKey));
+        } finally {
+            replayLookups.release();
+        }
+        if (stored == null || stored.isEmpty()) {
+            return Optional.empty();
+        }
+        IdempotencyClaim claim = stored.get();
+        if (!claim.getRequestHash().equals(requestHash) || IdempotencyKeys.STATUS_COMPLETED.equals(claim.getStatus())) {
+            IdempotentCreateResult replay = resolveExisting(claim, requestHash);
+            idempotencyCache.ifPresent(cache -> {
+                try { cache.putCompleted(idempotencyKey, requestHash, replay.getResponseCode(), replay.getResponseBodyJson()); }
+                catch (Exception e) { log.warn("Failed to cache idempotent response: key={}", idempotencyKey, e); }
+            });
+            return Optional.of(replay);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Opt-in (app.idempotency.wait-for-completion.max-wait-ms > 0): instead of an immediate 409, wait for the
+     * key owner to release (local signal or Redis pub/sub) and replay its stored response. Never waits past
+     * {@code deadlineNanos}.
+     */
+    private Optional<IdempotentCreateResult> awaitCompletion(IdempotencyCacheService cache, String idempotencyKey,
+                                                             String requestHash, long deadlineNanos) {
+        CompletableFuture<Void> released = completionRegistry.listen(idempotencyKey);
+        try {
+            // Released between the marker check and listen()
+            Optional<IdempotentCreateResult> replay = replayFromCache(cache, idempotencyKey, requestHash);
+            if (replay.isPresent()) {
+                return replay;
+            }
+            long waitNanos = TimeUnit.MILLISECONDS.toNanos(waitForCompletionMs);
+            if (deadlineNanos != AdmissionQueue.NO_DEADLINE) {
+                waitNanos = Math.min(waitNanos, deadlineNanos - System.nanoTime());
+            }
+            if (waitNanos > 0) {
+                released.get(waitNanos, TimeUnit.NANOSECONDS);
+            }
+            replay = replayFromCache(cache, idempotencyKey, requestHash);
+            if (replay.isPresent()) {
+                return replay;
+            }
+            // Owner finished but the Redis entry is missing (cache write failed, owner rolled back): ask Postgres
+            return idempotencyKeysRepository.findClaimByKey(idempotencyKey)
+                    .filter(c -> IdempotencyKeys.STATUS_COMPLETED.equals(c.getStatus()) || !c.getRequestHash().equals(requestHash))
+                    .map(c -> resolveExisting(c, requestHash));
+        } catch (TimeoutException | ExecutionException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } finally {
+            completionRegistry.forget(idempotencyKey, released);
+        }
+    }
+
+    /** True when another request holds the key's in-flight marker; 409 when that request is a different one. */
+    private boolean heldElsewhere(IdempotencyCacheService cache, String idempotencyKey, String requestHash) {
+        Optional<String> ownerHash;
+        try {
+            ownerHash = cache.inProgressHash(idempotencyKey);
+        } catch (Exception e) {
+            log.warn("Idempotency cache read failed: key={}", idempotencyKey, e);
+            return false;
+        }
+        if (ownerHash.isPresent() && !ownerHash.get().equals(requestHash)) {
             orderMetrics.ifPresent(OrderMetrics::recordIdempotencyConflict);
-            throw new IdempotencyConflictException("Invalid idempotency status: " + existing.getStatus());
+            throw new IdempotencyConflictException("Idempotency key was used for a different request");
         }
+        return ownerHash.isPresent();
+    }
 
+    /**
+     * Replay straight from Redis when the completed response is cached. Hash mismatch is still a 409.
+     */
+    private Optional<IdempotentCreateResult> replayFromCache(IdempotencyCacheService cache, String idempotencyKey, String requestHash) {
+        Optional<IdempotencyCacheService.StoredResponse> stored;
         try {
-            CreateOrderResponse response = createOrder(request);
-            String responseBodyJson = objectMapper.writeValueAsString(response);
+            stored = cache.getCompleted(idempotencyKey);
+        } catch (Exception e) {
+            log.warn("Idempotency cache read failed, falling back to database: key={}", idempotencyKey, e);
+            return Optional.empty();
+        }
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!stored.get().requestHash().equals(requestHash)) {
+            orderMetrics.ifPresent(OrderMetrics::recordIdempotencyConflict);
+            throw new IdempotencyConflictException("Idempotency key was used for a different request");
+        }
+        orderMetrics.ifPresent(m -> {
+            m.recordIdempotencyHit();
+            m.recordIdempotencyCacheHit();
+        });
+        return Optional.of(IdempotentCreateResult.replay(stored.get().responseCode(), stored.get().body()));
+    }
 
-            newRow.setStatus(IdempotencyKeys.STATUS_COMPLETED);
-            newRow.setOrderId(response.getOrderId());
-            newRow.setResponseCode(201);
-            newRow.setResponseBody(responseBodyJson);
-            newRow.setUpdatedAt(Instant.now());
-            idempotencyKeysRepository.save(newRow);
+    private IdempotentCreateResult claimAndCreate(String idempotencyKey, String requestHash, CreateOrderRequest request) {
+        // One statement claims the key or returns the existing row, after any concurrent claimer finished
+        IdempotencyClaim claim = idempotencyKeysRepository.claimOrGet(idempotencyKey, requestHash, Instant.now())
+                .orElseThrow(IdempotencyStillProcessingException::new);
+        if (!Boolean.TRUE.equals(claim.getClaimed())) {
+            return resolveExisting(claim, requestHash);
+        }
 
+        try {
+            CreateOrderResponse response = createOrder(request);
+            String responseBodyJson = objectMapper.writeValueAsString(response);
+            idempotencyKeysRepository.complete(idempotencyKey, claim.getCreatedDay(), IdempotencyKeys.STATUS_COMPLETED,
+                    response.getOrderId(), 201, responseBodyJson, Instant.now());
             return IdempotentCreateResult.created(response, responseBodyJson);
         } catch (JsonProcessingException e) {
             throw new IllegalStateException("Failed to serialize response", e);
         } catch (Exception e) {
             // Store failure for replay (same key returns same error)
             String errorBody = "{\"error\":\"" + escapeJson(e.getMessage()) + "\"}";
-            newRow.setStatus(IdempotencyKeys.STATUS_COMPLETED);
-            newRow.setResponseCode(500);
-            newRow.setResponseBody(errorBody);
-            newRow.setUpdatedAt(Instant.now());
-            idempotencyKeysRepository.save(newRow);
+            idempotencyKeysRepository.complete(idempotencyKey, claim.getCreatedDay(), IdempotencyKeys.STATUS_COMPLETED,
+                    null, 500, errorBody, Instant.now());
             throw e;
         }
     }
 
+    /**
+     * Decides the outcome for a key that already exists: replay, still processing, or 409.
+     */
+    private IdempotentCreateResult resolveExisting(IdempotencyClaim existing, String requestHash) {
+        if (!existing.getRequestHash().equals(requestHash)) {
+            orderMetrics.ifPresent(OrderMetrics::recordIdempotencyConflict);
+            throw new IdempotencyConflictException(
+                    "Idempotency key was used for a different request");
+        }
+        if (IdempotencyKeys.STATUS_COMPLETED.equals(existing.getStatus())) {
+            orderMetrics.ifPresent(OrderMetrics::recordIdempotencyHit);
+            return IdempotentCreateResult.replay(
+                    existing.getResponseCode(),
+                    existing.getResponseBody() != null ? existing.getResponseBody() : "{}");
+        }
+        if (IdempotencyKeys.STATUS_IN_PROGRESS.equals(existing.getStatus())) {
+            throw new IdempotencyStillProcessingException();
+        }
+        orderMetrics.ifPresent(OrderMetrics::recordIdempotencyConflict);
+        throw new IdempotencyConflictException("Invalid idempotency status: " + existing.getStatus());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<OrderResponse> getOrderById(UUID orderId) {
         if (orderCache.isEmpty()) {
-            return orderRepository.findByIdWithItems(orderId).map(this::toOrderResponse);
+            return loadOrder(orderId);
         }
-        OrderCacheService cache = orderCache.get();
         try {
-            Optional<OrderResponse> cached = cache.get(orderId);
-            if (cached.isPresent()) return cached;
+            return orderCache.get().getOrLoad(orderId, () -> loadOrder(orderId));
+        } catch (Exception e) {
+            log.debug("Cache miss or error, falling back to DB: orderId={}", orderId, e);
+        }
+        return loadOrder(orderId);
+    }
 
-            boolean gotLock = cache.tryLock(orderId);
-            if (gotLock) {
+    @Override
+    public Optional<Long> getCachedOrderVersion(UUID orderId) {
+        if (orderCache.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return orderCache.get().getVersion(orderId);
+        } catch (Exception e) {
+            log.debug("Cached version lookup failed: orderId={}", orderId, e);
+            return Optional.empty();
+        }
+    }
+
+    private Optional<OrderResponse> loadOrder(UUID orderId) {
+        if (projectionReads) {
+            return orderReadRepository.findById(orderId);
+        }
+        return orderRepository.findByIdWithItems(orderId).map(this::toOrderResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BatchGetOrdersResponse getOrdersByIds(List<UUID> orderIds) {
+        Set<UUID> distinct = new LinkedHashSet<>(orderIds);
+        Map<UUID, OrderResponse> found = new HashMap<>();
+        orderCache.ifPresent(cache -> {
+            try {
+                found.putAll(cache.getAll(distinct));
+            } catch (Exception e) {
+                log.debug("Batch cache lookup failed, loading all from DB", e);
+            }
+        });
+        List<UUID> misses = distinct.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            // Read before the load: the back-fill skips orders invalidated meanwhile (see setAllIfUnchanged)
+            Map<UUID, String> markers = Map.of();
+            if (orderCache.isPresent()) {
                 try {
-                    // Double-check cache (another thread may have populated)
-                    cached = cache.get(orderId);
-                    if (cached.isPresent()) return cached;
-                    Optional<OrderResponse> fromDb = orderRepository.findByIdWithItems(orderId).map(this::toOrderResponse);
-                    fromDb.ifPresent(r -> cache.set(orderId, r));
-                    return fromDb;
-                } finally {
-                    cache.releaseLock(orderId);
+                    markers = orderCache.get().versionMarkers(misses);
+                } catch (Exception e) {
+                    log.debug("Cached version lookup failed, not back-filling {} orders", misses.size(), e);
                 }
             }
-            // Didn't get lock: wait briefly then retry cache or fallback to DB
-            Thread.sleep(cache.getWaitAfterLockMissMs());
-            cached = cache.get(orderId);
-            if (cached.isPresent()) return cached;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("Interrupted while waiting for cache", e);
-        } catch (Exception e) {
-            log.debug("Cache miss or error, falling back to DB: orderId={}", orderId, e);
+            long start = System.nanoTime();
+            Map<UUID, OrderResponse> loaded = loadOrders(misses);
+            long computeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            found.putAll(loaded);
+            Map<UUID, String> observed = markers;
+            if (!observed.isEmpty()) {
+                orderCache.ifPresent(cache -> {
+                    try {
+                        cache.setAllIfUnchanged(loaded, observed, computeMs);
+                    } catch (Exception e) {
+                        log.warn("Failed to back-fill {} orders into cache", loaded.size(), e);
+                    }
+                });
+            }
         }
-        return orderRepository.findByIdWithItems(orderId).map(this::toOrderResponse);
+        List<BatchGetOrderResult> results = new ArrayList<>(orderIds.size());
+        for (UUID id : orderIds) {
+            OrderResponse order = found.get(id);
+            results.add(order != null ? BatchGetOrderResult.found(order) : BatchGetOrderResult.notFound(id));
+        }
+        return new BatchGetOrdersResponse(results);
+    }
+
+    private Map<UUID, OrderResponse> loadOrders(List<UUID> orderIds) {
+        if (projectionReads) {
+            return orderReadRepository.findAllByIds(orderIds);
+        }
+        Map<UUID, OrderResponse> loaded = new HashMap<>();
+        for (Orders o : orderRepository.findAllByIdWithItems(orderIds)) {
+            loaded.put(o.getId(), toOrderResponse(o));
+        }
+        return loaded;
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<OrderResponse> getOrders(String userId, OrderStatus status, int page, int size, String sortProperty, boolean sortDesc) {
-        Sort sort = sortBy(sortProperty, sortDesc);
+        String property = sortProperty(sortProperty);
+        if (orderListCache.isEmpty() || userId == null || userId.isBlank()) {
+            return loadOrdersPage(userId, status, page, size, property, sortDesc);
+        }
+        String variant = "page:" + status + ":" + property + ":" + (sortDesc ? "desc" : "asc") + ":" + page + ":" + size;
+        return orderListCache.get().getOrLoad(userId.trim(), variant, PAGE_TYPE,
+                () -> loadOrdersPage(userId, status, page, size, property, sortDesc));
+    }
+
+    private PageResponse<OrderResponse> loadOrdersPage(String userId, OrderStatus status, int page, int size,
+                                                       String property, boolean sortDesc) {
+        if (projectionReads && OrderReadJdbcRepository.isSortable(property)) {
+            return getOrdersProjected(userId, status, page, size, property, sortDesc);
+        }
+        Sort sort = sortBy(property, sortDesc);
         Pageable pageable = PageRequest.of(page, size, sort);
         Specification<Orders> spec = OrderSpecs.withUserId(userId).and(OrderSpecs.withStatus(status));
         var springPage = orderRepository.findAll(spec, pageable);
-        List<OrderResponse> content = springPage.getContent().stream()
-                .map(this::toOrderResponse)
-                .collect(Collectors.toList());
+        List<OrderResponse> content = toOrderResponses(springPage.getContent());
         return PageResponse.<OrderResponse>builder()
                 .content(content)
                 .totalElements(springPage.getTotalElements())
@@ -234,10 +601,159 @@ public class OrdersService implements IOrderService {
                 .build();
     }
 
+    /**
+     * Same page as the entity path, minus the managed entities. Unknown sort properties never get here; they
+     * keep going through Spring Data, which rejects them as before.
+     */
+    private PageResponse<OrderResponse> getOrdersProjected(String userId, OrderStatus status, int page, int size,
+                                                           String sortProperty, boolean sortDesc) {
+        List<OrderResponse> content = orderReadRepository.findPage(userId, status, sortProperty, sortDesc,
+                (long) page * size, size);
+        // Like Spring Data: skip the COUNT(*) when this page already shows where the results end
+        long total = (!content.isEmpty() || page == 0) && content.size() < size
+                ? (long) page * size + content.size()
+                : orderReadRepository.count(userId, status);
+        int totalPages = (int) ((total + size - 1) / size);
+        return PageResponse.<OrderResponse>builder()
+                .content(content)
+                .totalElements(total)
+                .totalPages(totalPages)
+                .number(page)
+                .size(size)
+                .first(page == 0)
+                .last(page + 1 >= totalPages)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getOrdersAfter(String userId, OrderStatus status, OrderCursor cursor,
+                                                            int size, boolean sortDesc, boolean includeTotal) {
+        boolean desc = cursor != null ? cursor.desc() : sortDesc;
+        if (orderListCache.isEmpty() || userId == null || userId.isBlank()) {
+            return loadOrdersAfter(userId, status, cursor, size, desc, includeTotal);
+        }
+        String variant = "cursor:" + status + ":" + (desc ? "desc" : "asc") + ":"
+                + (cursor != null ? cursor.encode() : "") + ":" + size + ":" + includeTotal;
+        return orderListCache.get().getOrLoad(userId.trim(), variant, CURSOR_PAGE_TYPE,
+                () -> loadOrdersAfter(userId, status, cursor, size, desc, includeTotal));
+    }
+
+    private CursorPageResponse<OrderResponse> loadOrdersAfter(String userId, OrderStatus status, OrderCursor cursor,
+                                                              int size, boolean desc, boolean includeTotal) {
+        if (projectionReads) {
+            return getOrdersAfterProjected(userId, status, cursor, size, desc, includeTotal);
+        }
+        Specification<Orders> filter = OrderSpecs.withUserId(userId).and(OrderSpecs.withStatus(status));
+        Specification<Orders> spec = cursor == null
+                ? filter
+                : filter.and(OrderSpecs.seekAfter(cursor.createdAt(), cursor.id(), desc));
+        Sort.Direction direction = desc ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, "createdAt").and(Sort.by(direction, "id"));
+        // One extra row tells us whether there is a next page without counting
+        List<Orders> rows = orderRepository.findBy(spec, q -> q.sortBy(sort).limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        List<Orders> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Orders last = page.get(page.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId(), desc).encode();
+        }
+        return CursorPageResponse.<OrderResponse>builder()
+                .content(toOrderResponses(page))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .totalElements(includeTotal ? orderRepository.count(filter) : null)
+                .build();
+    }
+
+    private CursorPageResponse<OrderResponse> getOrdersAfterProjected(String userId, OrderStatus status, OrderCursor cursor,
+                                                                      int size, boolean desc, boolean includeTotal) {
+        List<OrderResponse> rows = orderReadRepository.findAfter(userId, status,
+                cursor != null ? cursor.createdAt() : null, cursor != null ? cursor.id() : null, desc, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<OrderResponse> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            OrderResponse last = page.get(page.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getOrderId(), desc).encode();
+        }
+        return CursorPageResponse.<OrderResponse>builder()
+                .content(page)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .totalElements(includeTotal ? orderReadRepository.count(userId, status) : null)
+                .build();
+    }
+
+    /**
+     * Builds a new PENDING order with items and computed line/total amounts (not yet persisted).
+     */
+    static Orders newOrder(CreateOrderRequest request, Instant now) {
+        Orders order = new Orders();
+        order.setUserId(request.getUserId());
+        order.setCurrency(request.getCurrency());
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        List<OrderItems> items = new ArrayList<>();
+
+        for (OrderItemRequest itemReq : request.getItems()) {
+            BigDecimal lineAmount = itemReq.getUnitPrice().multiply(BigDecimal.valueOf(itemReq.getQty()));
+            totalAmount = totalAmount.add(lineAmount);
+
+            OrderItems item = new OrderItems();
+            item.setOrder(order);
+            item.setSku(itemReq.getSku());
+            item.setQty(itemReq.getQty());
+            item.setUnitPrice(itemReq.getUnitPrice());
+            item.setLineAmount(lineAmount);
+            items.add(item);
+        }
+
+        order.setTotalAmount(totalAmount);
+        order.setItems(items);
+        return order;
+    }
+
+    static CreateOrderResponse toCreateOrderResponse(Orders saved) {
+        return CreateOrderResponse.builder()
+                .orderId(saved.getId())
+                .status(saved.getStatus())
+                .totalAmount(saved.getTotalAmount())
+                .createdAt(saved.getCreatedAt())
+                .build();
+    }
+
     private OrderResponse toOrderResponse(Orders o) {
         List<OrderItemResponse> items = o.getItems() == null ? List.of() : o.getItems().stream()
                 .map(this::toOrderItemResponse)
                 .collect(Collectors.toList());
+        return toOrderResponse(o, items);
+    }
+
+    /**
+     * Listing read path: a page of orders plus all their items in one more query (never touches the lazy
+     * {@code items} collections, which would cost one query per order).
+     */
+    private List<OrderResponse> toOrderResponses(List<Orders> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, List<OrderItemResponse>> itemsByOrder = new HashMap<>();
+        for (OrderItems i : orderRepository.findItemsByOrderIds(orders.stream().map(Orders::getId).toList())) {
+            itemsByOrder.computeIfAbsent(i.getOrder().getId(), k -> new ArrayList<>()).add(toOrderItemResponse(i));
+        }
+        return orders.stream()
+                .map(o -> toOrderResponse(o, itemsByOrder.getOrDefault(o.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private OrderResponse toOrderResponse(Orders o, List<OrderItemResponse> items) {
         return OrderResponse.builder()
                 .orderId(o.getId())
                 .userId(o.getUserId())
@@ -245,6 +761,7 @@ public class OrdersService implements IOrderService {
                 .status(o.getStatus())
                 .totalAmount(o.getTotalAmount())
                 .createdAt(o.getCreatedAt())
+                .version(o.getVersion())
                 .items(items)
                 .build();
     }
@@ -259,8 +776,11 @@ public class OrdersService implements IOrderService {
                 .build();
     }
 
-    private static Sort sortBy(String sortProperty, boolean sortDesc) {
-        String property = (sortProperty == null || sortProperty.isBlank()) ? "createdAt" : sortProperty.trim();
+    private static String sortProperty(String sortProperty) {
+        return (sortProperty == null || sortProperty.isBlank()) ? "createdAt" : sortProperty.trim();
+    }
+
+    private static Sort sortBy(String property, boolean sortDesc) {
         Sort.Direction direction = sortDesc ? Sort.Direction.DESC : Sort.Direction.ASC;
         return Sort.by(direction, property);
     }
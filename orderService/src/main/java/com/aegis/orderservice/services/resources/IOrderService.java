@@ -1,12 +1,18 @@
 package com.aegis.orderservice.services.resources;
 
 import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.dto.BatchCreateOrderEntry;
+import com.aegis.orderservice.dto.BatchCreateOrderResponse;
+import com.aegis.orderservice.dto.BatchGetOrdersResponse;
 import com.aegis.orderservice.dto.CreateOrderRequest;
 import com.aegis.orderservice.dto.CreateOrderResponse;
+import com.aegis.orderservice.dto.CursorPageResponse;
 import com.aegis.orderservice.dto.IdempotentCreateResult;
 import com.aegis.orderservice.dto.OrderResponse;
 import com.aegis.orderservice.dto.PageResponse;
+import com.aegis.orderservice.util.OrderCursor;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,13 +25,46 @@ public interface IOrderService {
      */
     IdempotentCreateResult createOrderIdempotent(String idempotencyKey, CreateOrderRequest request);
 
+    /**
+     * Read-only replay lookup: the stored response when the key is completed for this request, empty when
+     * the key is unknown (take the create path). Different request → 409. A key still in progress elsewhere
+     * is waited for (wait-for-completion, bounded by {@code deadlineNanos}) or reported as still processing.
+     */
+    Optional<IdempotentCreateResult> findReplay(String idempotencyKey, CreateOrderRequest request, long deadlineNanos);
+
+    /**
+     * Idempotent create for many (key, request) pairs in a few transactions. Each entry gets the result
+     * the single-order endpoint would have produced; results are returned in request order.
+     */
+    BatchCreateOrderResponse createOrdersBatch(List<BatchCreateOrderEntry> entries);
+
     /**
      * Get single order by id with items. Returns empty if not found.
      */
     Optional<OrderResponse> getOrderById(UUID orderId);
 
+    /**
+     * Version of the order as currently cached, without loading or decoding it (conditional GETs). Empty
+     * when there is no cache, the order is not cached, or the lookup failed; the caller then loads the order.
+     */
+    Optional<Long> getCachedOrderVersion(UUID orderId);
+
+    /**
+     * Many orders by id: cache hits first, all misses in one DB query. Results follow {@code orderIds}
+     * (duplicates included), with explicit not-found entries.
+     */
+    BatchGetOrdersResponse getOrdersByIds(List<UUID> orderIds);
+
     /**
      * List orders with optional userId/status filter, pagination, and deterministic sort (default createdAt,desc).
      */
     PageResponse<OrderResponse> getOrders(String userId, OrderStatus status, int page, int size, String sortProperty, boolean sortDesc);
+
+    /**
+     * Keyset listing ordered by (createdAt, id): {@code cursor} null for the first page (direction from
+     * {@code sortDesc}), otherwise the decoded nextCursor, which carries its own direction. No COUNT(*)
+     * unless {@code includeTotal}.
+     */
+    CursorPageResponse<OrderResponse> getOrdersAfter(String userId, OrderStatus status, OrderCursor cursor, int size,
+                                                     boolean sortDesc, boolean includeTotal);
 }
\ No newline at end of file
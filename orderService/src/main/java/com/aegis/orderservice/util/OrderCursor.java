@@ -0,0 +1,42 @@
+package com.aegis.orderservice.util;
+
+import com.aegis.orderservice.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position for order listing: the (created_at, id) of the last row returned and the direction, so a
+ * cursor keeps paging the way it started. Opaque to clients (base64url of "v1:d|a:seconds:nanos:uuid").
+ */
+public record OrderCursor(Instant createdAt, UUID id, boolean desc) {
+
+    private static final String VERSION = "v1";
+
+    public String encode() {
+        String raw = VERSION + ":" + (desc ? "d" : "a") + ":" + createdAt.getEpochSecond() + ":"
+                + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidCursorException if {@code cursor} was not produced by {@link #encode}
+     */
+    public static OrderCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 5 || !VERSION.equals(parts[0]) || !(parts[1].equals("d") || parts[1].equals("a"))) {
+                throw new InvalidCursorException();
+            }
+            return new OrderCursor(
+                    Instant.ofEpochSecond(Long.parseLong(parts[2]), Long.parseLong(parts[3])),
+                    UUID.fromString(parts[4]),
+                    parts[1].equals("d"));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
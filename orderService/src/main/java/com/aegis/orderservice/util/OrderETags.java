@@ -0,0 +1,97 @@
+package com.aegis.orderservice.util;
+
+import com.aegis.orderservice.dto.CursorPageResponse;
+import com.aegis.orderservice.dto.OrderResponse;
+import com.aegis.orderservice.dto.PageResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * ETags for order responses. A single order's is strong, {@code "orderId:version"}: the version changes
+ * with every update of the row, so equal tags mean an identical body. A list page's is weak,
+ * {@code W/"hash"} over its orders' id:version pairs and the page metadata (counts, position, cursor),
+ * since the page only tracks the orders' versions, not its own bytes.
+ * <p>
+ * Responses with an order that has no version (cached before versions were) get no ETag.
+ */
+public final class OrderETags {
+
+    private OrderETags() {}
+
+    public static String of(UUID orderId, long version) {
+        return "\"" + orderId + ":" + version + "\"";
+    }
+
+    /** Null when the order has no version. */
+    public static String of(OrderResponse order) {
+        return order.getVersion() == null ? null : of(order.getOrderId(), order.getVersion());
+    }
+
+    /** Null when any order on the page has no version. */
+    public static String of(PageResponse<OrderResponse> page) {
+        return weak(page.getContent(), "page", page.getTotalElements(), page.getTotalPages(), page.getNumber(),
+                page.getSize(), page.isFirst(), page.isLast());
+    }
+
+    /** Null when any order on the page has no version. */
+    public static String of(CursorPageResponse<OrderResponse> page) {
+        return weak(page.getContent(), "cursor", page.getSize(), page.isHasNext(), page.getNextCursor(),
+                page.getTotalElements());
+    }
+
+    /**
+     * If-None-Match check with weak comparison (RFC 9110 13.1.2): true when {@code etag} is one of the
+     * listed tags, ignoring W/ prefixes, or the header is {@code *}.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+            return false;
+        }
+        String opaque = opaqueTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaqueTag(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String weak(List<OrderResponse> content, Object... meta) {
+        StringBuilder canonical = new StringBuilder();
+        for (Object m : meta) {
+            canonical.append(m).append(';');
+        }
+        if (content != null) {
+            for (OrderResponse order : content) {
+                if (order.getVersion() == null) {
+                    return null;
+                }
+                canonical.append(order.getOrderId()).append(':').append(order.getVersion()).append('|');
+            }
+        }
+        return "W/\"" + hash(canonical.toString()) + "\"";
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /** First 128 bits of SHA-256, hex: plenty for telling pages apart. */
+    private static String hash(String input) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        byte[] digest = md.digest(input.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(Arrays.copyOf(digest, 16));
+    }
+}
@@ -0,0 +1,4 @@
+-- order_items: move from IDENTITY to pooled sequence allocation so Hibernate can batch inserts.
+-- BIGSERIAL already owns order_items_id_seq; the entity allocates blocks of 50 (allocationSize = 50),
+-- so the sequence increment must match. Column DEFAULT nextval(...) keeps working for raw inserts.
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
@@ -0,0 +1,50 @@
+-- Retention for idempotency_keys: daily range partitions so expired keys are removed by dropping a
+-- partition (IdempotencyPartitionMaintainer) instead of DELETE + vacuum, and the key index stays
+-- bounded per partition.
+--
+-- Postgres requires unique constraints on a partitioned table to include the partition key, so the
+-- primary key becomes (key, created_day). created_day is the claim date; created_at keeps full precision.
+-- Cross-partition uniqueness of key is enforced by claim_idempotency_keys (V8), which serializes claims of a
+-- key with an advisory lock.
+--
+-- There is no DEFAULT partition: with one, expired partitions could not be detached CONCURRENTLY. The
+-- maintainer pre-creates premake-days ahead, so a claim only fails if it has been down that long.
+
+ALTER TABLE idempotency_keys RENAME TO idempotency_keys_old;
+ALTER INDEX idempotency_keys_pkey RENAME TO idempotency_keys_old_pkey;
+DROP INDEX IF EXISTS idx_idempotency_keys_created_at;
+
+CREATE TABLE idempotency_keys (
+    key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(255) NOT NULL,
+    order_id UUID NULL,
+    status VARCHAR(32) NOT NULL,
+    response_code INTEGER,
+    response_body JSONB,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    created_day DATE NOT NULL DEFAULT CURRENT_DATE,
+    PRIMARY KEY (key, created_day)
+) PARTITION BY RANGE (created_day);
+
+-- Everything before today lands in one legacy partition (dropped once it falls out of retention);
+-- today and the next 7 days are pre-created. The maintainer keeps creating ahead from here.
+DO $$
+DECLARE
+    today DATE := CURRENT_DATE;
+BEGIN
+    EXECUTE format('CREATE TABLE idempotency_keys_legacy PARTITION OF idempotency_keys FOR VALUES FROM (MINVALUE) TO (%L)', today);
+    FOR i IN 0..7 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF idempotency_keys FOR VALUES FROM (%L) TO (%L)',
+                       'idempotency_keys_p' || to_char(today + i, 'YYYYMMDD'), today + i, today + i + 1);
+    END LOOP;
+END $$;
+
+INSERT INTO idempotency_keys (key, request_hash, order_id, status, response_code, response_body, created_at, updated_at, created_day)
+SELECT key, request_hash, order_id, status, response_code, response_body, created_at, updated_at, created_at::date
+FROM idempotency_keys_old;
+
+DROP TABLE idempotency_keys_old;
+
+CREATE INDEX idx_idempotency_keys_key ON idempotency_keys (key);
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
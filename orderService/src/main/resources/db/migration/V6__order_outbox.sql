@@ -0,0 +1,17 @@
+-- Transactional outbox: order events are written in the same transaction as the order and
+-- published asynchronously by OutboxRelay (claims with FOR UPDATE SKIP LOCKED).
+CREATE SEQUENCE order_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE order_outbox (
+    id BIGINT PRIMARY KEY DEFAULT nextval('order_outbox_id_seq'),
+    aggregate_id UUID NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP NULL
+);
+
+ALTER SEQUENCE order_outbox_id_seq OWNED BY order_outbox.id;
+
+-- Relay scans only unpublished rows in id order
+CREATE INDEX idx_order_outbox_unpublished ON order_outbox (id) WHERE published_at IS NULL;
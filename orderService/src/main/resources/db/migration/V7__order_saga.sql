@@ -0,0 +1,8 @@
+-- Order saga (PENDING -> RESERVED -> PAYMENT_AUTHORIZED -> CONFIRMED): ids needed to resume or compensate
+ALTER TABLE orders ADD COLUMN reservation_id VARCHAR(128);
+ALTER TABLE orders ADD COLUMN payment_authorization_id VARCHAR(128);
+ALTER TABLE orders ADD COLUMN failure_reason VARCHAR(255);
+
+-- Sweeper scans only orders whose saga has not finished
+CREATE INDEX idx_orders_saga_open ON orders (updated_at)
+    WHERE status IN ('PENDING', 'RESERVED', 'PAYMENT_AUTHORIZED');
@@ -0,0 +1,38 @@
+-- Global uniqueness for idempotency keys. Since V5 the idempotency_keys primary key is (key, created_day),
+-- so two claims of one key on either side of midnight both fit, and a NOT EXISTS check in the inserting
+-- statement cannot see an uncommitted claim. Every claim goes through this function instead: it takes a
+-- transaction-scoped advisory lock per key (in hash order, so batches sharing keys cannot deadlock), then
+-- inserts under a fresh snapshot, which sees any claim committed while it waited. Nothing is stored outside
+-- the day partitions, so dropping a partition releases its keys.
+--
+-- Returns one row per distinct key: the row this call inserted (claimed) or the one already stored.
+CREATE FUNCTION claim_idempotency_keys(p_keys text[], p_hashes text[], p_now timestamp)
+RETURNS TABLE (key varchar, request_hash varchar, status varchar, response_code integer,
+               response_body text, created_day date, claimed boolean)
+LANGUAGE plpgsql AS $$
+#variable_conflict use_column
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('idempotency_key'), l.h)
+    FROM (SELECT DISTINCT hashtext(u.k) AS h FROM unnest(p_keys) AS u(k) ORDER BY 1) l;
+
+    -- VOLATILE plpgsql takes a new snapshot per statement: claims committed while waiting are visible here
+    RETURN QUERY
+    WITH ins AS (
+        INSERT INTO idempotency_keys AS n (key, request_hash, status, created_at, updated_at)
+        SELECT u.k, u.h, 'IN_PROGRESS', p_now, p_now
+        FROM unnest(p_keys, p_hashes) AS u(k, h)
+        WHERE NOT EXISTS (SELECT 1 FROM idempotency_keys e WHERE e.key = u.k)
+        ON CONFLICT DO NOTHING
+        RETURNING n.key, n.request_hash, n.status, n.response_code, n.response_body, n.created_day
+    )
+    SELECT i.key, i.request_hash, i.status, i.response_code, CAST(i.response_body AS text), i.created_day, TRUE
+    FROM ins i
+    UNION ALL
+    SELECT e.key, e.request_hash, e.status, e.response_code, CAST(e.response_body AS text), e.created_day, FALSE
+    FROM idempotency_keys e
+    WHERE e.key = ANY (p_keys);
+END
+$$;
+
+-- Redundant with the (key, created_day) primary key
+DROP INDEX IF EXISTS idx_idempotency_keys_key;
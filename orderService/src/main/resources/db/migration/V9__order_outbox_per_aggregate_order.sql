@@ -0,0 +1,7 @@
+-- Outbox ids come from pooled sequence blocks (allocationSize 50 per instance), so they are unique but not
+-- ordered across instances: a later event of an order can get a smaller id than an earlier one. The relay
+-- now orders each aggregate's events by (created_at, id), with created_at assigned by Postgres (the
+-- transaction start of the writing transaction, one clock), and only claims an aggregate's oldest
+-- unpublished event. This index serves that per-aggregate check.
+CREATE INDEX idx_order_outbox_unpublished_aggregate
+    ON order_outbox (aggregate_id, created_at, id) WHERE published_at IS NULL;
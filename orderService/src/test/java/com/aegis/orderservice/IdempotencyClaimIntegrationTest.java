@@ -0,0 +1,249 @@
+package com.aegis.orderservice;
+
+import com.aegis.orderservice.repository.IdempotencyClaim;
+import com.aegis.orderservice.repository.IdempotencyKeysJdbcRepository;
+import com.aegis.orderservice.repository.IdempotencyKeysRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Claim statements against the day-partitioned idempotency_keys table: each claimOrGet branch (claimed,
+ * existing row with the same or a different request hash), findClaimByKey and complete, and a key staying
+ * unique across created_day values, including a claim racing another transaction's uncommitted claim from
+ * another day.
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class IdempotencyClaimIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("orders_db")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    IdempotencyKeysRepository idempotencyKeysRepository;
+    @Autowired
+    IdempotencyKeysJdbcRepository idempotencyKeysJdbcRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void freshKeyIsClaimedWithAnInProgressRow() {
+        String key = "idem-" + UUID.randomUUID();
+
+        Optional<IdempotencyClaim> claim = inTransaction(() ->
+                idempotencyKeysRepository.claimOrGet(key, "hash-1", Instant.now()));
+
+        assertThat(claim).get().satisfies(c -> {
+            assertThat(c.getClaimed()).isTrue();
+            assertThat(c.getKey()).isEqualTo(key);
+            assertThat(c.getRequestHash()).isEqualTo("hash-1");
+            assertThat(c.getStatus()).isEqualTo("IN_PROGRESS");
+            assertThat(c.getResponseCode()).isNull();
+            assertThat(c.getResponseBody()).isNull();
+        });
+        assertThat(claim.get().getCreatedDay())
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT CURRENT_DATE", LocalDate.class));
+        assertThat(rowsFor(key)).isEqualTo(1);
+    }
+
+    @Test
+    void claimedKeyWithTheSameHashIsReturnedWithoutClaiming() {
+        String key = "idem-" + UUID.randomUUID();
+        inTransaction(() -> idempotencyKeysRepository.claimOrGet(key, "hash-1", Instant.now()));
+
+        Optional<IdempotencyClaim> again = inTransaction(() ->
+                idempotencyKeysRepository.claimOrGet(key, "hash-1", Instant.now()));
+
+        assertThat(again).get().satisfies(c -> {
+            assertThat(c.getClaimed()).isFalse();
+            assertThat(c.getRequestHash()).isEqualTo("hash-1");
+            assertThat(c.getStatus()).isEqualTo("IN_PROGRESS");
+        });
+        assertThat(rowsFor(key)).isEqualTo(1);
+    }
+
+    @Test
+    void claimedKeyWithADifferentHashReturnsTheOriginalRowUnchanged() {
+        String key = "idem-" + UUID.randomUUID();
+        inTransaction(() -> idempotencyKeysRepository.claimOrGet(key, "hash-1", Instant.now()));
+
+        Optional<IdempotencyClaim> other = inTransaction(() ->
+                idempotencyKeysRepository.claimOrGet(key, "hash-2", Instant.now()));
+
+        // The caller compares hashes and rejects the reuse; the stored hash must still be the first request's
+        assertThat(other).get().satisfies(c -> {
+            assertThat(c.getClaimed()).isFalse();
+            assertThat(c.getRequestHash()).isEqualTo("hash-1");
+        });
+        assertThat(idempotencyKeysRepository.findClaimByKey(key)).get()
+                .extracting(IdempotencyClaim::getRequestHash).isEqualTo("hash-1");
+        assertThat(rowsFor(key)).isEqualTo(1);
+    }
+
+    @Test
+    void findClaimByKeyReadsTheClaimedRowAndNothingForUnknownKeys() {
+        String key = "idem-" + UUID.randomUUID();
+        assertThat(idempotencyKeysRepository.findClaimByKey(key)).isEmpty();
+
+        inTransaction(() -> idempotencyKeysRepository.claimOrGet(key, "hash-1", Instant.now()));
+
+        assertThat(idempotencyKeysRepository.findClaimByKey(key)).get().satisfies(c -> {
+            assertThat(c.getKey()).isEqualTo(key);
+            assertThat(c.getRequestHash()).isEqualTo("hash-1");
+            assertThat(c.getStatus()).isEqualTo("IN_PROGRESS");
+            assertThat(c.getClaimed()).isFalse();
+        });
+    }
+
+    @Test
+    void completeStoresTheResponseOnTheClaimedRow() {
+        String key = "idem-" + UUID.randomUUID();
+        UUID orderId = UUID.randomUUID();
+        LocalDate day = inTransaction(() -> idempotencyKeysRepository.claimOrGet(key, "hash-1", Instant.now()))
+                .orElseThrow().getCreatedDay();
+
+        assertThat(inTransaction(() -> idempotencyKeysRepository.complete(key, day.minusDays(1), "COMPLETED",
+                orderId, 201, "{}", Instant.now()))).as("another day's partition").isZero();
+        int updated = inTransaction(() -> idempotencyKeysRepository.complete(key, day, "COMPLETED", orderId, 201,
+                "{\"orderId\": \"" + orderId + "\"}", Instant.now()));
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(idempotencyKeysRepository.findClaimByKey(key)).get().satisfies(c -> {
+            assertThat(c.getStatus()).isEqualTo("COMPLETED");
+            assertThat(c.getResponseCode()).isEqualTo(201);
+            assertThat(c.getResponseBody()).isEqualTo("{\"orderId\": \"" + orderId + "\"}");
+        });
+        assertThat(jdbcTemplate.queryForObject("SELECT order_id FROM idempotency_keys WHERE key = ?", UUID.class, key))
+                .isEqualTo(orderId);
+        // A replayed claim now sees the stored response
+        assertThat(inTransaction(() -> idempotencyKeysRepository.claimOrGet(key, "hash-1", Instant.now()))).get()
+                .satisfies(c -> {
+                    assertThat(c.getClaimed()).isFalse();
+                    assertThat(c.getResponseCode()).isEqualTo(201);
+                });
+        assertThat(inTransaction(() -> idempotencyKeysRepository.complete("idem-" + UUID.randomUUID(), day,
+                "COMPLETED", orderId, 201, "{}", Instant.now()))).isZero();
+    }
+
+    @Test
+    void keyClaimedOnAnEarlierDayIsReturnedInsteadOfClaimedAgain() {
+        String key = "idem-" + UUID.randomUUID();
+        insertClaim(key, "hash-yesterday", -1);
+
+        Optional<IdempotencyClaim> claim = inTransaction(() ->
+                idempotencyKeysRepository.claimOrGet(key, "hash-today", Instant.now()));
+
+        assertThat(claim).get().satisfies(c -> {
+            assertThat(c.getClaimed()).isFalse();
+            assertThat(c.getRequestHash()).isEqualTo("hash-yesterday");
+        });
+        assertThat(rowsFor(key)).isEqualTo(1);
+    }
+
+    @Test
+    void claimWaitsForAnUncommittedClaimFromAnotherDayAndDoesNotInsert() throws Exception {
+        String key = "idem-" + UUID.randomUUID();
+        CountDownLatch claimedTomorrow = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        // A transaction that started after midnight: its row goes to the next day's partition
+        CompletableFuture<Void> other = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            insertClaim(key, "hash-tomorrow", 1);
+            claimedTomorrow.countDown();
+            await(commit);
+            return null;
+        }));
+        assertThat(claimedTomorrow.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Optional<IdempotencyClaim>> mine = CompletableFuture.supplyAsync(() -> inTransaction(() ->
+                idempotencyKeysRepository.claimOrGet(key, "hash-today", Instant.now())));
+        Thread.sleep(300);
+        assertThat(mine).as("blocked on the other claim").isNotDone();
+        commit.countDown();
+        other.get(10, TimeUnit.SECONDS);
+
+        // The claim read after the other one committed: nothing claimed, the other row is returned
+        assertThat(mine.get(10, TimeUnit.SECONDS)).get().satisfies(c -> {
+            assertThat(c.getClaimed()).isFalse();
+            assertThat(c.getRequestHash()).isEqualTo("hash-tomorrow");
+        });
+        assertThat(rowsFor(key)).isEqualTo(1);
+    }
+
+    @Test
+    void batchClaimSkipsKeysClaimedOnOtherDays() {
+        String old = "idem-" + UUID.randomUUID();
+        String fresh = "idem-" + UUID.randomUUID();
+        insertClaim(old, "hash-old", -1);
+
+        Map<String, LocalDate> claimed = inTransaction(() ->
+                idempotencyKeysJdbcRepository.claimAll(List.of(old, fresh), List.of("h1", "h2"), Instant.now()));
+
+        assertThat(claimed).containsOnlyKeys(fresh);
+        assertThat(rowsFor(old)).isEqualTo(1);
+        assertThat(rowsFor(fresh)).isEqualTo(1);
+    }
+
+    /** A claim as claim_idempotency_keys writes it (key lock, then the row), but on CURRENT_DATE + dayOffset. */
+    private void insertClaim(String key, String requestHash, int dayOffset) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtext('idempotency_key'), hashtext(?))", key);
+        jdbcTemplate.update("""
+                INSERT INTO idempotency_keys (key, request_hash, status, created_at, updated_at, created_day)
+                VALUES (?, ?, 'IN_PROGRESS', now(), now(), CURRENT_DATE + ?)
+                """, key, requestHash, dayOffset);
+    }
+
+    private int rowsFor(String key) {
+        Integer rows = jdbcTemplate.queryForObject("SELECT count(*) FROM idempotency_keys WHERE key = ?", Integer.class, key);
+        return rows == null ? 0 : rows;
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -221,4 +221,63 @@ class IdempotencyIntegrationTest {
                     .andExpect(jsonPath("$.error").value(org.hamcrest.Matchers.containsString("Idempotency-Key")));
         }
     }
+
+    @Nested
+    @DisplayName("Batch create → per-entry results with the same idempotency semantics")
+    class BatchCreate {
+
+        @Test
+        void createsNewEntriesAndReplaysOrConflictsExistingKeys() throws Exception {
+            String existingKey = "idem-" + UUID.randomUUID();
+            String existingBody = createOrderPayload("u4", "USD", "SKU-E", 1, "7.00");
+            String firstResponse = mockMvc.perform(post("/api/v1/orders")
+                            .header("Idempotency-Key", existingKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(existingBody))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            String existingOrderId = objectMapper.readTree(firstResponse).get("orderId").asText();
+
+            String newKey = "idem-" + UUID.randomUUID();
+            String batch = """
+                    {"orders": [
+                      {"idempotencyKey": "%s", "order": %s},
+                      {"idempotencyKey": "%s", "order": %s},
+                      {"idempotencyKey": "%s", "order": %s},
+                      {"idempotencyKey": "%s", "order": %s}
+                    ]}
+                    """.formatted(
+                    newKey, createOrderPayload("u4", "USD", "SKU-F", 2, "3.50"),
+                    existingKey, existingBody,
+                    existingKey, createOrderPayload("u4", "USD", "SKU-G", 1, "1.00"),
+                    newKey, createOrderPayload("u4", "USD", "SKU-F", 2, "3.50"));
+
+            String content = mockMvc.perform(post("/api/v1/orders/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(batch))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.results.length()").value(4))
+                    .andExpect(jsonPath("$.results[0].outcome").value("CREATED"))
+                    .andExpect(jsonPath("$.results[0].status").value(201))
+                    .andExpect(jsonPath("$.results[0].body.totalAmount").value(7.0))
+                    .andExpect(jsonPath("$.results[1].outcome").value("REPLAY"))
+                    .andExpect(jsonPath("$.results[1].body.orderId").value(existingOrderId))
+                    .andExpect(jsonPath("$.results[2].outcome").value("CONFLICT"))
+                    .andExpect(jsonPath("$.results[2].status").value(409))
+                    .andExpect(jsonPath("$.results[3].outcome").value("REPLAY"))
+                    .andReturn().getResponse().getContentAsString();
+
+            JsonNode results = objectMapper.readTree(content).get("results");
+            String createdOrderId = results.get(0).get("body").get("orderId").asText();
+            assertThat(results.get(3).get("body").get("orderId").asText()).isEqualTo(createdOrderId);
+
+            // Single-order endpoint replays what the batch stored
+            mockMvc.perform(post("/api/v1/orders")
+                            .header("Idempotency-Key", newKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(createOrderPayload("u4", "USD", "SKU-F", 2, "3.50")))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.orderId").value(createdOrderId));
+        }
+    }
 }
@@ -0,0 +1,153 @@
+package com.aegis.orderservice;
+
+import com.aegis.orderservice.repository.IdempotencyClaim;
+import com.aegis.orderservice.repository.IdempotencyKeysRepository;
+import com.aegis.orderservice.services.IdempotencyPartitionMaintainer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Partition retention against Postgres: expired day partitions are detached and dropped (releasing their
+ * keys), missing days are created, and a lock held on idempotency_keys makes the run give up instead of
+ * waiting behind it.
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration",
+        "app.idempotency.retention.initial-delay-ms=3600000",
+        "app.idempotency.retention.lock-timeout-ms=200"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class IdempotencyPartitionMaintainerIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("orders_db")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    IdempotencyPartitionMaintainer maintainer;
+    @Autowired
+    IdempotencyKeysRepository idempotencyKeysRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void dropLegacyPartition() {
+        // The legacy partition spans everything before the migration day; old test partitions need that range
+        if (exists("idempotency_keys_legacy")) {
+            jdbcTemplate.execute("ALTER TABLE idempotency_keys DETACH PARTITION idempotency_keys_legacy");
+            jdbcTemplate.execute("DROP TABLE idempotency_keys_legacy");
+        }
+    }
+
+    @Test
+    void expiredPartitionIsDroppedAndMissingDaysAreCreated() {
+        LocalDate today = jdbcTemplate.queryForObject("SELECT CURRENT_DATE", LocalDate.class);
+        String expired = oldPartition(LocalDate.of(2020, 1, 1), "idem-2020");
+        String future = "idempotency_keys_p" + DateTimeFormatter.BASIC_ISO_DATE.format(today.plusDays(3));
+        jdbcTemplate.execute("ALTER TABLE idempotency_keys DETACH PARTITION \"" + future + "\"");
+        jdbcTemplate.execute("DROP TABLE \"" + future + "\"");
+        double droppedBefore = meterRegistry.counter("idempotency.partitions.dropped.count").count();
+        double bytesBefore = meterRegistry.counter("idempotency.partitions.reclaimed.bytes").count();
+
+        maintainer.maintain();
+
+        assertThat(exists(expired)).isFalse();
+        assertThat(exists(future)).isTrue();
+        assertThat(meterRegistry.counter("idempotency.partitions.dropped.count").count() - droppedBefore)
+                .isEqualTo(1);
+        assertThat(meterRegistry.counter("idempotency.partitions.reclaimed.bytes").count()).isGreaterThan(bytesBefore);
+        // The dropped day's key can be claimed again
+        Optional<IdempotencyClaim> claim = new TransactionTemplate(transactionManager).execute(status ->
+                idempotencyKeysRepository.claimOrGet("idem-2020", "hash-new", Instant.now()));
+        assertThat(claim).get().extracting(IdempotencyClaim::getClaimed).isEqualTo(true);
+    }
+
+    @Test
+    void runGivesUpOnALockedTableAndDropsThePartitionNextTime() throws Exception {
+        String expired = oldPartition(LocalDate.of(2020, 2, 1), "idem-locked-" + UUID.randomUUID());
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // SHARE conflicts with the SHARE UPDATE EXCLUSIVE lock a concurrent detach takes on the parent
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    jdbcTemplate.execute("LOCK TABLE idempotency_keys IN SHARE MODE");
+                    locked.countDown();
+                    await(release);
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        maintainer.maintain();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+        assertThat(exists(expired)).isTrue();
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+
+        maintainer.maintain();
+
+        assertThat(exists(expired)).isFalse();
+    }
+
+    /** An attached partition for {@code day} holding one claimed key; returns its name. */
+    private String oldPartition(LocalDate day, String key) {
+        String name = "idempotency_keys_p" + DateTimeFormatter.BASIC_ISO_DATE.format(day);
+        jdbcTemplate.execute("CREATE TABLE \"" + name + "\" PARTITION OF idempotency_keys FOR VALUES FROM ('"
+                + day + "') TO ('" + day.plusDays(1) + "')");
+        jdbcTemplate.update("""
+                INSERT INTO idempotency_keys (key, request_hash, status, created_at, updated_at, created_day)
+                VALUES (?, 'hash-old', 'COMPLETED', now(), now(), ?)
+                """, key, day);
+        return name;
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                "\"" + table + "\""));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
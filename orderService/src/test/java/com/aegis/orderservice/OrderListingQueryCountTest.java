@@ -0,0 +1,102 @@
+package com.aegis.orderservice;
+
+import com.aegis.orderservice.dto.CreateOrderRequest;
+import com.aegis.orderservice.dto.CursorPageResponse;
+import com.aegis.orderservice.dto.OrderItemRequest;
+import com.aegis.orderservice.dto.OrderResponse;
+import com.aegis.orderservice.dto.PageResponse;
+import com.aegis.orderservice.services.resources.IOrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the entity listing read path against N+1: a page of orders and all their items must cost a fixed
+ * number of statements (Hibernate statistics), whatever the page size. The projection path bypasses
+ * Hibernate entirely, so this pins {@code app.orders.read-path=entity}.
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.orders.read-path=entity"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class OrderListingQueryCountTest {
+
+    private static final int ORDERS = 30;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("orders_db")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    IOrderService orderService;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private String userId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userId = "list-" + UUID.randomUUID();
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderItemRequest> items = List.of(
+                    new OrderItemRequest("SKU-A", 1, new BigDecimal("10.00")),
+                    new OrderItemRequest("SKU-B", 2, new BigDecimal("5.00")),
+                    new OrderItemRequest("SKU-C", 3, new BigDecimal("1.00")));
+            orderService.createOrder(new CreateOrderRequest(userId, "USD", items));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void offsetPageLoadsOrdersAndItemsWithoutPerOrderQueries() {
+        PageResponse<OrderResponse> page = orderService.getOrders(userId, null, 0, 100, "createdAt", true);
+
+        assertThat(page.getContent()).hasSize(ORDERS);
+        assertThat(page.getContent()).allSatisfy(o -> assertThat(o.getItems()).hasSize(ITEMS_PER_ORDER));
+        // page query + item query (+ COUNT when the page is full)
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    void cursorPageLoadsOrdersAndItemsInTwoQueries() {
+        CursorPageResponse<OrderResponse> page = orderService.getOrdersAfter(userId, null, null, 20, true, false);
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getContent()).allSatisfy(o -> assertThat(o.getItems()).hasSize(ITEMS_PER_ORDER));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+}
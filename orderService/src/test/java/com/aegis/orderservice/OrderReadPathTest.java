@@ -0,0 +1,121 @@
+package com.aegis.orderservice;
+
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.dto.CreateOrderRequest;
+import com.aegis.orderservice.dto.CursorPageResponse;
+import com.aegis.orderservice.dto.OrderItemRequest;
+import com.aegis.orderservice.dto.OrderResponse;
+import com.aegis.orderservice.dto.PageResponse;
+import com.aegis.orderservice.repository.OrderReadJdbcRepository;
+import com.aegis.orderservice.services.resources.IOrderService;
+import com.aegis.orderservice.util.OrderCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The projection read path (OrderReadJdbcRepository) must return exactly what the entity path returns:
+ * the service runs with {@code app.orders.read-path=entity} and every projection result is compared to it.
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration",
+        "app.orders.read-path=entity"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class OrderReadPathTest {
+
+    private static final int ORDERS = 12;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("orders_db")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    IOrderService orderService;
+    @Autowired
+    OrderReadJdbcRepository orderReadRepository;
+
+    private String userId;
+    private final List<UUID> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userId = "read-" + UUID.randomUUID();
+        orderIds.clear();
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderItemRequest> items = new ArrayList<>();
+            for (int j = 0; j <= i % 3; j++) {
+                items.add(new OrderItemRequest("SKU-" + j, j + 1, new BigDecimal("2.50")));
+            }
+            orderIds.add(orderService.createOrder(new CreateOrderRequest(userId, "USD", items)).getOrderId());
+        }
+    }
+
+    @Test
+    void findByIdMatchesEntityPath() {
+        for (UUID id : orderIds) {
+            assertThat(orderReadRepository.findById(id)).isEqualTo(orderService.getOrderById(id));
+        }
+        assertThat(orderReadRepository.findById(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void findAllByIdsMatchesEntityPathAndSkipsMissingIds() {
+        UUID missing = UUID.randomUUID();
+        List<UUID> ids = new ArrayList<>(orderIds.subList(0, 5));
+        ids.add(missing);
+
+        Map<UUID, OrderResponse> found = orderReadRepository.findAllByIds(ids);
+
+        assertThat(found).hasSize(5).doesNotContainKey(missing);
+        for (UUID id : orderIds.subList(0, 5)) {
+            assertThat(found.get(id)).isEqualTo(orderService.getOrderById(id).orElseThrow());
+        }
+    }
+
+    @Test
+    void offsetPageMatchesEntityPath() {
+        PageResponse<OrderResponse> expected = orderService.getOrders(userId, OrderStatus.PENDING, 1, 5, "createdAt", true);
+
+        List<OrderResponse> actual = orderReadRepository.findPage(userId, OrderStatus.PENDING, "createdAt", true, 5, 5);
+
+        assertThat(actual).isEqualTo(expected.getContent());
+        assertThat(orderReadRepository.count(userId, OrderStatus.PENDING)).isEqualTo(expected.getTotalElements());
+    }
+
+    @Test
+    void cursorPagesMatchEntityPath() {
+        CursorPageResponse<OrderResponse> first = orderService.getOrdersAfter(userId, null, null, 5, false, false);
+        OrderCursor cursor = OrderCursor.decode(first.getNextCursor());
+        CursorPageResponse<OrderResponse> second = orderService.getOrdersAfter(userId, null, cursor, 5, false, false);
+
+        assertThat(orderReadRepository.findAfter(userId, null, null, null, false, 5)).isEqualTo(first.getContent());
+        assertThat(orderReadRepository.findAfter(userId, null, cursor.createdAt(), cursor.id(), false, 5))
+                .isEqualTo(second.getContent());
+    }
+}
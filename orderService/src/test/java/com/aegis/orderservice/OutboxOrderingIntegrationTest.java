@@ -0,0 +1,119 @@
+package com.aegis.orderservice;
+
+import com.aegis.orderservice.Entity.OrderOutbox;
+import com.aegis.orderservice.repository.OrderOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outbox claims against Postgres: ids are not ordered across instances, so an order's events must be
+ * claimed by (created_at, id), one at a time.
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration",
+        "app.outbox.relay.enabled=false"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxOrderingIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("orders_db")
+            .withUsername("postgres")
+            .withPassword("postgres");
+
+    @DynamicPropertySource
+    static void configureDatasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    OrderOutboxRepository outboxRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clearOutbox() {
+        jdbcTemplate.update("DELETE FROM order_outbox");
+    }
+
+    @Test
+    void laterEventWithASmallerIdWaitsForTheEarlierOne() {
+        UUID order = UUID.randomUUID();
+        // Written second, but by an instance whose id block is lower
+        insertEvent(1_000, order, "OrderCreated", -10);
+        insertEvent(900, order, "OrderStatusChanged", -5);
+
+        assertThat(claimAndPublish()).containsExactly(1_000L);
+        assertThat(claimAndPublish()).containsExactly(900L);
+        assertThat(claimAndPublish()).isEmpty();
+    }
+
+    @Test
+    void batchTakesOneEventPerOrder() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        insertEvent(1, first, "OrderCreated", -10);
+        insertEvent(2, second, "OrderCreated", -9);
+        insertEvent(3, first, "OrderStatusChanged", -8);
+
+        assertThat(claimAndPublish()).containsExactly(1L, 2L);
+        assertThat(claimAndPublish()).containsExactly(3L);
+    }
+
+    @Test
+    void createdAtIsAssignedByTheDatabase() {
+        UUID order = UUID.randomUUID();
+        OrderOutbox row = new OrderOutbox();
+        row.setAggregateId(order);
+        row.setEventType("OrderCreated");
+        row.setPayload("{}");
+        row.setCreatedAt(Instant.parse("2000-01-01T00:00:00Z"));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> outboxRepository.save(row));
+
+        Timestamp stored = jdbcTemplate.queryForObject(
+                "SELECT created_at FROM order_outbox WHERE aggregate_id = ?", Timestamp.class, order);
+        assertThat(stored.toInstant()).isAfter(Instant.parse("2020-01-01T00:00:00Z"));
+    }
+
+    /** Claims one batch the way the relay does and marks it published; returns the claimed ids in order. */
+    private List<Long> claimAndPublish() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> ids = outboxRepository.claimUnpublished(10).stream().map(OrderOutbox::getId).toList();
+            if (!ids.isEmpty()) {
+                outboxRepository.markPublished(ids, Instant.now());
+            }
+            return ids;
+        });
+    }
+
+    private void insertEvent(long id, UUID aggregateId, String eventType, int offsetSeconds) {
+        jdbcTemplate.update("""
+                INSERT INTO order_outbox (id, aggregate_id, event_type, payload, created_at)
+                VALUES (?, ?, ?, '{}'::jsonb, CURRENT_TIMESTAMP + make_interval(secs => ?))
+                """, id, aggregateId, eventType, offsetSeconds);
+    }
+}
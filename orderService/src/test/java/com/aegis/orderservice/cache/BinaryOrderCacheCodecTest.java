@@ -0,0 +1,86 @@
+package com.aegis.orderservice.cache;
+
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.dto.OrderItemResponse;
+import com.aegis.orderservice.dto.OrderResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryOrderCacheCodecTest {
+
+    private final BinaryOrderCacheCodec codec = new BinaryOrderCacheCodec(512);
+
+    @Test
+    void roundTripsAllFields() {
+        CachedOrder entry = new CachedOrder(order(3), 12, 1_700_000_000_123L);
+
+        byte[] encoded = codec.encode(entry);
+
+        assertThat(encoded[0]).isEqualTo(BinaryOrderCacheCodec.VERSION);
+        assertThat(codec.decode(encoded)).isEqualTo(entry);
+    }
+
+    @Test
+    void roundTripsNullFieldsAndDecimalsBeyondLongRange() {
+        OrderResponse sparse = new OrderResponse();
+        sparse.setOrderId(UUID.randomUUID());
+        sparse.setTotalAmount(new BigDecimal("123456789012345678901234567890.12"));
+        sparse.setItems(List.of(new OrderItemResponse(null, "SKU-A", null, new BigDecimal("-0.5"), null)));
+        CachedOrder entry = new CachedOrder(sparse, 0, Long.MAX_VALUE);
+
+        assertThat(codec.decode(codec.encode(entry))).isEqualTo(entry);
+    }
+
+    @Test
+    void largeOrdersAreCompressedAndSmallerThanJson() throws Exception {
+        CachedOrder entry = new CachedOrder(order(200), 12, 1_700_000_000_123L);
+
+        byte[] encoded = codec.encode(entry);
+        byte[] json = new ObjectMapper().findAndRegisterModules().writeValueAsBytes(entry);
+
+        assertThat(encoded[1] & 1).as("deflated flag").isEqualTo(1);
+        assertThat(encoded.length).isLessThan(json.length / 4);
+        assertThat(codec.decode(encoded)).isEqualTo(entry);
+    }
+
+    @Test
+    void rejectsOtherVersionsAndTruncatedInput() {
+        byte[] encoded = codec.encode(new CachedOrder(order(3), 12, 1_700_000_000_123L));
+        byte[] otherVersion = encoded.clone();
+        otherVersion[0] = (byte) (BinaryOrderCacheCodec.VERSION + 1);
+
+        assertThat(codec.canDecode(otherVersion)).isFalse();
+        assertThat(codec.canDecode("{\"order\":{}}".getBytes())).isFalse();
+        assertThatThrownBy(() -> codec.decode(otherVersion)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.decode(Arrays.copyOf(encoded, encoded.length / 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static OrderResponse order(int items) {
+        List<OrderItemResponse> lines = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            lines.add(new OrderItemResponse((long) i + 1, "SKU-" + (i % 10), i + 1,
+                    new BigDecimal("19.99"), new BigDecimal("19.99").multiply(BigDecimal.valueOf(i + 1))));
+        }
+        return OrderResponse.builder()
+                .orderId(UUID.randomUUID())
+                .userId("user-42")
+                .currency("USD")
+                .status(OrderStatus.CONFIRMED)
+                .totalAmount(new BigDecimal("1234.50"))
+                .createdAt(Instant.parse("2026-01-02T03:04:05.123456789Z"))
+                .version(7L)
+                .items(lines)
+                .build();
+    }
+}
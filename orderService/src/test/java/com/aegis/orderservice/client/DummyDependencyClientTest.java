@@ -0,0 +1,73 @@
+package com.aegis.orderservice.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DummyDependencyClientTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Test
+    void reactiveCallRetriesTransientFailures() {
+        DummyDependencyClient client = client(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.OK);
+
+        assertThat(client.callReactive().block(Duration.ofSeconds(5))).isEqualTo("pong");
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void reactiveCallDoesNotRetryClientErrors() {
+        DummyDependencyClient client = client(HttpStatus.BAD_REQUEST);
+
+        assertThatThrownBy(() -> client.callReactive().block(Duration.ofSeconds(5)))
+                .isInstanceOf(ClientErrorException.class);
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void nothingIsSentUntilSubscribed() {
+        DummyDependencyClient client = client(HttpStatus.OK);
+
+        Mono<String> call = client.callReactive();
+
+        assertThat(requests).hasValue(0);
+        assertThat(call.block(Duration.ofSeconds(5))).isEqualTo("pong");
+    }
+
+    private DummyDependencyClient client(HttpStatus... statuses) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    int n = requests.getAndIncrement();
+                    HttpStatus status = statuses[Math.min(n, statuses.length - 1)];
+                    return Mono.just(ClientResponse.create(status)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+                            .body(status.is2xxSuccessful() ? "pong" : "")
+                            .build());
+                })
+                .build();
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(10))
+                .retryExceptions(WebClientResponseException.class)
+                .ignoreExceptions(ClientErrorException.class)
+                .build());
+        return new DummyDependencyClient(webClient, "http://dependency.test", CircuitBreakerRegistry.ofDefaults(),
+                retryRegistry, BulkheadRegistry.ofDefaults());
+    }
+}
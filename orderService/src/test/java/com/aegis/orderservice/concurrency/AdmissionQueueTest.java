@@ -0,0 +1,114 @@
+package com.aegis.orderservice.concurrency;
+
+import com.aegis.orderservice.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionQueueTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<AdmissionQueue.Rejection> rejections = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void waiterGetsPermitReleasedShortlyAfter() throws Exception {
+        AdmissionQueue queue = queue(1, 10, 1_000);
+        ConcurrencyLimiter.Permit held = queue.admit(AdmissionQueue.Lane.NEW, AdmissionQueue.NO_DEADLINE);
+
+        Future<ConcurrencyLimiter.Permit> waiting = executor.submit(() ->
+                queue.admit(AdmissionQueue.Lane.NEW, AdmissionQueue.NO_DEADLINE));
+        awaitQueued(queue, 1);
+        held.onSuccess();
+
+        assertThat(waiting.get(1, TimeUnit.SECONDS)).isNotNull();
+        assertThat(rejections).isEmpty();
+    }
+
+    @Test
+    void expiredDeadlineIsRejectedBeforeAdmission() {
+        AdmissionQueue queue = queue(1, 10, 1_000);
+
+        assertThatThrownBy(() -> queue.admit(AdmissionQueue.Lane.NEW, System.nanoTime() - 1))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .hasMessageContaining("deadline");
+        assertThat(rejections).containsExactly(AdmissionQueue.Rejection.DEADLINE_EXPIRED);
+    }
+
+    @Test
+    void waiterGivesUpAtItsDeadline() {
+        AdmissionQueue queue = queue(1, 10, 5_000);
+        queue.admit(AdmissionQueue.Lane.NEW, AdmissionQueue.NO_DEADLINE);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        assertThatThrownBy(() -> queue.admit(AdmissionQueue.Lane.NEW, deadline))
+                .isInstanceOf(ServiceOverloadedException.class);
+        assertThat(rejections).containsExactly(AdmissionQueue.Rejection.DEADLINE_EXPIRED);
+        assertThat(queue.getQueued()).isZero();
+    }
+
+    @Test
+    void fullQueueRejectsImmediately() throws Exception {
+        AdmissionQueue queue = queue(1, 1, 5_000);
+        queue.admit(AdmissionQueue.Lane.NEW, AdmissionQueue.NO_DEADLINE);
+        executor.submit(() -> queue.admit(AdmissionQueue.Lane.NEW, AdmissionQueue.NO_DEADLINE));
+        awaitQueued(queue, 1);
+
+        assertThatThrownBy(() -> queue.admit(AdmissionQueue.Lane.NEW, AdmissionQueue.NO_DEADLINE))
+                .isInstanceOf(ServiceOverloadedException.class);
+        assertThat(rejections).contains(AdmissionQueue.Rejection.QUEUE_FULL);
+    }
+
+    @Test
+    void retryLaneIsServedBeforeNewLane() throws Exception {
+        AdmissionQueue queue = queue(1, 10, 5_000);
+        queue.admit("k-retry", AdmissionQueue.NO_DEADLINE).onIgnore();
+        ConcurrencyLimiter.Permit holder = queue.admit(AdmissionQueue.Lane.NEW, AdmissionQueue.NO_DEADLINE);
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        Future<?> fresh = executor.submit(() -> {
+            ConcurrencyLimiter.Permit p = queue.admit("k-new", AdmissionQueue.NO_DEADLINE);
+            order.add("new");
+            p.onIgnore();
+        });
+        awaitQueued(queue, 1);
+        Future<?> retry = executor.submit(() -> {
+            ConcurrencyLimiter.Permit p = queue.admit("k-retry", AdmissionQueue.NO_DEADLINE);
+            order.add("retry");
+            p.onIgnore();
+        });
+        awaitQueued(queue, 2);
+
+        holder.onIgnore();
+        fresh.get(1, TimeUnit.SECONDS);
+        retry.get(1, TimeUnit.SECONDS);
+
+        assertThat(order).containsExactly("retry", "new");
+    }
+
+    private AdmissionQueue queue(int limit, int capacity, long maxWaitMs) {
+        // Large CoDel interval so shedding does not kick in during these tests
+        return new AdmissionQueue(new FixedConcurrencyLimiter(limit), capacity, 5, 60_000, maxWaitMs, 100, rejections::add);
+    }
+
+    private static void awaitQueued(AdmissionQueue queue, int expected) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (queue.getQueued() < expected && System.nanoTime() < until) {
+            Thread.sleep(5);
+        }
+        assertThat(queue.getQueued()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,75 @@
+package com.aegis.orderservice.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(60);
+
+    @Test
+    void limitGrowsWhileLatencyStaysAtBaselineUnderLoad() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 5, 200, 0.2, 1.5, 0.9);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(FAST, limiter.getLimit(), false);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void limitDoesNotGrowWhenMostlyIdle() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 5, 200, 0.2, 1.5, 0.9);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(FAST, 2, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRisesAboveBaseline() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(100, 5, 200, 0.2, 1.5, 0.9);
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(FAST, 100, false);
+        }
+        int beforeQueueing = limiter.getLimit();
+
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(SLOW, limiter.getLimit(), false);
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(beforeQueueing);
+    }
+
+    @Test
+    void overloadFailuresBackOffDownToMinLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 5, 200, 0.5, 1.5, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(FAST, 1, true);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void acquireStopsAtLimitAndPermitsReleaseOnce() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 10, 0.2, 1.5, 0.9);
+
+        var first = limiter.tryAcquire().orElseThrow();
+        limiter.tryAcquire().orElseThrow();
+        assertThat(limiter.tryAcquire()).isEmpty();
+
+        first.onIgnore();
+        first.onIgnore();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isPresent();
+    }
+}
@@ -1,14 +1,27 @@
 package com.aegis.orderservice.controllers;
 
 import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.concurrency.AdmissionQueue;
+import com.aegis.orderservice.concurrency.FixedConcurrencyLimiter;
+import com.aegis.orderservice.config.RateLimitProperties;
+import com.aegis.orderservice.dto.BatchCreateOrderRequest;
+import com.aegis.orderservice.dto.BatchCreateOrderResponse;
+import com.aegis.orderservice.dto.BatchGetOrderResult;
+import com.aegis.orderservice.dto.BatchGetOrdersRequest;
+import com.aegis.orderservice.dto.BatchGetOrdersResponse;
 import com.aegis.orderservice.dto.CreateOrderRequest;
 import com.aegis.orderservice.dto.CreateOrderResponse;
+import com.aegis.orderservice.dto.CursorPageResponse;
 import com.aegis.orderservice.dto.IdempotentCreateResult;
 import com.aegis.orderservice.dto.OrderItemResponse;
 import com.aegis.orderservice.dto.OrderResponse;
 import com.aegis.orderservice.dto.PageResponse;
 import com.aegis.orderservice.metrics.OrderMetrics;
+import com.aegis.orderservice.ratelimit.OrderRateLimits;
+import com.aegis.orderservice.ratelimit.RateLimiter;
+import com.aegis.orderservice.ratelimit.TokenBucketResult;
 import com.aegis.orderservice.services.resources.IOrderService;
+import com.aegis.orderservice.util.OrderCursor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
@@ -25,11 +38,16 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.*;
@@ -57,9 +75,18 @@ class OrdersControllerIdempotencyTest {
             return new ObjectMapper();
         }
 
+        static final FixedConcurrencyLimiter CREATE_LIMITER = new FixedConcurrencyLimiter(100);
+
+        @Bean
+        AdmissionQueue orderCreateAdmissionQueue() {
+            return new AdmissionQueue(CREATE_LIMITER, 0, 5, 100, 500, 100, null);
+        }
+
+        static final RateLimiter RATE_LIMITER = mock(RateLimiter.class);
+
         @Bean
-        java.util.concurrent.Semaphore orderCreateSemaphore() {
-            return new java.util.concurrent.Semaphore(100);
+        OrderRateLimits orderRateLimits() {
+            return new OrderRateLimits(RATE_LIMITER, new RateLimitProperties());
         }
 
         @Bean
@@ -82,7 +109,9 @@ class OrdersControllerIdempotencyTest {
 
     @BeforeEach
     void resetMocks() {
-        reset(orderService);
+        reset(orderService, TestConfig.RATE_LIMITER);
+        when(TestConfig.RATE_LIMITER.tryConsume(anyString(), anyInt(), anyDouble(), anyInt()))
+                .thenReturn(TokenBucketResult.allowed());
     }
 
     @Test
@@ -137,6 +166,154 @@ class OrdersControllerIdempotencyTest {
         verify(orderService).createOrderIdempotent(eq(key), any(CreateOrderRequest.class));
     }
 
+    @Test
+    void createOrder_completedKey_replaysStoredBytesWithoutCreatePath() throws Exception {
+        String key = "idem-" + UUID.randomUUID();
+        String body = """
+                {"userId":"u1","currency":"USD","items":[{"sku":"A","qty":1,"unitPrice":10.00}]}
+                """;
+        String storedJson = "{\"orderId\":\"" + UUID.randomUUID() + "\",\"status\":\"PENDING\",\"totalAmount\":10.00}";
+        when(orderService.findReplay(eq(key), any(CreateOrderRequest.class), anyLong()))
+                .thenReturn(Optional.of(IdempotentCreateResult.replay(201, storedJson)));
+
+        mockMvc.perform(post("/api/v1/orders")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(storedJson));
+        verify(orderService, never()).createOrderIdempotent(any(), any());
+    }
+
+    @Test
+    void createOrder_withSpentTimeoutBudget_returns503WithoutTouchingTheService() throws Exception {
+        String body = """
+                {"userId":"u1","currency":"USD","items":[{"sku":"A","qty":1,"unitPrice":10.00}]}
+                """;
+        for (String budget : List.of("0", "-5")) {
+            mockMvc.perform(post("/api/v1/orders")
+                            .header("Idempotency-Key", "idem-" + UUID.randomUUID())
+                            .header(OrdersController.REQUEST_TIMEOUT_HEADER, budget)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.error").value(org.hamcrest.Matchers.containsString("deadline")));
+        }
+        verify(orderService, never()).findReplay(any(), any(), anyLong());
+        verify(orderService, never()).createOrderIdempotent(any(), any());
+    }
+
+    @Test
+    void createOrder_waitingForAnInFlightKey_holdsNoCreatePermit() throws Exception {
+        String key = "idem-" + UUID.randomUUID();
+        String body = """
+                {"userId":"u1","currency":"USD","items":[{"sku":"A","qty":1,"unitPrice":10.00}]}
+                """;
+        String storedJson = "{\"orderId\":\"" + UUID.randomUUID() + "\"}";
+        List<Integer> inFlightWhileWaiting = new ArrayList<>();
+        // findReplay is where the wait for the key's owner happens
+        when(orderService.findReplay(eq(key), any(CreateOrderRequest.class), anyLong())).thenAnswer(inv -> {
+            inFlightWhileWaiting.add(TestConfig.CREATE_LIMITER.getInFlight());
+            return Optional.of(IdempotentCreateResult.replay(201, storedJson));
+        });
+
+        mockMvc.perform(post("/api/v1/orders")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(content().string(storedJson));
+
+        assertThat(inFlightWhileWaiting).containsExactly(0);
+        assertThat(TestConfig.CREATE_LIMITER.getInFlight()).isZero();
+        verify(orderService, never()).createOrderIdempotent(any(), any());
+    }
+
+    @Test
+    void createOrdersBatch_chargesOneCreateTokenPerEntry() throws Exception {
+        when(orderService.createOrdersBatch(any())).thenReturn(new BatchCreateOrderResponse(List.of()));
+
+        mockMvc.perform(post("/api/v1/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchBody(3)))
+                .andExpect(status().isOk());
+
+        verify(TestConfig.RATE_LIMITER).tryConsume("ratelimit:post:orders", 100, 20.0, 3);
+    }
+
+    @Test
+    void createOrdersBatch_whenTheBucketCannotPayForEveryEntry_returns429WithoutAdmission() throws Exception {
+        when(TestConfig.RATE_LIMITER.tryConsume(anyString(), anyInt(), anyDouble(), eq(5)))
+                .thenReturn(TokenBucketResult.rejected(4));
+
+        mockMvc.perform(post("/api/v1/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchBody(5)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "4"))
+                .andExpect(jsonPath("$.retryAfterSeconds").value(4));
+
+        assertThat(TestConfig.CREATE_LIMITER.getInFlight()).isZero();
+        verify(orderService, never()).createOrdersBatch(any());
+    }
+
+    @Test
+    void createOrdersBatch_aboveTheEntryLimit_returns400WithoutChargingTokens() throws Exception {
+        mockMvc.perform(post("/api/v1/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchBody(BatchCreateOrderRequest.MAX_ENTRIES + 1)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(TestConfig.RATE_LIMITER);
+        verify(orderService, never()).createOrdersBatch(any());
+    }
+
+    @Test
+    void getOrdersByIds_returnsResultsInRequestOrderWithNotFoundEntries() throws Exception {
+        UUID a = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(orderService.getOrdersByIds(List.of(a, missing, a))).thenReturn(new BatchGetOrdersResponse(List.of(
+                BatchGetOrderResult.found(order(a, 1)),
+                BatchGetOrderResult.notFound(missing),
+                BatchGetOrderResult.found(order(a, 1)))));
+
+        mockMvc.perform(post("/api/v1/orders/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(idsBody(List.of(a, missing, a))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(3))
+                .andExpect(jsonPath("$.results[0].orderId").value(a.toString()))
+                .andExpect(jsonPath("$.results[0].found").value(true))
+                .andExpect(jsonPath("$.results[1].orderId").value(missing.toString()))
+                .andExpect(jsonPath("$.results[1].found").value(false))
+                .andExpect(jsonPath("$.results[1].order").doesNotExist())
+                .andExpect(jsonPath("$.results[2].orderId").value(a.toString()));
+    }
+
+    @Test
+    void getOrdersByIds_acceptsUpToTheLimitAndRejectsMoreWith400() throws Exception {
+        List<UUID> atLimit = IntStream.range(0, BatchGetOrdersRequest.MAX_IDS).mapToObj(i -> UUID.randomUUID()).toList();
+        when(orderService.getOrdersByIds(any())).thenReturn(new BatchGetOrdersResponse(List.of()));
+
+        mockMvc.perform(post("/api/v1/orders/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(idsBody(atLimit)))
+                .andExpect(status().isOk());
+        List<UUID> overLimit = new ArrayList<>(atLimit);
+        overLimit.add(UUID.randomUUID());
+        mockMvc.perform(post("/api/v1/orders/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(idsBody(overLimit)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/orders/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(idsBody(List.of())))
+                .andExpect(status().isBadRequest());
+
+        verify(orderService, times(1)).getOrdersByIds(any());
+    }
+
     @Test
     void getOrderById_whenFound_returns200WithBody() throws Exception {
         UUID orderId = UUID.randomUUID();
@@ -161,6 +338,79 @@ class OrdersControllerIdempotencyTest {
         verify(orderService).getOrderById(orderId);
     }
 
+    @Test
+    void getOrderById_setsStrongETagFromVersion() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        when(orderService.getOrderById(orderId)).thenReturn(Optional.of(order(orderId, 3L)));
+
+        mockMvc.perform(get("/api/v1/orders/{orderId}", orderId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + orderId + ":3\""));
+        verify(orderService, never()).getCachedOrderVersion(any());
+    }
+
+    @Test
+    void getOrderById_ifNoneMatchOnCachedVersion_returns304WithoutLoadingTheOrder() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        when(orderService.getCachedOrderVersion(orderId)).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/api/v1/orders/{orderId}", orderId)
+                        .header("If-None-Match", "\"other\", \"" + orderId + ":3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"" + orderId + ":3\""))
+                .andExpect(content().string(""));
+        verify(orderService, never()).getOrderById(any());
+    }
+
+    @Test
+    void getOrderById_ifNoneMatchOnOlderVersion_returnsTheCurrentOrder() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        when(orderService.getCachedOrderVersion(orderId)).thenReturn(Optional.of(4L));
+        when(orderService.getOrderById(orderId)).thenReturn(Optional.of(order(orderId, 4L)));
+
+        mockMvc.perform(get("/api/v1/orders/{orderId}", orderId)
+                        .header("If-None-Match", "\"" + orderId + ":3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + orderId + ":4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    void getOrderById_ifNoneMatchWithoutCachedVersion_comparesTheLoadedOrder() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        when(orderService.getCachedOrderVersion(orderId)).thenReturn(Optional.empty());
+        when(orderService.getOrderById(orderId)).thenReturn(Optional.of(order(orderId, 3L)));
+
+        mockMvc.perform(get("/api/v1/orders/{orderId}", orderId)
+                        .header("If-None-Match", "\"" + orderId + ":3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void listOrders_setsWeakETagAndHonoursIfNoneMatch() throws Exception {
+        PageResponse<OrderResponse> page = PageResponse.<OrderResponse>builder()
+                .content(List.of(order(UUID.randomUUID(), 1L)))
+                .totalElements(1)
+                .totalPages(1)
+                .number(0)
+                .size(20)
+                .first(true)
+                .last(true)
+                .build();
+        when(orderService.getOrders(nullable(String.class), nullable(OrderStatus.class), eq(0), eq(20), eq("createdAt"), eq(true)))
+                .thenReturn(page);
+
+        String etag = mockMvc.perform(get("/api/v1/orders"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.startsWith("W/\"")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/orders").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void getOrderById_whenNotFound_returns404() throws Exception {
         UUID orderId = UUID.randomUUID();
@@ -192,4 +442,54 @@ class OrdersControllerIdempotencyTest {
                 .andExpect(jsonPath("$.size").value(20));
         verify(orderService).getOrders(nullable(String.class), nullable(OrderStatus.class), eq(0), eq(20), eq("createdAt"), eq(true));
     }
+
+    @Test
+    void listOrders_withEmptyCursor_usesKeysetPagingWithoutCount() throws Exception {
+        String next = new OrderCursor(Instant.parse("2026-01-01T00:00:00Z"), UUID.randomUUID(), true).encode();
+        CursorPageResponse<OrderResponse> page = CursorPageResponse.<OrderResponse>builder()
+                .content(List.of())
+                .size(20)
+                .hasNext(true)
+                .nextCursor(next)
+                .build();
+        when(orderService.getOrdersAfter(nullable(String.class), nullable(OrderStatus.class), isNull(), eq(20), eq(true), eq(false)))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/orders").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value(next))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+        verify(orderService, never()).getOrders(any(), any(), anyInt(), anyInt(), any(), anyBoolean());
+    }
+
+    @Test
+    void listOrders_withGarbageCursor_returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/orders").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String idsBody(List<UUID> ids) {
+        return ids.stream().map(id -> "\"" + id + "\"").collect(Collectors.joining(",", "{\"orderIds\":[", "]}"));
+    }
+
+    private static String batchBody(int entries) {
+        return IntStream.range(0, entries)
+                .mapToObj(i -> """
+                        {"idempotencyKey":"batch-%d","order":{"userId":"u1","currency":"USD","items":[{"sku":"A","qty":1,"unitPrice":10.00}]}}""".formatted(i))
+                .collect(Collectors.joining(",", "{\"orders\":[", "]}"));
+    }
+
+    private static OrderResponse order(UUID orderId, long version) {
+        return OrderResponse.builder()
+                .orderId(orderId)
+                .userId("u1")
+                .currency("USD")
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("10.00"))
+                .createdAt(Instant.parse("2026-01-01T00:00:00Z"))
+                .version(version)
+                .items(List.of())
+                .build();
+    }
 }
@@ -0,0 +1,101 @@
+package com.aegis.orderservice.datasource;
+
+import com.aegis.orderservice.metrics.OrderMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MS = 1000;
+
+    private final HikariDataSource primary = mock(HikariDataSource.class);
+    private final HikariDataSource replicaPool1 = mock(HikariDataSource.class);
+    private final HikariDataSource replicaPool2 = mock(HikariDataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection1 = mock(Connection.class);
+    private final Connection replicaConnection2 = mock(Connection.class);
+    private final OrderMetrics orderMetrics = mock(OrderMetrics.class);
+
+    private ReplicaRoutingDataSource.Replica replica1;
+    private ReplicaRoutingDataSource.Replica replica2;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaPool1.getConnection()).thenReturn(replicaConnection1);
+        when(replicaPool2.getConnection()).thenReturn(replicaConnection2);
+        replica1 = new ReplicaRoutingDataSource.Replica("replica-1", replicaPool1, MAX_LAG_MS);
+        replica2 = new ReplicaRoutingDataSource.Replica("replica-2", replicaPool2, MAX_LAG_MS);
+        replica1.markUp(0);
+        replica2.markUp(0);
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2), orderMetrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readWriteTransactionsUsePrimary() throws SQLException {
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void readOnlyTransactionsRoundRobinOverReplicas() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(List.of(routing.getConnection(), routing.getConnection(), routing.getConnection()))
+                .containsExactly(replicaConnection1, replicaConnection2, replicaConnection1);
+    }
+
+    @Test
+    void laggingOrDownReplicasAreSkippedThenPrimaryIsUsed() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        replica1.markUp(MAX_LAG_MS + 1);
+
+        assertThat(routing.getConnection()).isSameAs(replicaConnection2);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection2);
+
+        replica2.markDown();
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        verify(orderMetrics).recordReplicaFallback();
+    }
+
+    @Test
+    void pinnedPrimaryOverridesReadOnlyRouting() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try (ReadRouting.Scope outer = ReadRouting.pinPrimary()) {
+            try (ReadRouting.Scope inner = ReadRouting.pinPrimary()) {
+                assertThat(routing.getConnection()).isSameAs(primaryConnection);
+            }
+            assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        }
+        assertThat(ReadRouting.isPrimaryPinned()).isFalse();
+        assertThat(routing.getConnection()).isSameAs(replicaConnection1);
+    }
+
+    @Test
+    void replicaConnectionFailureMarksItDownAndFallsBackToPrimary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaPool1.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(replica1.isAvailable()).isFalse();
+        assertThat(routing.getConnection()).isSameAs(replicaConnection2);
+    }
+}
@@ -0,0 +1,63 @@
+package com.aegis.orderservice.outbox;
+
+import com.aegis.orderservice.Entity.OrderOutbox;
+import com.aegis.orderservice.repository.OrderOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OrderOutboxRepository repository = mock(OrderOutboxRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void drainsFullBatchesAndMarksThemPublished() {
+        when(repository.claimUnpublished(2))
+                .thenReturn(rows(1, 2), rows(3, 4), rows(5), List.of());
+        InMemoryOutboxEventSink sink = new InMemoryOutboxEventSink();
+        OutboxRelay relay = new OutboxRelay(repository, sink, null, transactionManager, 2, 10);
+
+        relay.relay();
+
+        assertThat(sink.events()).extracting(OutboxEvent::id).containsExactly(1L, 2L, 3L, 4L, 5L);
+        verify(repository).markPublished(eq(List.of(1L, 2L)), any(Instant.class));
+        verify(repository, times(3)).markPublished(anyCollection(), any(Instant.class));
+        verify(repository, times(3)).claimUnpublished(2);
+    }
+
+    @Test
+    void sinkFailureLeavesBatchUnpublished() throws Exception {
+        when(repository.claimUnpublished(10)).thenReturn(rows(1, 2));
+        OutboxEventSink sink = mock(OutboxEventSink.class);
+        doThrow(new IllegalStateException("broker down")).when(sink).publish(anyList());
+        OutboxRelay relay = new OutboxRelay(repository, sink, null, transactionManager, 10, 10);
+
+        relay.relay();
+
+        verify(repository, never()).markPublished(anyCollection(), any(Instant.class));
+        verify(transactionManager).rollback(any());
+    }
+
+    private static List<OrderOutbox> rows(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> new OrderOutbox(id, UUID.randomUUID(), OutboxWriter.ORDER_CREATED, "{}", Instant.now(), null))
+                .toList();
+    }
+}
@@ -0,0 +1,29 @@
+package com.aegis.orderservice.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTokenBucketRateLimiterTest {
+
+    private final InMemoryTokenBucketRateLimiter limiter = new InMemoryTokenBucketRateLimiter();
+
+    @Test
+    void multiTokenCostIsTakenWhollyOrNotAtAll() {
+        assertThat(limiter.tryConsume("k", 10, 0.001, 7).isAllowed()).isTrue();
+
+        TokenBucketResult rejected = limiter.tryConsume("k", 10, 0.001, 4);
+
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getRetryAfterSeconds()).isGreaterThan(1);
+        // The rejected request took nothing; the remaining tokens are still there
+        assertThat(limiter.tryConsume("k", 10, 0.001, 3).isAllowed()).isTrue();
+        assertThat(limiter.tryConsume("k", 10, 0.001).isAllowed()).isFalse();
+    }
+
+    @Test
+    void costAboveCapacityIsNeverAllowed() {
+        assertThat(limiter.tryConsume("k", 10, 1000, 11).isAllowed()).isFalse();
+        assertThat(limiter.tryConsume("k", 10, 1000, 10).isAllowed()).isTrue();
+    }
+}
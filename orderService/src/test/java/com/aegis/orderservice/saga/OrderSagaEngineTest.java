@@ -0,0 +1,211 @@
+package com.aegis.orderservice.saga;
+
+import com.aegis.orderservice.Entity.OrderItems;
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.Entity.Orders;
+import com.aegis.orderservice.client.ClientErrorException;
+import com.aegis.orderservice.client.InventoryClient;
+import com.aegis.orderservice.client.PaymentClient;
+import com.aegis.orderservice.config.ExecutorFactory;
+import com.aegis.orderservice.outbox.OutboxWriter;
+import com.aegis.orderservice.repository.OrderRepository;
+import com.aegis.orderservice.repository.StalledSagaClaim;
+import com.aegis.orderservice.services.OrderCacheService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderSagaEngineTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OutboxWriter outboxWriter = mock(OutboxWriter.class);
+    private final InventoryClient inventoryClient = mock(InventoryClient.class);
+    private final PaymentClient paymentClient = mock(PaymentClient.class);
+    private OrderSagaEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void advancesPendingOrderToConfirmed() throws Exception {
+        Orders order = pendingOrder();
+        when(inventoryClient.reserve(anyList())).thenReturn("res-1");
+        when(paymentClient.authorize(anyString(), any(), anyString())).thenReturn("auth-1");
+        engine = engine(1000);
+
+        OrderStatus result = engine.start(order.getId()).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(order.getReservationId()).isEqualTo("res-1");
+        assertThat(order.getPaymentAuthorizationId()).isEqualTo("auth-1");
+        verify(outboxWriter).statusChanged(order.getId(), OrderStatus.PENDING, OrderStatus.RESERVED, null);
+        verify(outboxWriter).statusChanged(order.getId(), OrderStatus.PAYMENT_AUTHORIZED, OrderStatus.CONFIRMED, null);
+        verify(inventoryClient, never()).release(anyString());
+    }
+
+    @Test
+    void failedAuthorizationReleasesReservationAndFailsOrder() throws Exception {
+        Orders order = pendingOrder();
+        when(inventoryClient.reserve(anyList())).thenReturn("res-2");
+        when(paymentClient.authorize(anyString(), any(), anyString()))
+                .thenThrow(new ClientErrorException("Payment declined", null));
+        engine = engine(1000);
+
+        OrderStatus result = engine.start(order.getId()).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo(OrderStatus.FAILED);
+        assertThat(order.getFailureReason()).contains("Payment declined");
+        verify(inventoryClient).release("res-2");
+        verify(outboxWriter).statusChanged(eq(order.getId()), eq(OrderStatus.RESERVED), eq(OrderStatus.FAILED), anyString());
+    }
+
+    @Test
+    void sagaOverInFlightLimitIsDeferred() throws Exception {
+        Orders order = pendingOrder();
+        when(inventoryClient.reserve(anyList())).thenAnswer(inv -> {
+            Thread.sleep(200);
+            return "res-3";
+        });
+        when(paymentClient.authorize(anyString(), any(), anyString())).thenReturn("auth-3");
+        engine = engine(1);
+
+        var first = engine.start(order.getId());
+        assertThat(engine.start(pendingOrder().getId()).get(1, TimeUnit.SECONDS)).isNull();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void runningSagaIsNotStartedTwiceAndKeepsItsLease() throws Exception {
+        Orders order = pendingOrder();
+        CountDownLatch reserving = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        when(inventoryClient.reserve(anyList())).thenAnswer(inv -> {
+            reserving.countDown();
+            proceed.await(5, TimeUnit.SECONDS);
+            return "res-4";
+        });
+        when(paymentClient.authorize(anyString(), any(), anyString())).thenReturn("auth-4");
+        engine = engine(1000);
+
+        var first = engine.start(order.getId());
+        assertThat(reserving.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(engine.start(order.getId()).get(1, TimeUnit.SECONDS)).isNull();
+        engine.heartbeat();
+        proceed.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(OrderStatus.CONFIRMED);
+        verify(orderRepository).touchRunningSagas(eq(List.of(order.getId())), any());
+        verify(inventoryClient, times(1)).reserve(anyList());
+    }
+
+    @Test
+    void lostAuthorizationTransitionVoidsOnlyItsOwnAuthorization() {
+        Orders order = pendingOrder();
+        when(inventoryClient.reserve(anyList())).thenReturn("res-5");
+        when(paymentClient.authorize(anyString(), any(), anyString())).thenAnswer(inv -> {
+            // Another run authorized and moved the order while this one was waiting on payment
+            order.setPaymentAuthorizationId("auth-other");
+            order.setStatus(OrderStatus.PAYMENT_AUTHORIZED);
+            return "auth-mine";
+        });
+        engine = engine(1000);
+
+        assertThatThrownBy(() -> engine.start(order.getId()).get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(paymentClient).voidAuthorization("auth-mine");
+        verify(paymentClient, never()).voidAuthorization("auth-other");
+        verify(inventoryClient, never()).release(anyString());
+        assertThat(order.getPaymentAuthorizationId()).isEqualTo("auth-other");
+    }
+
+    @Test
+    void lostCompensationTransitionReleasesNothing() {
+        Orders order = pendingOrder();
+        when(inventoryClient.reserve(anyList())).thenReturn("res-6");
+        when(paymentClient.authorize(anyString(), any(), anyString())).thenAnswer(inv -> {
+            // Another run already confirmed the order; the reservation is in use
+            order.setStatus(OrderStatus.CONFIRMED);
+            throw new ClientErrorException("Payment declined", null);
+        });
+        engine = engine(1000);
+
+        assertThatThrownBy(() -> engine.start(order.getId()).get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(inventoryClient, never()).release(anyString());
+        verify(outboxWriter, never()).statusChanged(eq(order.getId()), eq(OrderStatus.RESERVED), eq(OrderStatus.FAILED), anyString());
+    }
+
+    @Test
+    void claimedStalledOrdersAreEvictedFromTheCacheWithTheBumpedVersion() {
+        Orders order = pendingOrder();
+        order.setStatus(OrderStatus.CONFIRMED);
+        StalledSagaClaim claim = mock(StalledSagaClaim.class);
+        when(claim.getId()).thenReturn(order.getId());
+        when(claim.getUserId()).thenReturn("u1");
+        when(claim.getVersion()).thenReturn(7L);
+        when(orderRepository.claimStalledSagas(any(), any(), anyInt())).thenReturn(List.of(claim));
+        OrderCacheService orderCache = mock(OrderCacheService.class);
+        engine = new OrderSagaEngine(orderRepository, outboxWriter, inventoryClient, paymentClient, null, orderCache, null,
+                mock(PlatformTransactionManager.class), new ExecutorFactory(false), 4, 1000, 2, 60_000, 100);
+
+        engine.resumeStalled();
+
+        // Evicted synchronously, before the resumed saga is started
+        verify(orderCache).invalidate(order.getId(), 7L);
+        verify(orderCache, never()).invalidate(order.getId());
+        verify(orderRepository, timeout(5_000)).findByIdWithItems(order.getId());
+    }
+
+    private OrderSagaEngine engine(int maxInFlight) {
+        return new OrderSagaEngine(orderRepository, outboxWriter, inventoryClient, paymentClient, null, null, null,
+                mock(PlatformTransactionManager.class), new ExecutorFactory(false), 4, maxInFlight, 2, 60_000, 100);
+    }
+
+    private Orders pendingOrder() {
+        Orders order = new Orders();
+        order.setId(UUID.randomUUID());
+        order.setUserId("u1");
+        order.setCurrency("USD");
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("10.00"));
+        order.setCreatedAt(Instant.now());
+        order.setUpdatedAt(Instant.now());
+        OrderItems item = new OrderItems();
+        item.setOrder(order);
+        item.setSku("SKU-A");
+        item.setQty(1);
+        item.setUnitPrice(new BigDecimal("10.00"));
+        item.setLineAmount(new BigDecimal("10.00"));
+        order.setItems(List.of(item));
+        when(orderRepository.findByIdWithItems(order.getId())).thenReturn(Optional.of(order));
+        when(orderRepository.saveAndFlush(order)).thenReturn(order);
+        return order;
+    }
+}
@@ -0,0 +1,78 @@
+package com.aegis.orderservice.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyCacheServiceTest {
+
+    private StringRedisTemplate redis;
+    private ValueOperations<String, String> values;
+    private IdempotencyCacheService cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        cache = new IdempotencyCacheService(redis, 86400, 30000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void markerIsTakenWithSetNxAndCarriesTheRequestHash() {
+        when(values.setIfAbsent(eq("idem:inflight:k"), startsWith("hash-1|"), eq(Duration.ofMillis(30000))))
+                .thenReturn(true);
+
+        Optional<String> token = cache.tryMarkInProgress("k", "hash-1");
+
+        assertThat(token).get().asString().startsWith("hash-1|");
+        verify(values).setIfAbsent(eq("idem:inflight:k"), eq(token.get()), eq(Duration.ofMillis(30000)));
+    }
+
+    @Test
+    void markerHeldByAnotherRequestIsNotAcquired() {
+        when(values.setIfAbsent(eq("idem:inflight:k"), anyString(), eq(Duration.ofMillis(30000)))).thenReturn(false);
+        when(values.get("idem:inflight:k")).thenReturn("hash-other|owner-token");
+
+        assertThat(cache.tryMarkInProgress("k", "hash-1")).isEmpty();
+        assertThat(cache.inProgressHash("k")).contains("hash-other");
+        assertThat(cache.inProgressHash("free")).isEmpty();
+    }
+
+    @Test
+    void completedEntryIsParsedWithBodyIntactAndMalformedOnesAreIgnored() {
+        when(values.get("idem:done:k")).thenReturn("hash-1|201|{\"note\":\"a|b\"}");
+        when(values.get("idem:done:bad")).thenReturn("hash-1|abc|{}");
+
+        assertThat(cache.getCompleted("k")).contains(
+                new IdempotencyCacheService.StoredResponse("hash-1", 201, "{\"note\":\"a|b\"}"));
+        assertThat(cache.getCompleted("bad")).isEmpty();
+        assertThat(cache.getCompleted("missing")).isEmpty();
+    }
+
+    @Test
+    void completedResponseIsStoredWithItsTtl() {
+        cache.putCompleted("k", "hash-1", 201, "{}");
+
+        verify(values).set("idem:done:k", "hash-1|201|{}", Duration.ofSeconds(86400));
+    }
+}
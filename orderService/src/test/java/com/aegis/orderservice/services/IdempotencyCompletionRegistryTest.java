@@ -0,0 +1,39 @@
+package com.aegis.orderservice.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyCompletionRegistryTest {
+
+    private final IdempotencyCompletionRegistry registry = new IdempotencyCompletionRegistry();
+
+    @Test
+    void waiterGivingUpDoesNotUnregisterTheOthers() {
+        CompletableFuture<Void> first = registry.listen("k");
+        CompletableFuture<Void> second = registry.listen("k");
+
+        registry.forget("k", first);
+        registry.released("k");
+
+        assertThat(second).isCompleted();
+        assertThat(first).isNotDone();
+    }
+
+    @Test
+    void releaseWakesEveryWaiterOnceAndLaterListenersWaitForTheNextRelease() {
+        CompletableFuture<Void> first = registry.listen("k");
+        CompletableFuture<Void> second = registry.listen("k");
+
+        registry.released("k");
+        CompletableFuture<Void> late = registry.listen("k");
+
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+        assertThat(late).isNotDone();
+        registry.released("k");
+        assertThat(late).isCompleted();
+    }
+}
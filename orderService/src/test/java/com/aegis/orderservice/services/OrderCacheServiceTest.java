@@ -0,0 +1,403 @@
+package com.aegis.orderservice.services;
+
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.cache.BinaryOrderCacheCodec;
+import com.aegis.orderservice.cache.CachedOrder;
+import com.aegis.orderservice.cache.JsonOrderCacheCodec;
+import com.aegis.orderservice.dto.OrderResponse;
+import com.aegis.orderservice.metrics.OrderMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderCacheServiceTest {
+
+    private StringRedisTemplate redis;
+    private ValueOperations<String, String> values;
+    private RedisTemplate<String, byte[]> valueRedis;
+    private ValueOperations<String, byte[]> bytes;
+    private RedisStringCommands pipelinedStrings;
+    private RedisScriptingCommands scripting;
+    /** What each conditional store in a pipeline returns: 1 stored, 0 skipped. */
+    private volatile long storeResult = 1L;
+    private SimpleMeterRegistry registry;
+    private OrderCacheService cache;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final BinaryOrderCacheCodec binary = new BinaryOrderCacheCodec(512);
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        valueRedis = mock(RedisTemplate.class);
+        bytes = mock(ValueOperations.class);
+        when(valueRedis.opsForValue()).thenReturn(bytes);
+        // Run pipelined callbacks against a mock connection so the individual writes can be verified
+        RedisConnection connection = mock(RedisConnection.class);
+        pipelinedStrings = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(pipelinedStrings);
+        when(connection.keyCommands()).thenReturn(mock(RedisKeyCommands.class));
+        scripting = mock(RedisScriptingCommands.class);
+        when(connection.scriptingCommands()).thenReturn(scripting);
+        List<Object> pipelined = new ArrayList<>();
+        when(scripting.eval(any(byte[].class), any(ReturnType.class), anyInt(), any(byte[][].class))).thenAnswer(inv -> {
+            pipelined.add(storeResult);
+            return null;
+        });
+        when(valueRedis.executePipelined(any(RedisCallback.class))).thenAnswer(inv -> {
+            synchronized (pipelined) {
+                pipelined.clear();
+                inv.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+                return List.copyOf(pipelined);
+            }
+        });
+        registry = new SimpleMeterRegistry();
+        cache = new OrderCacheService(redis, valueRedis, List.of(binary, new JsonOrderCacheCodec(objectMapper)),
+                BinaryOrderCacheCodec.NAME, new OrderMetrics(registry), true, 1000, 30, 1000,
+                true, 1.0, 60, 1, 10, 60);
+    }
+
+    @Test
+    void redisHitIsPromotedToL1AndServedLocallyAfterwards() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        // Plain OrderResponse JSON, as written before the envelope and binary codec
+        when(bytes.get("order:" + orderId)).thenReturn(objectMapper.writeValueAsBytes(order(orderId)));
+
+        assertThat(cache.get(orderId)).map(OrderResponse::getOrderId).contains(orderId);
+        assertThat(cache.get(orderId)).map(OrderResponse::getOrderId).contains(orderId);
+
+        verify(bytes, times(1)).get(anyString());
+        assertThat(registry.counter("cache.l2.hit.count").count()).isEqualTo(1);
+        assertThat(registry.counter("cache.l1.hit.count").count()).isEqualTo(1);
+        assertThat(registry.counter("cache.hit.count").count()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidateDropsBothTiersAndBroadcasts() {
+        UUID orderId = UUID.randomUUID();
+        cache.set(orderId, order(orderId));
+
+        cache.invalidate(orderId);
+
+        assertThat(cache.get(orderId)).isEmpty();
+        verify(redis).delete(List.of("order:" + orderId, "order:ver:" + orderId));
+        verify(redis).convertAndSend(OrderCacheService.INVALIDATION_CHANNEL, orderId.toString());
+        assertThat(registry.counter("cache.miss.count").count()).isEqualTo(1);
+    }
+
+    @Test
+    void remoteInvalidationEvictsOnlyTheLocalCopy() {
+        UUID orderId = UUID.randomUUID();
+        cache.set(orderId, order(orderId));
+
+        cache.evictLocal(orderId);
+        cache.get(orderId);
+
+        verify(bytes).get("order:" + orderId);
+        verify(redis, times(0)).delete(anyString());
+        verify(redis, times(0)).delete(any(Collection.class));
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        when(values.setIfAbsent(eq("lock:order:" + orderId), anyString(), any())).thenReturn(true);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<Optional<OrderResponse>>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> cache.getOrLoad(orderId, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Optional.of(order(orderId));
+            })));
+        }
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        // Give the other callers time to miss and join the in-flight load
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<Optional<OrderResponse>> f : results) {
+            assertThat(f.get(5, TimeUnit.SECONDS)).map(OrderResponse::getOrderId).contains(orderId);
+        }
+        executor.shutdown();
+
+        assertThat(loads.get()).isEqualTo(1);
+        verify(redis).convertAndSend(OrderCacheService.LOADED_CHANNEL, orderId.toString());
+    }
+
+    @Test
+    void lockHeldElsewhereWaitsForLoadNotificationInsteadOfQueryingDb() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        byte[] encoded = binary.encode(new CachedOrder(order(orderId), 5, System.currentTimeMillis() + 60_000));
+        when(values.setIfAbsent(eq("lock:order:" + orderId), anyString(), any())).thenReturn(false);
+        // Initial miss and the re-check before waiting; the holder's value is visible once notified
+        when(bytes.get("order:" + orderId)).thenReturn(null, null, encoded);
+        AtomicInteger loads = new AtomicInteger();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Optional<OrderResponse>> result = executor.submit(() -> cache.getOrLoad(orderId, () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }));
+        Thread.sleep(100);
+        cache.loaded(orderId);
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).map(OrderResponse::getOrderId).contains(orderId);
+        executor.shutdown();
+        assertThat(loads.get()).isZero();
+    }
+
+    @Test
+    void staleEntryIsServedWhileOneBackgroundRefreshReloadsIt() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        OrderResponse stale = order(orderId);
+        stale.setStatus(OrderStatus.PENDING);
+        when(bytes.get("order:" + orderId)).thenReturn(binary.encode(
+                new CachedOrder(stale, 5, System.currentTimeMillis() - 1_000)));
+        when(values.setIfAbsent(eq("lock:order:" + orderId), anyString(), any())).thenReturn(true);
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        Optional<OrderResponse> served = cache.getOrLoad(orderId, () -> {
+            OrderResponse fresh = order(orderId);
+            fresh.setStatus(OrderStatus.CONFIRMED);
+            refreshed.countDown();
+            return Optional.of(fresh);
+        });
+
+        assertThat(served).map(OrderResponse::getStatus).contains(OrderStatus.PENDING);
+        assertThat(refreshed.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(scripting, timeout(5_000)).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(2),
+                aryEq(key("order:" + orderId)), aryEq(key("order:ver:" + orderId)), aryEq(key("")),
+                any(byte[].class), aryEq(key("4")), any(byte[].class));
+        assertThat(registry.counter("cache.stale.served.count").count()).isEqualTo(1);
+    }
+
+    @Test
+    void fillIsStoredOnlyIfTheVersionKeyHasNotMovedSinceTheRead() {
+        UUID orderId = UUID.randomUUID();
+        when(values.get("order:ver:" + orderId)).thenReturn("3");
+        when(values.setIfAbsent(eq("lock:order:" + orderId), anyString(), any())).thenReturn(true);
+        // Invalidated while the load ran: the script declines the store
+        storeResult = 0L;
+
+        Optional<OrderResponse> loaded = cache.getOrLoad(orderId, () -> Optional.of(order(orderId)));
+
+        assertThat(loaded).map(OrderResponse::getOrderId).contains(orderId);
+        verify(scripting).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(2),
+                aryEq(key("order:" + orderId)), aryEq(key("order:ver:" + orderId)), aryEq(key("3")),
+                any(byte[].class), aryEq(key("4")), any(byte[].class));
+        verify(pipelinedStrings, never()).set(any(byte[].class), any(byte[].class), any(), any());
+        cache.get(orderId);
+        assertThat(registry.counter("cache.l1.hit.count").count()).isZero();
+    }
+
+    @Test
+    void setAllIfUnchangedPutsOnlyStoredEntriesInL1() {
+        UUID a = UUID.randomUUID();
+        when(values.multiGet(List.of("order:ver:" + a))).thenReturn(Arrays.asList("5"));
+        Map<UUID, String> markers = cache.versionMarkers(List.of(a));
+        storeResult = 0L;
+
+        cache.setAllIfUnchanged(Map.of(a, order(a)), markers, 3);
+
+        assertThat(markers).containsEntry(a, "5");
+        verify(scripting).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(2),
+                aryEq(key("order:" + a)), aryEq(key("order:ver:" + a)), aryEq(key("5")),
+                any(byte[].class), aryEq(key("4")), any(byte[].class));
+        cache.get(a);
+        assertThat(registry.counter("cache.l1.hit.count").count()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void versionedInvalidateLeavesTheNewVersionAsAFloor() {
+        UUID orderId = UUID.randomUUID();
+        cache.set(orderId, order(orderId));
+
+        cache.invalidate(orderId, 5);
+
+        verify(redis).execute(any(RedisScript.class), eq(List.of("order:" + orderId, "order:ver:" + orderId)),
+                eq("5"), eq("60000"));
+        verify(redis).convertAndSend(OrderCacheService.INVALIDATION_CHANNEL, orderId.toString());
+        verify(redis, never()).delete(any(Collection.class));
+        assertThat(registry.counter("cache.l1.hit.count").count()).isZero();
+        cache.get(orderId);
+        assertThat(registry.counter("cache.l1.hit.count").count()).isZero();
+    }
+
+    @Test
+    void freshEntryWithZeroComputeTimeIsNeverRefreshedEarly() {
+        UUID orderId = UUID.randomUUID();
+        cache.set(orderId, order(orderId));
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            cache.getOrLoad(orderId, () -> {
+                loads.incrementAndGet();
+                return Optional.empty();
+            });
+        }
+
+        assertThat(loads.get()).isZero();
+        assertThat(registry.counter("cache.refresh.early.count").count()).isZero();
+    }
+
+    @Test
+    void setAfterCommitWritesOnlyOnceTheTransactionCommits() {
+        UUID orderId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.setAfterCommit(orderId, order(orderId));
+            verify(scripting, never()).eval(any(byte[].class), any(ReturnType.class), anyInt(), any(byte[][].class));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(scripting).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(2),
+                aryEq(key("order:" + orderId)), aryEq(key("order:ver:" + orderId)),
+                any(byte[].class), aryEq(key("4")), any(byte[].class));
+        verify(pipelinedStrings, never()).set(any(byte[].class), any(byte[].class), any(), any());
+        assertThat(cache.get(orderId)).map(OrderResponse::getOrderId).contains(orderId);
+        assertThat(registry.counter("cache.l1.hit.count").count()).isEqualTo(1);
+    }
+
+    @Test
+    void writeThroughBehindANewerVersionFloorIsSkipped() {
+        UUID orderId = UUID.randomUUID();
+        // The saga's after-commit invalidation already left a newer version in order:ver
+        storeResult = 0L;
+
+        cache.setAfterCommit(orderId, order(orderId));
+
+        verify(scripting).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(2),
+                aryEq(key("order:" + orderId)), aryEq(key("order:ver:" + orderId)),
+                any(byte[].class), aryEq(key("4")), any(byte[].class));
+        verify(pipelinedStrings, never()).set(any(byte[].class), any(byte[].class), any(), any());
+        cache.get(orderId);
+        assertThat(registry.counter("cache.l1.hit.count").count()).isZero();
+    }
+
+    @Test
+    void getAllServesL1HitsAndResolvesTheRestWithOneMget() {
+        UUID local = UUID.randomUUID();
+        UUID remote = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        cache.set(local, order(local));
+        when(bytes.multiGet(List.of("order:" + remote, "order:" + missing))).thenReturn(Arrays.asList(
+                binary.encode(new CachedOrder(order(remote), 5, System.currentTimeMillis() + 60_000)), null));
+
+        Map<UUID, OrderResponse> found = cache.getAll(List.of(local, remote, missing));
+
+        assertThat(found).containsOnlyKeys(local, remote);
+        verify(bytes).multiGet(List.of("order:" + remote, "order:" + missing));
+        assertThat(registry.counter("cache.l1.hit.count").count()).isEqualTo(1);
+        assertThat(registry.counter("cache.l2.hit.count").count()).isEqualTo(1);
+        assertThat(registry.counter("cache.miss.count").count()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void setAllWritesEveryEntryInOnePipeline() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+
+        cache.setAll(Map.of(a, order(a), b, order(b)), 3);
+
+        verify(valueRedis, times(1)).executePipelined(any(RedisCallback.class));
+        verify(pipelinedStrings).set(aryEq(key("order:" + a)), any(byte[].class), any(), any());
+        verify(pipelinedStrings).set(aryEq(key("order:ver:" + b)), aryEq(key("4")), any(), any());
+        verify(bytes, never()).set(anyString(), any(byte[].class), any());
+    }
+
+    @Test
+    void versionIsWrittenNextToTheEntryAndServedWithoutDecoding() {
+        UUID cached = UUID.randomUUID();
+        UUID remote = UUID.randomUUID();
+        cache.set(cached, order(cached));
+        when(values.get("order:ver:" + remote)).thenReturn("9");
+
+        verify(pipelinedStrings).set(aryEq(key("order:ver:" + cached)), aryEq(key("4")), any(), any());
+        assertThat(cache.getVersion(cached)).contains(4L);
+        assertThat(cache.getVersion(remote)).contains(9L);
+        assertThat(cache.getVersion(UUID.randomUUID())).isEmpty();
+        verify(bytes, never()).get(anyString());
+        assertThat(registry.counter("cache.hit.count").count()).isZero();
+    }
+
+    private static OrderResponse order(UUID orderId) {
+        return OrderResponse.builder()
+                .orderId(orderId)
+                .userId("u1")
+                .currency("USD")
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("10.00"))
+                .version(4L)
+                .items(List.of())
+                .build();
+    }
+
+    private static byte[] key(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
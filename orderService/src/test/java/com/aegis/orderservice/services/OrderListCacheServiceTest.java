@@ -0,0 +1,139 @@
+package com.aegis.orderservice.services;
+
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.datasource.ReadRouting;
+import com.aegis.orderservice.dto.OrderResponse;
+import com.aegis.orderservice.dto.PageResponse;
+import com.aegis.orderservice.saga.OrdersCreatedEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderListCacheServiceTest {
+
+    private static final TypeReference<PageResponse<OrderResponse>> PAGE_TYPE = new TypeReference<>() {};
+    private static final String VARIANT = "page:null:createdAt:desc:0:20";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private StringRedisTemplate redis;
+    private OrderListCacheService cache;
+
+    @BeforeEach
+    void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        cache = new OrderListCacheService(redis, objectMapper, null, 60, 20, 5000);
+    }
+
+    @Test
+    void hitUnderCurrentVersionSkipsLoader() throws Exception {
+        PageResponse<OrderResponse> page = page();
+        when(redis.execute(script("return {v"), anyList(), any(Object[].class)))
+                .thenReturn(List.of("3", objectMapper.writeValueAsString(page)));
+        AtomicInteger loads = new AtomicInteger();
+
+        PageResponse<OrderResponse> result = cache.getOrLoad("u1", VARIANT, PAGE_TYPE, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+
+        assertThat(result).isEqualTo(page);
+        assertThat(loads).hasValue(0);
+        verify(redis, never()).execute(script("ZPOPMIN"), anyList(), any(Object[].class));
+    }
+
+    @Test
+    void missLoadsAndStoresUnderTheVersionItWasLoadedFor() {
+        PageResponse<OrderResponse> page = page();
+        when(redis.execute(script("return {v"), anyList(), any(Object[].class)))
+                .thenReturn(Arrays.asList("3", null));
+
+        PageResponse<OrderResponse> result = cache.getOrLoad("u1", VARIANT, PAGE_TYPE, () -> page);
+
+        assertThat(result).isEqualTo(page);
+        verify(redis).execute(script("ZPOPMIN"), eq(List.of("orders:list:{u1}:ver", "orders:list:{u1}:idx")),
+                eq("3"), eq("orders:list:{u1}:"), eq(VARIANT), any(), eq("60000"), eq("20"), any());
+    }
+
+    @Test
+    void redisFailureFallsBackToLoader() {
+        when(redis.execute(script("return {v"), anyList(), any(Object[].class)))
+                .thenThrow(new IllegalStateException("redis down"));
+
+        assertThat(cache.getOrLoad("u1", VARIANT, PAGE_TYPE, this::page)).isEqualTo(page());
+    }
+
+    @Test
+    void createdOrdersBumpEachOwnersVersion() {
+        cache.onOrdersCreated(new OrdersCreatedEvent(List.of(UUID.randomUUID(), UUID.randomUUID()), Set.of("u1", "u2")));
+
+        verify(redis).execute(script("INCR"), eq(List.of("orders:list:{u1}:ver", "orders:list:{u1}:recent")),
+                eq("60000"), eq("5000"));
+        verify(redis).execute(script("INCR"), eq(List.of("orders:list:{u2}:ver", "orders:list:{u2}:recent")),
+                eq("60000"), eq("5000"));
+    }
+
+    @Test
+    void missRightAfterABumpLoadsFromThePrimary() {
+        when(redis.execute(script("return {v"), anyList(), any(Object[].class)))
+                .thenReturn(Arrays.asList("4", null, 1L), Arrays.asList("4", null, 0L));
+        List<Boolean> pinned = new ArrayList<>();
+
+        cache.getOrLoad("u1", VARIANT, PAGE_TYPE, () -> {
+            pinned.add(ReadRouting.isPrimaryPinned());
+            return page();
+        });
+        cache.getOrLoad("u1", VARIANT, PAGE_TYPE, () -> {
+            pinned.add(ReadRouting.isPrimaryPinned());
+            return page();
+        });
+
+        assertThat(pinned).containsExactly(true, false);
+    }
+
+    private static <T> RedisScript<T> script(String fragment) {
+        return argThat(s -> s != null && s.getScriptAsString().contains(fragment));
+    }
+
+    private PageResponse<OrderResponse> page() {
+        OrderResponse order = OrderResponse.builder()
+                .orderId(UUID.fromString("00000000-0000-0000-0000-000000000001"))
+                .userId("u1")
+                .currency("USD")
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("10.00"))
+                .createdAt(Instant.parse("2026-01-01T00:00:00Z"))
+                .items(List.of())
+                .build();
+        return PageResponse.<OrderResponse>builder()
+                .content(List.of(order))
+                .totalElements(1)
+                .totalPages(1)
+                .number(0)
+                .size(20)
+                .first(true)
+                .last(true)
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.aegis.orderservice.services.impl;
+
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.concurrency.AdmissionQueue;
+import com.aegis.orderservice.dto.BatchCreateOrderEntry;
+import com.aegis.orderservice.dto.BatchCreateOrderResponse;
+import com.aegis.orderservice.dto.BatchCreateOrderResult;
+import com.aegis.orderservice.dto.CreateOrderRequest;
+import com.aegis.orderservice.dto.CreateOrderResponse;
+import com.aegis.orderservice.dto.IdempotentCreateResult;
+import com.aegis.orderservice.dto.OrderItemRequest;
+import com.aegis.orderservice.exception.IdempotencyConflictException;
+import com.aegis.orderservice.exception.ServiceOverloadedException;
+import com.aegis.orderservice.services.resources.IOrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GroupCommitOrderCreatorTest {
+
+    private GroupCommitOrderCreator creator;
+
+    @AfterEach
+    void tearDown() {
+        if (creator != null) {
+            creator.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentSubmitsAreCoalescedAndEachCallerGetsItsOwnResult() throws Exception {
+        IOrderService service = mock(IOrderService.class);
+        List<Integer> groupSizes = new CopyOnWriteArrayList<>();
+        when(service.createOrdersBatch(anyList())).thenAnswer(inv -> {
+            List<BatchCreateOrderEntry> entries = inv.getArgument(0);
+            groupSizes.add(entries.size());
+            List<BatchCreateOrderResult> results = new ArrayList<>();
+            for (BatchCreateOrderEntry e : entries) {
+                CreateOrderResponse r = CreateOrderResponse.builder()
+                        .orderId(UUID.randomUUID())
+                        .status(OrderStatus.PENDING)
+                        .totalAmount(BigDecimal.TEN)
+                        .createdAt(Instant.now())
+                        .build();
+                results.add(BatchCreateOrderResult.created(e.getIdempotencyKey(), r, "{\"key\":\"" + e.getIdempotencyKey() + "\"}"));
+            }
+            return new BatchCreateOrderResponse(results);
+        });
+        creator = new GroupCommitOrderCreator(service, null, 64, 50, 100, 10_000);
+
+        int callers = 8;
+        CyclicBarrier start = new CyclicBarrier(callers);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<IdempotentCreateResult>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            String key = "k" + i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return creator.submit(key, request(), AdmissionQueue.NO_DEADLINE);
+            }));
+        }
+        for (int i = 0; i < callers; i++) {
+            IdempotentCreateResult result = futures.get(i).get();
+            assertThat(result.getType()).isEqualTo(IdempotentCreateResult.Type.CREATED);
+            assertThat(result.getResponseBodyJson()).contains("\"k" + i + "\"");
+        }
+        executor.shutdown();
+
+        assertThat(groupSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(callers);
+        assertThat(groupSizes.size()).as("fewer transactions than callers").isLessThan(callers);
+    }
+
+    @Test
+    void conflictEntryIsRethrownOnlyToItsCaller() {
+        IOrderService service = mock(IOrderService.class);
+        when(service.createOrdersBatch(anyList())).thenAnswer(inv -> {
+            List<BatchCreateOrderEntry> entries = inv.getArgument(0);
+            return new BatchCreateOrderResponse(entries.stream()
+                    .map(e -> BatchCreateOrderResult.conflict(e.getIdempotencyKey(), "Idempotency key was used for a different request"))
+                    .toList());
+        });
+        creator = new GroupCommitOrderCreator(service, null, 64, 0, 100, 10_000);
+
+        assertThatThrownBy(() -> creator.submit("k", request(), AdmissionQueue.NO_DEADLINE))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .hasMessageContaining("different request");
+    }
+
+    @Test
+    void waitEndsAtTheRequestDeadline() {
+        IOrderService service = mock(IOrderService.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(service.createOrdersBatch(anyList())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("too late");
+        });
+        creator = new GroupCommitOrderCreator(service, null, 64, 0, 100, 10_000);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> creator.submit("k", request(), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100)))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .hasMessageContaining("Timed out");
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(2));
+        release.countDown();
+    }
+
+    @Test
+    void shutdownFailsTheGroupBeingCollectedAndLaterSubmits() throws Exception {
+        IOrderService service = mock(IOrderService.class);
+        // A long collection window: the entry is still in the flusher's group when shutdown interrupts it
+        creator = new GroupCommitOrderCreator(service, null, 64, 30_000, 100, 60_000);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<IdempotentCreateResult> waiting = executor.submit(() -> creator.submit("k1", request(), AdmissionQueue.NO_DEADLINE));
+        Thread.sleep(200);
+
+        creator.shutdown();
+
+        assertThatThrownBy(() -> waiting.get(2, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ServiceOverloadedException.class)
+                .hasMessageContaining("shutting down");
+        assertThatThrownBy(() -> creator.submit("k2", request(), AdmissionQueue.NO_DEADLINE))
+                .isInstanceOf(ServiceOverloadedException.class);
+        executor.shutdown();
+        verify(service, never()).createOrdersBatch(anyList());
+    }
+
+    private static CreateOrderRequest request() {
+        return new CreateOrderRequest("u1", "USD", List.of(new OrderItemRequest("SKU-A", 1, new BigDecimal("10.00"))));
+    }
+}
@@ -0,0 +1,128 @@
+package com.aegis.orderservice.services.impl;
+
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.dto.BatchGetOrderResult;
+import com.aegis.orderservice.dto.BatchGetOrdersResponse;
+import com.aegis.orderservice.dto.OrderResponse;
+import com.aegis.orderservice.outbox.OutboxWriter;
+import com.aegis.orderservice.repository.IdempotencyKeysRepository;
+import com.aegis.orderservice.repository.OrderReadJdbcRepository;
+import com.aegis.orderservice.repository.OrderRepository;
+import com.aegis.orderservice.services.IdempotencyCompletionRegistry;
+import com.aegis.orderservice.services.OrderCacheService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch get: results in request order (duplicates included), explicit not-found entries, cache hits
+ * first and a single query for the distinct misses.
+ */
+class OrdersServiceBatchGetTest {
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID missing = UUID.randomUUID();
+
+    private OrderReadJdbcRepository orderReadRepository;
+    private OrderCacheService orderCache;
+
+    @BeforeEach
+    void setUp() {
+        orderReadRepository = mock(OrderReadJdbcRepository.class);
+        orderCache = mock(OrderCacheService.class);
+    }
+
+    @Test
+    void resultsFollowTheRequestOrderWithDuplicatesAndNotFoundEntries() {
+        when(orderCache.getAll(any())).thenReturn(Map.of(a, order(a)));
+        when(orderCache.versionMarkers(List.of(b, missing))).thenReturn(Map.of(b, "", missing, ""));
+        when(orderReadRepository.findAllByIds(List.of(b, missing))).thenReturn(Map.of(b, order(b)));
+
+        BatchGetOrdersResponse response = service(orderCache).getOrdersByIds(List.of(b, a, missing, b, a));
+
+        assertThat(response.getResults())
+                .extracting(BatchGetOrderResult::getOrderId, BatchGetOrderResult::isFound)
+                .containsExactly(tuple(b, true), tuple(a, true), tuple(missing, false), tuple(b, true), tuple(a, true));
+        assertThat(response.getResults().get(2).getOrder()).isNull();
+        assertThat(response.getResults().get(3).getOrder().getOrderId()).isEqualTo(b);
+    }
+
+    @Test
+    void missesAreLoadedOnceWithOneQueryForTheDistinctIds() {
+        when(orderCache.getAll(any())).thenReturn(Map.of(a, order(a)));
+        when(orderCache.versionMarkers(List.of(b, missing))).thenReturn(Map.of(b, "3", missing, ""));
+        when(orderReadRepository.findAllByIds(List.of(b, missing))).thenReturn(Map.of(b, order(b)));
+
+        service(orderCache).getOrdersByIds(List.of(a, b, missing, b, missing));
+
+        verify(orderReadRepository, times(1)).findAllByIds(any());
+        verify(orderReadRepository).findAllByIds(List.of(b, missing));
+        // Only what was loaded is back-filled, conditionally on the markers read before the load
+        verify(orderCache).setAllIfUnchanged(eq(Map.of(b, order(b))), eq(Map.of(b, "3", missing, "")), anyLong());
+    }
+
+    @Test
+    void allCachedTouchesNoDatabase() {
+        when(orderCache.getAll(any())).thenReturn(Map.of(a, order(a), b, order(b)));
+
+        BatchGetOrdersResponse response = service(orderCache).getOrdersByIds(List.of(a, b, a));
+
+        assertThat(response.getResults()).extracting(BatchGetOrderResult::getOrderId).containsExactly(a, b, a);
+        verify(orderReadRepository, never()).findAllByIds(any());
+        verify(orderCache, never()).setAllIfUnchanged(anyMap(), anyMap(), anyLong());
+    }
+
+    @Test
+    void withoutACacheEveryDistinctIdGoesToTheSingleQuery() {
+        when(orderReadRepository.findAllByIds(List.of(a, missing))).thenReturn(Map.of(a, order(a)));
+
+        BatchGetOrdersResponse response = service(null).getOrdersByIds(List.of(a, missing, a));
+
+        assertThat(response.getResults())
+                .extracting(BatchGetOrderResult::getOrderId, BatchGetOrderResult::isFound)
+                .containsExactly(tuple(a, true), tuple(missing, false), tuple(a, true));
+        verify(orderReadRepository, times(1)).findAllByIds(any());
+    }
+
+    private OrdersService service(OrderCacheService cache) {
+        return new OrdersService(mock(OrderRepository.class), mock(IdempotencyKeysRepository.class),
+                new ObjectMapper().findAndRegisterModules(), cache, null, mock(OrderBatchWriter.class), 100,
+                null, mock(PlatformTransactionManager.class), new IdempotencyCompletionRegistry(),
+                0, mock(OutboxWriter.class), mock(ApplicationEventPublisher.class), true,
+                orderReadRepository, "projection", null, 8);
+    }
+
+    private static OrderResponse order(UUID orderId) {
+        return OrderResponse.builder()
+                .orderId(orderId)
+                .userId("u1")
+                .currency("USD")
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("10.00"))
+                .createdAt(Instant.parse("2026-01-01T00:00:00Z"))
+                .version(0L)
+                .items(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,182 @@
+package com.aegis.orderservice.services.impl;
+
+import com.aegis.orderservice.Entity.IdempotencyKeys;
+import com.aegis.orderservice.concurrency.AdmissionQueue;
+import com.aegis.orderservice.dto.CreateOrderRequest;
+import com.aegis.orderservice.dto.IdempotentCreateResult;
+import com.aegis.orderservice.dto.OrderItemRequest;
+import com.aegis.orderservice.exception.IdempotencyConflictException;
+import com.aegis.orderservice.exception.IdempotencyStillProcessingException;
+import com.aegis.orderservice.outbox.OutboxWriter;
+import com.aegis.orderservice.repository.IdempotencyClaim;
+import com.aegis.orderservice.repository.IdempotencyKeysRepository;
+import com.aegis.orderservice.repository.OrderReadJdbcRepository;
+import com.aegis.orderservice.repository.OrderRepository;
+import com.aegis.orderservice.services.IdempotencyCacheService;
+import com.aegis.orderservice.services.IdempotencyCompletionRegistry;
+import com.aegis.orderservice.util.RequestHashUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Idempotent creates through the Redis tier: replays and conflicts answered from Redis, in-flight markers
+ * (waited for in findReplay, before admission), and Postgres taking over when Redis fails.
+ */
+class OrdersServiceIdempotencyTest {
+
+    private static final String KEY = "k1";
+
+    private final CreateOrderRequest request =
+            new CreateOrderRequest("u1", "USD", List.of(new OrderItemRequest("SKU-A", 1, new BigDecimal("10.00"))));
+    private final String hash = RequestHashUtil.computeRequestHash(request);
+
+    private ValueOperations<String, String> values;
+    private IdempotencyKeysRepository idempotencyKeysRepository;
+    private IdempotencyCacheService idempotencyCache;
+    private final IdempotencyCompletionRegistry completionRegistry = new IdempotencyCompletionRegistry();
+    private OrdersService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        idempotencyCache = new IdempotencyCacheService(redis, 86400, 30000);
+        idempotencyKeysRepository = mock(IdempotencyKeysRepository.class);
+        service = service(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyCache.shutdown();
+    }
+
+    @Test
+    void completedKeyIsReplayedFromRedisWithoutTouchingPostgres() {
+        when(values.get("idem:done:" + KEY)).thenReturn(hash + "|201|{\"orderId\":\"o1\"}");
+
+        IdempotentCreateResult result = service.createOrderIdempotent(KEY, request);
+
+        assertThat(result.getType()).isEqualTo(IdempotentCreateResult.Type.REPLAY);
+        assertThat(result.getResponseCode()).isEqualTo(201);
+        assertThat(result.getResponseBodyJson()).isEqualTo("{\"orderId\":\"o1\"}");
+        verifyNoInteractions(idempotencyKeysRepository);
+        verify(values, never()).setIfAbsent(anyString(), anyString(), any());
+    }
+
+    @Test
+    void completedKeyOfADifferentRequestIsAConflict() {
+        when(values.get("idem:done:" + KEY)).thenReturn("other-hash|201|{}");
+
+        assertThatThrownBy(() -> service.createOrderIdempotent(KEY, request))
+                .isInstanceOf(IdempotencyConflictException.class);
+        verifyNoInteractions(idempotencyKeysRepository);
+    }
+
+    @Test
+    void inFlightKeyOfADifferentRequestIsAConflictNotStillProcessing() {
+        service = service(5_000);
+        when(values.setIfAbsent(eq("idem:inflight:" + KEY), anyString(), any())).thenReturn(false);
+        when(values.get("idem:inflight:" + KEY)).thenReturn("other-hash|owner-token");
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> service.createOrderIdempotent(KEY, request))
+                .isInstanceOf(IdempotencyConflictException.class);
+
+        // Rejected without waiting for the owner
+        assertThat(System.nanoTime() - start).isLessThan(2_000_000_000L);
+        verifyNoInteractions(idempotencyKeysRepository);
+    }
+
+    @Test
+    void inFlightKeyOfTheSameRequestIsStillProcessing() {
+        when(values.setIfAbsent(eq("idem:inflight:" + KEY), anyString(), any())).thenReturn(false);
+        when(values.get("idem:inflight:" + KEY)).thenReturn(hash + "|owner-token");
+
+        assertThatThrownBy(() -> service.createOrderIdempotent(KEY, request))
+                .isInstanceOf(IdempotencyStillProcessingException.class);
+        verifyNoInteractions(idempotencyKeysRepository);
+    }
+
+    @Test
+    void redisFailureFallsBackToTheStoredRowInPostgres() {
+        when(values.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+        when(values.setIfAbsent(anyString(), anyString(), any())).thenThrow(new RedisConnectionFailureException("down"));
+        IdempotencyClaim stored = mock(IdempotencyClaim.class);
+        when(stored.getClaimed()).thenReturn(false);
+        when(stored.getRequestHash()).thenReturn(hash);
+        when(stored.getStatus()).thenReturn(IdempotencyKeys.STATUS_COMPLETED);
+        when(stored.getResponseCode()).thenReturn(201);
+        when(stored.getResponseBody()).thenReturn("{\"orderId\":\"o1\"}");
+        when(stored.getCreatedDay()).thenReturn(LocalDate.now());
+        when(idempotencyKeysRepository.claimOrGet(eq(KEY), eq(hash), any())).thenReturn(Optional.of(stored));
+
+        IdempotentCreateResult result = service.createOrderIdempotent(KEY, request);
+
+        assertThat(result.getType()).isEqualTo(IdempotentCreateResult.Type.REPLAY);
+        assertThat(result.getResponseBodyJson()).isEqualTo("{\"orderId\":\"o1\"}");
+        verify(idempotencyKeysRepository).claimOrGet(eq(KEY), eq(hash), any());
+    }
+
+    @Test
+    void findReplayWaitsForTheKeyOwnerAndReplaysItsResponse() {
+        service = service(5_000);
+        when(values.get("idem:inflight:" + KEY)).thenReturn(hash + "|owner-token");
+        // Before the wait (findReplay, then awaitCompletion's re-check) and after the owner released
+        when(values.get("idem:done:" + KEY)).thenReturn(null, null, hash + "|201|{\"orderId\":\"o1\"}");
+        CompletableFuture.runAsync(() -> completionRegistry.released(KEY),
+                CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+
+        Optional<IdempotentCreateResult> replay = service.findReplay(KEY, request, AdmissionQueue.NO_DEADLINE);
+
+        assertThat(replay).get().extracting(IdempotentCreateResult::getResponseBodyJson)
+                .isEqualTo("{\"orderId\":\"o1\"}");
+        verifyNoInteractions(idempotencyKeysRepository);
+    }
+
+    @Test
+    void findReplayStopsWaitingAtTheDeadline() {
+        service = service(5_000);
+        when(values.get("idem:inflight:" + KEY)).thenReturn(hash + "|owner-token");
+        long start = System.nanoTime();
+
+        assertThatThrownBy(() -> service.findReplay(KEY, request, start + TimeUnit.MILLISECONDS.toNanos(200)))
+                .isInstanceOf(IdempotencyStillProcessingException.class);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000);
+    }
+
+    private OrdersService service(long waitForCompletionMs) {
+        return new OrdersService(mock(OrderRepository.class), idempotencyKeysRepository,
+                new ObjectMapper().findAndRegisterModules(), null, null, mock(OrderBatchWriter.class), 100,
+                idempotencyCache, mock(PlatformTransactionManager.class), completionRegistry,
+                waitForCompletionMs, mock(OutboxWriter.class), mock(ApplicationEventPublisher.class), true,
+                mock(OrderReadJdbcRepository.class), "projection", null, 8);
+    }
+}
@@ -0,0 +1,34 @@
+package com.aegis.orderservice.util;
+
+import com.aegis.orderservice.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderCursorTest {
+
+    @Test
+    void roundTripsPositionAndDirection() {
+        OrderCursor cursor = new OrderCursor(Instant.parse("2026-03-04T05:06:07.123456Z"), UUID.randomUUID(), false);
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(OrderCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsTamperedOrForeignCursors() {
+        String wrongVersion = Base64.getUrlEncoder().encodeToString(
+                ("v0:d:1:0:" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> OrderCursor.decode("not-a-cursor")).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> OrderCursor.decode(wrongVersion)).isInstanceOf(InvalidCursorException.class);
+    }
+}
@@ -0,0 +1,89 @@
+package com.aegis.orderservice.util;
+
+import com.aegis.orderservice.Entity.OrderStatus;
+import com.aegis.orderservice.dto.CursorPageResponse;
+import com.aegis.orderservice.dto.OrderResponse;
+import com.aegis.orderservice.dto.PageResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderETagsTest {
+
+    private static final UUID ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Test
+    void singleOrderTagIsStrongAndFollowsTheVersion() {
+        assertThat(OrderETags.of(order(ID, 2L))).isEqualTo("\"" + ID + ":2\"");
+        assertThat(OrderETags.of(order(ID, 2L))).isEqualTo(OrderETags.of(ID, 2));
+        assertThat(OrderETags.of(order(ID, 3L))).isNotEqualTo(OrderETags.of(ID, 2));
+        assertThat(OrderETags.of(order(ID, null))).isNull();
+    }
+
+    @Test
+    void pageTagIsWeakAndChangesWithAnyVersionOrThePageShape() {
+        String tag = OrderETags.of(page(order(ID, 1L), 1));
+
+        assertThat(tag).startsWith("W/\"");
+        assertThat(OrderETags.of(page(order(ID, 1L), 1))).isEqualTo(tag);
+        assertThat(OrderETags.of(page(order(ID, 2L), 1))).isNotEqualTo(tag);
+        assertThat(OrderETags.of(page(order(ID, 1L), 2))).isNotEqualTo(tag);
+        assertThat(OrderETags.of(page(order(ID, null), 1))).isNull();
+    }
+
+    @Test
+    void cursorPageTagCoversTheNextCursor() {
+        CursorPageResponse<OrderResponse> page = CursorPageResponse.<OrderResponse>builder()
+                .content(List.of(order(ID, 1L)))
+                .size(20)
+                .hasNext(true)
+                .nextCursor("abc")
+                .build();
+        String tag = OrderETags.of(page);
+
+        page.setNextCursor("abd");
+
+        assertThat(OrderETags.of(page)).isNotEqualTo(tag).startsWith("W/\"");
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparisonListsAndWildcard() {
+        String strong = OrderETags.of(ID, 2);
+
+        assertThat(OrderETags.matches(strong, strong)).isTrue();
+        assertThat(OrderETags.matches("W/" + strong, strong)).isTrue();
+        assertThat(OrderETags.matches("\"a\", " + strong, strong)).isTrue();
+        assertThat(OrderETags.matches("*", strong)).isTrue();
+        assertThat(OrderETags.matches(OrderETags.of(ID, 1), strong)).isFalse();
+        assertThat(OrderETags.matches(null, strong)).isFalse();
+        assertThat(OrderETags.matches("*", null)).isFalse();
+    }
+
+    private static PageResponse<OrderResponse> page(OrderResponse order, long totalElements) {
+        return PageResponse.<OrderResponse>builder()
+                .content(List.of(order))
+                .totalElements(totalElements)
+                .totalPages(1)
+                .number(0)
+                .size(20)
+                .first(true)
+                .last(true)
+                .build();
+    }
+
+    private static OrderResponse order(UUID orderId, Long version) {
+        return OrderResponse.builder()
+                .orderId(orderId)
+                .userId("u1")
+                .currency("USD")
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("10.00"))
+                .version(version)
+                .items(List.of())
+                .build();
+    }
+}